@@ -0,0 +1,92 @@
+package com.renault.garage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.renault.garage.dto.GarageDto;
+import com.renault.garage.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache borné (taille et durée de vie) des {@link GarageDto} par identifiant.
+ * <p>
+ * Les invalidations sont appliquées après la validation des transactions
+ * d'écriture. Pour qu'une lecture concurrente, commencée avant la validation,
+ * ne réinsère pas une valeur périmée, chaque invalidation incrémente un numéro
+ * de génération (par tranche d'identifiants) : une valeur chargée n'est
+ * conservée que si la génération n'a pas changé pendant son chargement.
+ * <p>
+ * Métriques exposées sous le nom {@code cache} avec le tag {@code cache=garages}
+ * (succès, échecs, évictions, taille).
+ */
+@Component
+public class GarageDtoCache {
+
+    static final String CACHE_NAME = "garages";
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, GarageDto> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public GarageDtoCache(MeterRegistry meterRegistry,
+            @Value("${app.cache.garages.max-size:10000}") long maxSize,
+            @Value("${app.cache.garages.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Retourne le garage en cache, ou le charge avec {@code loader} et le met en
+     * cache. Les exceptions du chargement sont propagées et rien n'est mis en cache.
+     * Dans une transaction en écriture, le cache est contourné : la valeur lue
+     * pourrait contenir des modifications non validées.
+     */
+    public GarageDto get(Long id, Function<Long, GarageDto> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.apply(id);
+        }
+        GarageDto cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(id);
+        long generation = generations.get(stripe);
+        GarageDto loaded = loader.apply(id);
+        cache.put(id, loaded);
+        if (generations.get(stripe) != generation) {
+            // Une écriture a été validée pendant le chargement : la valeur est peut-être périmée
+            cache.asMap().remove(id, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalide le garage après la validation de la transaction courante, ou
+     * immédiatement si aucune transaction n'est active.
+     */
+    public void invalidateAfterCommit(Long id) {
+        TransactionHooks.afterCommit(() -> invalidate(id));
+    }
+
+    void invalidate(Long id) {
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+}
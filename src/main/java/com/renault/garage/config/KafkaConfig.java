@@ -6,22 +6,28 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Configuration Kafka pour le microservice.
  * Active uniquement si Kafka est activé.
+ * Active également la planification utilisée par le relais de l'outbox.
  */
 @Configuration
+@EnableScheduling
 @ConditionalOnProperty(name = "spring.kafka.enabled", havingValue = "true")
 public class KafkaConfig {
 
     @Value("${app.kafka.topic.vehicle-created:vehicle-created-topic}")
     private String vehicleCreatedTopic;
 
+    @Value("${app.kafka.topic.vehicle-created-partitions:3}")
+    private int vehicleCreatedPartitions;
+
     @Bean
     public NewTopic vehicleCreatedTopic() {
         return TopicBuilder.name(vehicleCreatedTopic)
-                .partitions(3)
+                .partitions(vehicleCreatedPartitions)
                 .replicas(1)
                 .build();
     }
@@ -1,7 +1,12 @@
 package com.renault.garage.controller;
 
+import com.renault.garage.dto.CursorPage;
 import com.renault.garage.dto.GarageDto;
 import com.renault.garage.enums.FuelType;
+import com.renault.garage.dto.GarageImportReport;
+import com.renault.garage.dto.NearbyGarageDto;
+import com.renault.garage.service.GarageExportService;
+import com.renault.garage.service.GarageImportService;
 import com.renault.garage.service.GarageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,10 +17,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/garages")
@@ -24,6 +39,8 @@ import java.util.List;
 public class GarageController {
 
     private final GarageService garageService;
+    private final GarageExportService garageExportService;
+    private final GarageImportService garageImportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -46,6 +63,14 @@ public class GarageController {
         return garageService.getAllGarages(pageable);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Parcourir les garages par curseur", description = "Parcours de tous les garages triés par nom, page par page, sans comptage. Renvoyer nextCursor pour obtenir la page suivante")
+    public CursorPage<GarageDto> scrollGarages(
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Taille de page (max 100)") @RequestParam(defaultValue = "10") int size) {
+        return garageService.scrollGarages(cursor, size);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Modifier un garage", description = "Met à jour les informations d'un garage existant")
     public GarageDto updateGarage(
@@ -62,18 +87,48 @@ public class GarageController {
         garageService.deleteGarage(id);
     }
 
+    @GetMapping("/{id}/fuel-mix")
+    @Operation(summary = "Répartition par carburant", description = "Nombre de véhicules du garage par type de carburant")
+    public Map<FuelType, Integer> getFuelMix(
+            @Parameter(description = "ID du garage") @PathVariable Long id) {
+        return garageService.getFuelMix(id);
+    }
+
     @GetMapping("/search/by-fuel-type")
-    @Operation(summary = "Rechercher par type de véhicule", description = "Recherche des garages par type de véhicule pris en charge")
-    public List<GarageDto> searchByFuelType(
-            @Parameter(description = "Type de carburant (ESSENCE, DIESEL, ELECTRIC, HYBRID)") @RequestParam FuelType typeCarburant) {
-        return garageService.getGaragesByVehicleFuelType(typeCarburant);
+    @Operation(summary = "Rechercher par type de véhicule", description = "Recherche paginée des garages par type de véhicule pris en charge")
+    public Page<GarageDto> searchByFuelType(
+            @Parameter(description = "Type de carburant (ESSENCE, DIESEL, ELECTRIC, HYBRID)") @RequestParam FuelType typeCarburant,
+            @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
+        return garageService.getGaragesByVehicleFuelType(typeCarburant, pageable);
     }
 
     @GetMapping("/search/by-accessory")
-    @Operation(summary = "Rechercher par accessoire", description = "Recherche des garages contenant un accessoire spécifique dans au moins un véhicule")
-    public List<GarageDto> searchByAccessory(
-            @Parameter(description = "Nom de l'accessoire") @RequestParam String nom) {
-        return garageService.getGaragesByAccessoryName(nom);
+    @Operation(summary = "Rechercher par accessoire", description = "Recherche paginée des garages contenant un accessoire spécifique dans au moins un véhicule")
+    public Page<GarageDto> searchByAccessory(
+            @Parameter(description = "Nom de l'accessoire") @RequestParam String nom,
+            @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
+        return garageService.getGaragesByAccessoryName(nom, pageable);
+    }
+
+    @GetMapping("/search/open")
+    @Operation(summary = "Rechercher les garages ouverts", description = "Recherche paginée des garages ouverts au jour et à l'heure donnés (maintenant par défaut), au quart d'heure près, et sans interruption pendant les N heures suivantes si demandé, triée par nom (par défaut) ou par id")
+    public Page<GarageDto> searchOpen(
+            @Parameter(description = "Jour (MONDAY ... SUNDAY), aujourd'hui par défaut") @RequestParam(required = false) DayOfWeek jour,
+            @Parameter(description = "Heure (HH:mm), maintenant par défaut") @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime heure,
+            @Parameter(description = "Nombre d'heures d'ouverture continue à partir de l'heure donnée (0 à 168)") @RequestParam(defaultValue = "0") int heures,
+            @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
+        return garageService.getOpenGarages(jour, heure, heures, pageable);
+    }
+
+    @GetMapping("/search/nearest")
+    @Operation(summary = "Rechercher les garages les plus proches", description = "Garages géolocalisés les plus proches d'un point, du plus proche au plus lointain, avec leur distance, dans un rayon et pour un type de carburant pris en charge si demandé")
+    public List<NearbyGarageDto> searchNearest(
+            @Parameter(description = "Latitude du point (degrés décimaux, -90 à 90)") @RequestParam double latitude,
+            @Parameter(description = "Longitude du point (degrés décimaux, -180 à 180)") @RequestParam double longitude,
+            @Parameter(description = "Rayon de recherche en kilomètres, non borné par défaut") @RequestParam(required = false) Double rayonKm,
+            @Parameter(description = "Nombre maximal de garages (max 100)") @RequestParam(defaultValue = "10") int limite,
+            @Parameter(description = "Type de carburant (ESSENCE, DIESEL, ELECTRIC, HYBRID)") @RequestParam(required = false) FuelType typeCarburant) {
+        return garageService.getNearestGarages(latitude, longitude, rayonKm, limite, typeCarburant);
     }
 
     @GetMapping("/search/by-name")
@@ -83,4 +138,34 @@ public class GarageController {
             @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
         return garageService.searchGaragesByName(name, pageable);
     }
+
+    @GetMapping("/search/by-name/scroll")
+    @Operation(summary = "Rechercher par nom par curseur", description = "Recherche des garages dont le nom contient la chaîne fournie, parcourue par curseur sans comptage")
+    public CursorPage<GarageDto> scrollByName(
+            @Parameter(description = "Nom du garage") @RequestParam String name,
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Taille de page (max 100)") @RequestParam(defaultValue = "10") int size) {
+        return garageService.scrollGaragesByName(name, cursor, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exporter les garages", description = "Exporte en flux tous les garages par id croissant, un objet JSON par ligne (NDJSON), avec leurs véhicules et accessoires sur demande")
+    public ResponseEntity<StreamingResponseBody> exportGarages(
+            @Parameter(description = "Inclure les véhicules et leurs accessoires") @RequestParam(defaultValue = "false") boolean avecVehicules) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"garages.ndjson\"")
+                .body(output -> garageExportService.exportGarages(output, avecVehicules));
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Importer des garages", description = "Importe en masse des garages et leurs horaires depuis un flux NDJSON (un GarageDto par ligne) ou CSV (en-tête name,address,telephone,email,horairesOuverture, et facultativement latitude,longitude), par lots transactionnels, et rapporte les lignes rejetées")
+    public GarageImportReport importGarages(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        GarageImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? GarageImportService.Format.NDJSON
+                : GarageImportService.Format.CSV;
+        return garageImportService.importGarages(body, format);
+    }
 }
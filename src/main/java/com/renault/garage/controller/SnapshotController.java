@@ -0,0 +1,30 @@
+package com.renault.garage.controller;
+
+import com.renault.garage.snapshot.GarageSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/snapshot")
+@RequiredArgsConstructor
+@Tag(name = "Snapshot", description = "Export binaire du réseau de garages pour le démarrage à chaud")
+public class SnapshotController {
+
+    private final GarageSnapshotService garageSnapshotService;
+
+    @GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Exporter un snapshot", description = "Exporte en flux tous les garages, horaires, véhicules et accessoires au format binaire, à charger au démarrage via app.snapshot.import-path")
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"garages.snapshot\"")
+                .body(garageSnapshotService::exportSnapshot);
+    }
+}
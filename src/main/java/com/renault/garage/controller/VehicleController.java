@@ -1,5 +1,6 @@
 package com.renault.garage.controller;
 
+import com.renault.garage.dto.VehicleBatchDto;
 import com.renault.garage.dto.VehicleDto;
 import com.renault.garage.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +30,15 @@ public class VehicleController {
         return vehicleService.addVehicleToGarage(garageId, vehicleDto);
     }
 
+    @PostMapping("/garages/{garageId}/vehicles/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Ajouter un lot de véhicules", description = "Ajoute jusqu'à 500 véhicules à un garage en une seule requête. La capacité est vérifiée pour l'ensemble du lot")
+    public List<VehicleDto> addVehicles(
+            @Parameter(description = "ID du garage") @PathVariable Long garageId,
+            @Valid @RequestBody VehicleBatchDto vehicleBatchDto) {
+        return vehicleService.addVehiclesToGarage(garageId, vehicleBatchDto.getVehicles());
+    }
+
     @GetMapping("/garages/{garageId}/vehicles")
     @Operation(summary = "Lister les véhicules d'un garage", description = "Récupère tous les véhicules d'un garage spécifique")
     public List<VehicleDto> getVehiclesByGarage(
@@ -0,0 +1,25 @@
+package com.renault.garage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page obtenue par pagination par curseur (keyset). Le curseur est opaque :
+ * il suffit de le renvoyer tel quel pour obtenir la page suivante.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+}
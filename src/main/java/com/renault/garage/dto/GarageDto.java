@@ -1,5 +1,7 @@
 package com.renault.garage.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -31,6 +33,14 @@ public class GarageDto {
     @Email(message = "L'email doit être valide")
     private String email;
 
+    @DecimalMin(value = "-90", message = "La latitude doit être comprise entre -90 et 90")
+    @DecimalMax(value = "90", message = "La latitude doit être comprise entre -90 et 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "La longitude doit être comprise entre -180 et 180")
+    @DecimalMax(value = "180", message = "La longitude doit être comprise entre -180 et 180")
+    private Double longitude;
+
     @NotNull(message = "Les horaires d'ouverture sont obligatoires")
     private Map<DayOfWeek, List<OpeningTimeDto>> horairesOuverture;
 
@@ -0,0 +1,20 @@
+package com.renault.garage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * Ligne de l'export NDJSON des garages : les champs du garage, suivis de ses
+ * véhicules et de leurs accessoires lorsqu'ils sont demandés.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GarageExportDto(@JsonUnwrapped GarageDto garage, List<VehicleExport> vehicles) {
+
+    /**
+     * Véhicule exporté avec ses accessoires.
+     */
+    public record VehicleExport(@JsonUnwrapped VehicleDto vehicle, List<AccessoryDto> accessories) {
+    }
+}
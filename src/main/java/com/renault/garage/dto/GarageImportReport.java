@@ -0,0 +1,40 @@
+package com.renault.garage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import de garages. Les erreurs sont rapportées par numéro de
+ * ligne du fichier, dans la limite de {@code app.import.max-reported-errors} ;
+ * {@code rejected} compte toutes les lignes rejetées.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GarageImportReport {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<LineError> errors;
+
+    /**
+     * Ligne rejetée et motif du rejet.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+
+        private long line;
+
+        private String message;
+    }
+}
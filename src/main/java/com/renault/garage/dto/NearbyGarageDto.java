@@ -0,0 +1,10 @@
+package com.renault.garage.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Garage trouvé par la recherche de proximité : les champs du garage, suivis de
+ * sa distance au point recherché.
+ */
+public record NearbyGarageDto(@JsonUnwrapped GarageDto garage, double distanceKm) {
+}
@@ -0,0 +1,20 @@
+package com.renault.garage.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class VehicleBatchDto {
+
+    @NotEmpty(message = "Le lot doit contenir au moins un véhicule")
+    @Size(max = 500, message = "Le lot ne peut pas dépasser 500 véhicules")
+    private List<@Valid VehicleDto> vehicles;
+}
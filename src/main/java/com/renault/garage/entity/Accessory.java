@@ -16,7 +16,8 @@ import java.math.BigDecimal;
 public class Accessory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accessory_seq")
+    @SequenceGenerator(name = "accessory_seq", sequenceName = "accessories_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom est obligatoire")
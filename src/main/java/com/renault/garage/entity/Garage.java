@@ -18,7 +18,8 @@ import java.util.stream.Collectors;
 public class Garage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "garage_seq")
+    @SequenceGenerator(name = "garage_seq", sequenceName = "garages_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom du garage est obligatoire")
@@ -40,6 +41,14 @@ public class Garage {
     @Column(nullable = false)
     private String email;
 
+    /**
+     * Coordonnées WGS 84 en degrés décimaux, absentes si le garage n'est pas
+     * géolocalisé.
+     */
+    private Double latitude;
+
+    private Double longitude;
+
     @ElementCollection
     @CollectionTable(name = "garage_opening_hours", joinColumns = @JoinColumn(name = "garage_id"))
     private List<OpeningTime> openingHours = new ArrayList<>();
@@ -47,6 +56,14 @@ public class Garage {
     @OneToMany(mappedBy = "garage", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Vehicle> vehicles = new ArrayList<>();
 
+    /**
+     * Nombre de véhicules stockés, maintenu par des mises à jour atomiques en base
+     * (voir GarageRepository). Jamais réécrit par le dirty-checking afin de ne pas
+     * écraser un incrément concurrent.
+     */
+    @Column(name = "vehicle_count", nullable = false, updatable = false)
+    private int vehicleCount;
+
     public Garage() {
     }
 
@@ -74,6 +91,6 @@ public class Garage {
     }
 
     public int getVehicleCount() {
-        return vehicles.size();
+        return vehicleCount;
     }
 }
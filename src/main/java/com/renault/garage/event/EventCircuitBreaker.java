@@ -0,0 +1,89 @@
+package com.renault.garage.event;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Disjoncteur protégeant l'envoi des événements vers le broker.
+ * <ul>
+ * <li>CLOSED : les envois sont autorisés ;</li>
+ * <li>OPEN : après {@code failureThreshold} échecs consécutifs, les envois sont
+ * suspendus pendant {@code openDurationMs} ;</li>
+ * <li>HALF_OPEN : une seule tentative d'essai est autorisée, son résultat
+ * referme ou rouvre le disjoncteur. Une tentative restée sans résultat pendant
+ * {@code openDurationMs} est abandonnée et une nouvelle est autorisée.</li>
+ * </ul>
+ */
+public class EventCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long trialStartedAt;
+
+    public EventCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    EventCircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Indique si un envoi peut être tenté. Passe en HALF_OPEN une fois la durée
+     * d'ouverture écoulée ; en HALF_OPEN, seul le premier appel est autorisé
+     * jusqu'à ce que son résultat soit enregistré.
+     */
+    public synchronized boolean allowRequest() {
+        long now = clock.getAsLong();
+        if (state == State.OPEN && now - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight && now - trialStartedAt < openDurationMs) {
+                return false;
+            }
+            trialInFlight = true;
+            trialStartedAt = now;
+        }
+        return state != State.OPEN;
+    }
+
+    /**
+     * Indique si les envois sont suspendus, sans changer d'état ni consommer la
+     * tentative d'essai.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && clock.getAsLong() - openedAt < openDurationMs;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,16 @@
+package com.renault.garage.event;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializer Kafka binaire pour {@link VehicleCreatedEvent}.
+ * À activer via {@code spring.kafka.consumer.value-deserializer}, en cohérence
+ * avec le serializer du producer.
+ */
+public class VehicleCreatedEventBinaryDeserializer implements Deserializer<VehicleCreatedEvent> {
+
+    @Override
+    public VehicleCreatedEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : VehicleCreatedEventCodec.decode(data);
+    }
+}
@@ -0,0 +1,16 @@
+package com.renault.garage.event;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serializer Kafka binaire pour {@link VehicleCreatedEvent}.
+ * Alternative compacte au JsonSerializer, à activer via
+ * {@code spring.kafka.producer.value-serializer}.
+ */
+public class VehicleCreatedEventBinarySerializer implements Serializer<VehicleCreatedEvent> {
+
+    @Override
+    public byte[] serialize(String topic, VehicleCreatedEvent event) {
+        return event == null ? null : VehicleCreatedEventCodec.encode(event);
+    }
+}
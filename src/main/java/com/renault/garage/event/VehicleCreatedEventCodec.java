@@ -0,0 +1,160 @@
+package com.renault.garage.event;
+
+import com.renault.garage.enums.FuelType;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Encodage binaire compact et versionné de {@link VehicleCreatedEvent}.
+ * <p>
+ * Format (version 1) :
+ * <ol>
+ * <li>octet de version du schéma ;</li>
+ * <li>octet de présence : un bit par champ, dans l'ordre ci-dessous ;</li>
+ * <li>vehicleId (varlong), brand (chaîne), model (chaîne), manufacturingYear
+ * (varint), fuelType (octet, ordinal), garageId (varlong), garageName (chaîne),
+ * createdAt (secondes epoch en varlong puis nanosecondes en varint).</li>
+ * </ol>
+ * Les entiers sont encodés en zigzag + varint, les chaînes en longueur varint +
+ * UTF-8, createdAt est interprété en UTC. Seuls les champs présents sont écrits.
+ * <p>
+ * L'ordinal de {@link FuelType} fait partie du format : de nouvelles valeurs
+ * peuvent être ajoutées en fin d'énumération, l'ordre existant ne doit pas
+ * changer sans incrémenter la version.
+ */
+public final class VehicleCreatedEventCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int VEHICLE_ID = 1;
+    private static final int BRAND = 1 << 1;
+    private static final int MODEL = 1 << 2;
+    private static final int MANUFACTURING_YEAR = 1 << 3;
+    private static final int FUEL_TYPE = 1 << 4;
+    private static final int GARAGE_ID = 1 << 5;
+    private static final int GARAGE_NAME = 1 << 6;
+    private static final int CREATED_AT = 1 << 7;
+
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+    private VehicleCreatedEventCodec() {
+    }
+
+    public static byte[] encode(VehicleCreatedEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(VERSION);
+        out.write(presence(event));
+        if (event.getVehicleId() != null) {
+            writeVarLong(out, event.getVehicleId());
+        }
+        if (event.getBrand() != null) {
+            writeString(out, event.getBrand());
+        }
+        if (event.getModel() != null) {
+            writeString(out, event.getModel());
+        }
+        if (event.getManufacturingYear() != null) {
+            writeVarLong(out, event.getManufacturingYear());
+        }
+        if (event.getFuelType() != null) {
+            out.write(event.getFuelType().ordinal());
+        }
+        if (event.getGarageId() != null) {
+            writeVarLong(out, event.getGarageId());
+        }
+        if (event.getGarageName() != null) {
+            writeString(out, event.getGarageName());
+        }
+        if (event.getCreatedAt() != null) {
+            writeVarLong(out, event.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(out, event.getCreatedAt().getNano());
+        }
+        return out.toByteArray();
+    }
+
+    public static VehicleCreatedEvent decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new SerializationException("Version de schéma VehicleCreatedEvent non supportée: " + version);
+            }
+            int presence = in.get() & 0xFF;
+            VehicleCreatedEvent event = new VehicleCreatedEvent();
+            event.setVehicleId((presence & VEHICLE_ID) != 0 ? readVarLong(in) : null);
+            event.setBrand((presence & BRAND) != 0 ? readString(in) : null);
+            event.setModel((presence & MODEL) != 0 ? readString(in) : null);
+            event.setManufacturingYear((presence & MANUFACTURING_YEAR) != 0 ? (int) readVarLong(in) : null);
+            event.setFuelType((presence & FUEL_TYPE) != 0 ? FUEL_TYPES[in.get()] : null);
+            event.setGarageId((presence & GARAGE_ID) != 0 ? readVarLong(in) : null);
+            event.setGarageName((presence & GARAGE_NAME) != 0 ? readString(in) : null);
+            if ((presence & CREATED_AT) != 0) {
+                long epochSecond = readVarLong(in);
+                int nano = (int) readVarLong(in);
+                event.setCreatedAt(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+            } else {
+                event.setCreatedAt(null);
+            }
+            return event;
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Événement VehicleCreated binaire invalide", e);
+        }
+    }
+
+    private static int presence(VehicleCreatedEvent event) {
+        int presence = 0;
+        presence |= event.getVehicleId() != null ? VEHICLE_ID : 0;
+        presence |= event.getBrand() != null ? BRAND : 0;
+        presence |= event.getModel() != null ? MODEL : 0;
+        presence |= event.getManufacturingYear() != null ? MANUFACTURING_YEAR : 0;
+        presence |= event.getFuelType() != null ? FUEL_TYPE : 0;
+        presence |= event.getGarageId() != null ? GARAGE_ID : 0;
+        presence |= event.getGarageName() != null ? GARAGE_NAME : 0;
+        presence |= event.getCreatedAt() != null ? CREATED_AT : 0;
+        return presence;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new SerializationException("Varint trop long");
+            }
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
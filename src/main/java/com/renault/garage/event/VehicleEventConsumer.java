@@ -1,13 +1,24 @@
 package com.renault.garage.event;
 
+import com.renault.garage.enums.FuelType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Consumer d'événements pour les véhicules.
  * Consomme les événements de création de véhicules publiés sur Kafka.
+ * <p>
+ * Deux modes sont disponibles, un seul démarre selon
+ * {@code app.kafka.consumer.batch-enabled} :
+ * <ul>
+ * <li>par lot (par défaut) : un appel par poll, une ligne de log par lot, un
+ * consumer par partition du topic ;</li>
+ * <li>unitaire : un appel et une ligne de log par événement.</li>
+ * </ul>
  */
 @Component
 public class VehicleEventConsumer {
@@ -15,38 +26,54 @@ public class VehicleEventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(VehicleEventConsumer.class);
 
     /**
-     * Consomme les événements de création de véhicule.
-     * 
+     * Consomme les événements de création de véhicule par lot.
+     *
+     * @param events Les événements reçus lors d'un poll
+     */
+    @KafkaListener(id = "vehicleCreatedBatchListener", idIsGroup = false, batch = "true",
+            topics = "${app.kafka.topic.vehicle-created:vehicle-created-topic}",
+            groupId = "${spring.kafka.consumer.group-id:renault-garage-group}",
+            concurrency = "${app.kafka.topic.vehicle-created-partitions:3}",
+            autoStartup = "#{${spring.kafka.enabled:false} and ${app.kafka.consumer.batch-enabled:true}}")
+    public void consumeVehicleCreatedEvents(List<VehicleCreatedEvent> events) {
+        int ecological = 0;
+        for (VehicleCreatedEvent event : events) {
+            if (processVehicleCreatedEvent(event)) {
+                ecological++;
+            }
+        }
+        logger.info("Lot de {} événements VehicleCreated traité ({} véhicules écologiques)", events.size(), ecological);
+    }
+
+    /**
+     * Consomme les événements de création de véhicule un par un.
+     *
      * @param event L'événement de création de véhicule
      */
-    @KafkaListener(topics = "${app.kafka.topic.vehicle-created:vehicle-created-topic}",
+    @KafkaListener(id = "vehicleCreatedListener", idIsGroup = false,
+            topics = "${app.kafka.topic.vehicle-created:vehicle-created-topic}",
             groupId = "${spring.kafka.consumer.group-id:renault-garage-group}",
-            autoStartup = "${spring.kafka.enabled:false}")
+            autoStartup = "#{${spring.kafka.enabled:false} and !${app.kafka.consumer.batch-enabled:true}}")
     public void consumeVehicleCreatedEvent(VehicleCreatedEvent event) {
-        logger.info("=== Événement VehicleCreated reçu ===");
-        logger.info("  ID Véhicule: {}", event.getVehicleId());
-        logger.info("  Marque: {}", event.getBrand());
-        logger.info("  Modèle: {}", event.getModel());
-        logger.info("  Année: {}", event.getManufacturingYear());
-        logger.info("  Carburant: {}", event.getFuelType());
-        logger.info("  Garage ID: {}", event.getGarageId());
-        logger.info("  Garage: {}", event.getGarageName());
-        logger.info("  Date création: {}", event.getCreatedAt());
-        logger.info("=====================================");
+        logger.info("Événement VehicleCreated reçu: véhicule {} {} {} ({}, {}) garage {} ({}) créé le {}",
+                event.getVehicleId(), event.getBrand(), event.getModel(), event.getManufacturingYear(),
+                event.getFuelType(), event.getGarageId(), event.getGarageName(), event.getCreatedAt());
 
         processVehicleCreatedEvent(event);
     }
 
     /**
      * Traitement métier de l'événement.
+     *
+     * @return true si le véhicule est écologique
      */
-    private void processVehicleCreatedEvent(VehicleCreatedEvent event) {
-        // Exemple de traitement: log des véhicules électriques
-        if (event.getFuelType() != null &&
-                (event.getFuelType().name().equals("ELECTRIC") ||
-                        event.getFuelType().name().equals("HYBRID"))) {
-            logger.info(">>> Nouveau véhicule écologique enregistré: {} {} <<<",
+    private boolean processVehicleCreatedEvent(VehicleCreatedEvent event) {
+        // Exemple de traitement: suivi des véhicules électriques et hybrides
+        boolean ecological = event.getFuelType() == FuelType.ELECTRIC || event.getFuelType() == FuelType.HYBRID;
+        if (ecological) {
+            logger.debug(">>> Nouveau véhicule écologique enregistré: {} {} <<<",
                     event.getBrand(), event.getModel());
         }
+        return ecological;
     }
 }
@@ -1,25 +1,33 @@
 package com.renault.garage.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renault.garage.entity.OutboxEvent;
 import com.renault.garage.entity.Vehicle;
+import com.renault.garage.repository.OutboxEventRepository;
+import com.renault.garage.util.TransactionHooks;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * Publisher d'événements pour les véhicules.
- * Publie un événement Kafka lors de la création d'un nouveau véhicule.
+ * Les événements de création sont écrits dans la table outbox, dans la même
+ * transaction que le véhicule : un rollback ne produit donc aucun événement
+ * fantôme. Après validation, ils sont signalés à {@link VehicleOutboxRelay} qui
+ * les transmet à Kafka depuis son propre thread.
  */
 @Slf4j
 @Component
 public class VehicleEventPublisher {
 
-    private final Optional<KafkaTemplate<String, VehicleCreatedEvent>> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Optional<VehicleOutboxRelay> outboxRelay;
 
     @Value("${app.kafka.topic.vehicle-created:vehicle-created-topic}")
     private String topicName;
@@ -28,20 +36,46 @@ public class VehicleEventPublisher {
     private boolean kafkaEnabled;
 
     @Autowired
-    public VehicleEventPublisher(Optional<KafkaTemplate<String, VehicleCreatedEvent>> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public VehicleEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+            Optional<VehicleOutboxRelay> outboxRelay) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.outboxRelay = outboxRelay;
     }
 
     /**
      * Publie un événement de création de véhicule.
      */
     public void publishVehicleCreated(Vehicle vehicle) {
-        if (!kafkaEnabled || kafkaTemplate.isEmpty()) {
+        if (!kafkaEnabled) {
             log.info("Kafka désactivé - Événement non publié pour le véhicule: {} {} (ID: {})",
                     vehicle.getBrand(), vehicle.getModel(), vehicle.getId());
             return;
         }
 
+        OutboxEvent outboxEvent = outboxEventRepository.save(toOutboxEvent(vehicle));
+        signalAfterCommit(List.of(outboxEvent.getId()));
+    }
+
+    /**
+     * Publie les événements de création d'un lot de véhicules.
+     */
+    public void publishVehiclesCreated(List<Vehicle> vehicles) {
+        if (!kafkaEnabled) {
+            log.info("Kafka désactivé - {} événements non publiés", vehicles.size());
+            return;
+        }
+
+        List<OutboxEvent> outboxEvents = outboxEventRepository.saveAll(
+                vehicles.stream().map(this::toOutboxEvent).toList());
+        signalAfterCommit(outboxEvents.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private void signalAfterCommit(List<Long> outboxEventIds) {
+        outboxRelay.ifPresent(relay -> TransactionHooks.afterCommit(() -> relay.signal(outboxEventIds)));
+    }
+
+    private OutboxEvent toOutboxEvent(Vehicle vehicle) {
         VehicleCreatedEvent event = new VehicleCreatedEvent(
                 vehicle.getId(),
                 vehicle.getBrand(),
@@ -52,18 +86,9 @@ public class VehicleEventPublisher {
                 vehicle.getGarage() != null ? vehicle.getGarage().getName() : null);
 
         try {
-            CompletableFuture<SendResult<String, VehicleCreatedEvent>> future = kafkaTemplate.get().send(topicName,
-                    String.valueOf(vehicle.getId()), event);
-
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Événement VehicleCreated publié avec succès: {}", event);
-                } else {
-                    log.error("Erreur lors de la publication de l'événement VehicleCreated: {}", event, ex);
-                }
-            });
-        } catch (Exception e) {
-            log.error("Exception lors de la publication de l'événement VehicleCreated: {}", event, e);
+            return new OutboxEvent(topicName, String.valueOf(vehicle.getId()), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation impossible de l'événement VehicleCreated: " + event, e);
         }
     }
 }
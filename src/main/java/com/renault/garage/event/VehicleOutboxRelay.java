@@ -0,0 +1,389 @@
+package com.renault.garage.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renault.garage.entity.OutboxEvent;
+import com.renault.garage.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relais de l'outbox vers Kafka.
+ * <p>
+ * Les identifiants des événements validés sont déposés dans un buffer borné,
+ * vidé par un thread d'envoi dédié : aucun thread de requête n'attend le broker.
+ * Le thread balaie aussi périodiquement l'outbox pour reprendre les événements
+ * qui n'ont pas pu passer par le buffer (buffer plein, disjoncteur ouvert, échec
+ * d'envoi). Les envois et l'attente des acquittements se font hors transaction ;
+ * un événement n'est marqué publié qu'après acquittement du broker, dans une
+ * transaction courte : la livraison est au moins une fois.
+ * <p>
+ * Un disjoncteur, consulté avant chaque envoi et informé du résultat de chacun,
+ * suspend les envois lorsque le broker est indisponible ; un lot s'arrête au
+ * premier échec constaté. Les événements non envoyés restent dans l'outbox
+ * jusqu'au rétablissement du broker. Un événement en échec définitif
+ * (sérialisation) ou ayant épuisé ses tentatives est écarté de l'outbox.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.kafka.enabled", havingValue = "true")
+public class VehicleOutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, VehicleCreatedEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${app.outbox.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${app.outbox.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${app.outbox.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    private BlockingQueue<Long> buffer;
+    private EventCircuitBreaker circuitBreaker;
+    private Counter droppedCounter;
+    private Counter shedCounter;
+    private Counter publishedCounter;
+    private Counter failedCounter;
+    private Counter parkedCounter;
+    private Timer publishTimer;
+    private Thread senderThread;
+    private volatile boolean running;
+
+    public VehicleOutboxRelay(OutboxEventRepository outboxEventRepository,
+            KafkaTemplate<String, VehicleCreatedEvent> kafkaTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        initialize();
+        running = true;
+        senderThread = new Thread(this::runSender, "vehicle-event-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    /**
+     * Crée le buffer, le disjoncteur et les métriques associées.
+     */
+    void initialize() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        circuitBreaker = new EventCircuitBreaker(failureThreshold, openDurationMs);
+
+        Gauge.builder("vehicle.events.buffer.depth", buffer, BlockingQueue::size)
+                .description("Événements en attente dans le buffer d'envoi")
+                .register(meterRegistry);
+        Gauge.builder("vehicle.events.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("État du disjoncteur (0 = fermé, 1 = semi-ouvert, 2 = ouvert)")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("vehicle.events.buffer.dropped")
+                .description("Événements non bufferisés (buffer plein), repris depuis l'outbox")
+                .register(meterRegistry);
+        shedCounter = Counter.builder("vehicle.events.circuit.shed")
+                .description("Événements non envoyés (disjoncteur ouvert), repris depuis l'outbox")
+                .register(meterRegistry);
+        publishedCounter = Counter.builder("vehicle.events.published")
+                .description("Événements acquittés par le broker")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("vehicle.events.failed")
+                .description("Envois d'événements en échec")
+                .register(meterRegistry);
+        parkedCounter = Counter.builder("vehicle.events.parked")
+                .description("Événements écartés (échec définitif ou tentatives épuisées), non relayés")
+                .register(meterRegistry);
+        publishTimer = Timer.builder("vehicle.events.publish")
+                .description("Latence d'envoi d'un événement, jusqu'à l'acquittement du broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        senderThread.interrupt();
+        senderThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Signale des événements écrits dans l'outbox et validés. N'attend jamais :
+     * si le buffer est plein ou le disjoncteur ouvert, les événements restent
+     * dans l'outbox et seront repris par le balayage périodique.
+     */
+    public void signal(Collection<Long> outboxEventIds) {
+        if (circuitBreaker.isOpen()) {
+            shedCounter.increment(outboxEventIds.size());
+            return;
+        }
+        for (Long outboxEventId : outboxEventIds) {
+            if (!buffer.offer(outboxEventId)) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Purge les événements publiés au-delà de la durée de rétention.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgePublishedEvents() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (purged != null && purged > 0) {
+            log.info("{} événements publiés purgés de l'outbox", purged);
+        }
+    }
+
+    private void runSender() {
+        long lastSweep = 0;
+        while (running) {
+            try {
+                List<Long> ids = new ArrayList<>(batchSize);
+                Long first = buffer.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    ids.add(first);
+                    buffer.drainTo(ids, batchSize - 1);
+                }
+                if (!ids.isEmpty()) {
+                    relayEvents(ids);
+                }
+                if (System.currentTimeMillis() - lastSweep >= pollIntervalMs) {
+                    relayPendingEvents();
+                    lastSweep = System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Erreur du relais de l'outbox", e);
+            }
+        }
+    }
+
+    /**
+     * Vide l'outbox lot par lot tant que des lots complets sont publiés avec succès.
+     */
+    void relayPendingEvents() {
+        int published;
+        do {
+            if (circuitBreaker.isOpen()) {
+                return;
+            }
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    /**
+     * Publie le prochain lot d'événements en attente dans l'outbox.
+     *
+     * @return le nombre d'événements acquittés par le broker
+     */
+    int relayBatch() {
+        return deliver(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(
+                PageRequest.of(0, batchSize)));
+    }
+
+    /**
+     * Publie les événements signalés, s'ils ne l'ont pas déjà été.
+     */
+    int relayEvents(List<Long> outboxEventIds) {
+        if (circuitBreaker.isOpen()) {
+            // Les événements restent dans l'outbox : ils seront repris au rétablissement
+            shedCounter.increment(outboxEventIds.size());
+            return 0;
+        }
+        return deliver(outboxEventRepository.findAllById(outboxEventIds).stream()
+                .filter(outboxEvent -> outboxEvent.getPublishedAt() == null && outboxEvent.getFailedAt() == null)
+                .toList());
+    }
+
+    /**
+     * Envoie les événements dans l'ordre, hors transaction, tant que le
+     * disjoncteur l'autorise et qu'aucun envoi n'a échoué côté broker, puis
+     * enregistre le résultat de chaque envoi dans une transaction courte. Un
+     * événement illisible ou impossible à sérialiser est écarté sans être compté
+     * comme un échec du broker, de même qu'un événement ayant épuisé ses tentatives.
+     */
+    private int deliver(List<OutboxEvent> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Sending> sendings = new ArrayList<>(pending.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        AtomicBoolean brokerFailed = new AtomicBoolean();
+        int skipped = 0;
+        for (OutboxEvent outboxEvent : pending) {
+            VehicleCreatedEvent event;
+            try {
+                event = objectMapper.readValue(outboxEvent.getPayload(), VehicleCreatedEvent.class);
+            } catch (JsonProcessingException e) {
+                failed.add(fail(outboxEvent, e, true));
+                continue;
+            }
+            if (brokerFailed.get() || !circuitBreaker.allowRequest()) {
+                skipped++;
+                continue;
+            }
+            sendings.add(new Sending(outboxEvent, send(outboxEvent, event, brokerFailed)));
+        }
+        shedCounter.increment(skipped);
+
+        // Une seule échéance pour tout le lot : un broker muet ne bloque pas le relais lot x délai
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> publishedIds = new ArrayList<>(sendings.size());
+        for (Sending sending : sendings) {
+            OutboxEvent outboxEvent = sending.outboxEvent();
+            try {
+                sending.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+                outboxEvent.setPublishedAt(LocalDateTime.now());
+                outboxEvent.setLastError(null);
+                publishedIds.add(outboxEvent.getId());
+                circuitBreaker.recordSuccess();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(fail(outboxEvent, e, false));
+            } catch (Exception e) {
+                Throwable error = e instanceof ExecutionException ? e.getCause() : e;
+                boolean permanent = isPermanent(error);
+                if (!permanent) {
+                    circuitBreaker.recordFailure();
+                }
+                failed.add(fail(outboxEvent, error, permanent));
+            }
+        }
+
+        if (!publishedIds.isEmpty() || !failed.isEmpty()) {
+            LocalDateTime publishedAt = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!publishedIds.isEmpty()) {
+                    outboxEventRepository.markPublished(publishedIds, publishedAt);
+                }
+                failed.forEach(outboxEvent -> outboxEventRepository.markFailed(outboxEvent.getId(),
+                        outboxEvent.getAttempts(), outboxEvent.getLastError(), outboxEvent.getFailedAt()));
+            });
+        }
+
+        long parked = failed.stream().filter(outboxEvent -> outboxEvent.getFailedAt() != null).count();
+        publishedCounter.increment(publishedIds.size());
+        failedCounter.increment(failed.size());
+        parkedCounter.increment(parked);
+        if (!failed.isEmpty()) {
+            log.warn("Outbox: {} / {} événements publiés, {} écartés, les autres seront retentés "
+                    + "(disjoncteur: {})", publishedIds.size(), pending.size(), parked, circuitBreaker.getState());
+        } else {
+            log.debug("Outbox: {} / {} événements publiés", publishedIds.size(), pending.size());
+        }
+        return publishedIds.size();
+    }
+
+    /**
+     * Compte une tentative en échec et écarte l'événement si l'échec est
+     * définitif ou si ses tentatives sont épuisées.
+     */
+    private OutboxEvent fail(OutboxEvent outboxEvent, Throwable error, boolean permanent) {
+        outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+        outboxEvent.setLastError(error instanceof InterruptedException ? "Interrompu" : truncate(error.toString()));
+        if (permanent || outboxEvent.getAttempts() >= maxAttempts) {
+            outboxEvent.setFailedAt(LocalDateTime.now());
+            log.error("Outbox: événement {} écarté après {} tentative(s): {}", outboxEvent.getId(),
+                    outboxEvent.getAttempts(), outboxEvent.getLastError());
+        }
+        return outboxEvent;
+    }
+
+    /**
+     * Échec propre à l'événement (sérialisation), qu'un nouvel envoi ne corrigerait pas.
+     */
+    private static boolean isPermanent(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SerializationException || cause instanceof JsonProcessingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<SendResult<String, VehicleCreatedEvent>> send(OutboxEvent outboxEvent,
+            VehicleCreatedEvent event, AtomicBoolean brokerFailed) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, VehicleCreatedEvent>> result;
+        try {
+            result = kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getEventKey(), event);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((sendResult, error) -> {
+            if (error == null) {
+                publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else if (!isPermanent(error)) {
+                brokerFailed.set(true);
+            }
+        });
+    }
+
+    /**
+     * Envoi en cours d'un événement de l'outbox.
+     */
+    private record Sending(OutboxEvent outboxEvent,
+            CompletableFuture<SendResult<String, VehicleCreatedEvent>> result) {
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,11 @@
+package com.renault.garage.exception;
+
+/**
+ * Exception levée lorsque les coordonnées d'une recherche de proximité sont invalides.
+ */
+public class InvalidCoordinatesException extends RuntimeException {
+
+    public InvalidCoordinatesException(double latitude, double longitude) {
+        super("Coordonnées invalides: " + latitude + ", " + longitude);
+    }
+}
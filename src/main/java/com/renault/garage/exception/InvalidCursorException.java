@@ -0,0 +1,11 @@
+package com.renault.garage.exception;
+
+/**
+ * Exception levée lorsqu'un curseur de pagination est invalide.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Curseur de pagination invalide: " + cursor);
+    }
+}
@@ -0,0 +1,12 @@
+package com.renault.garage.exception;
+
+/**
+ * Exception levée lorsqu'un fichier d'import ne peut pas être lu (en-tête CSV
+ * absent ou incomplet).
+ */
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super("Fichier d'import invalide: " + message);
+    }
+}
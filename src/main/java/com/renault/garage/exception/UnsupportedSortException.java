@@ -0,0 +1,13 @@
+package com.renault.garage.exception;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Exception levée lorsqu'une recherche ne peut pas être triée selon l'ordre demandé.
+ */
+public class UnsupportedSortException extends RuntimeException {
+
+    public UnsupportedSortException(Sort sort) {
+        super("Tri non supporté pour cette recherche: " + sort);
+    }
+}
@@ -0,0 +1,174 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.AccessoryRepository;
+import com.renault.garage.repository.projection.AccessoryGarageView;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index inversé en mémoire : nom d'accessoire normalisé vers l'ensemble (bitmap)
+ * des identifiants de garages possédant au moins un véhicule équipé de cet accessoire.
+ * <p>
+ * Tenu à jour après la validation des transactions qui créent, renomment ou
+ * suppriment des accessoires, des véhicules ou des garages. Chaque bitmap publié
+ * est immuable et remplacé par une copie à chaque écriture. Tant que l'index
+ * n'est pas construit, {@link #findGarageIds(String)} renvoie
+ * {@link Optional#empty()} et l'appelant interroge la base.
+ */
+@Component
+public class AccessoryGarageIndex extends InMemoryIndex<AccessoryGarageIndex.State> {
+
+    private final AccessoryRepository accessoryRepository;
+
+    public AccessoryGarageIndex(AccessoryRepository accessoryRepository) {
+        super(State::new);
+        this.accessoryRepository = accessoryRepository;
+    }
+
+    /**
+     * Normalise un nom d'accessoire pour la recherche (espaces et casse ignorés).
+     */
+    public static String normalize(String accessoryName) {
+        return accessoryName == null ? null : accessoryName.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    protected void load(State state) {
+        for (AccessoryGarageView link : accessoryRepository.findAllGarageLinks()) {
+            state.put(link.accessoryId(), link.name(), link.garageId());
+        }
+    }
+
+    @Override
+    protected String describe(State state) {
+        return state.accessories.size() + " accessoires, " + state.garagesByName.size() + " noms";
+    }
+
+    /**
+     * Garages possédant l'accessoire donné.
+     *
+     * @return une copie du bitmap des identifiants de garages, ou vide si
+     *         l'index n'est pas encore construit
+     */
+    public Optional<BitSet> findGarageIds(String accessoryName) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        BitSet garageIds = state().garagesByName.get(normalize(accessoryName));
+        return Optional.of(garageIds == null ? new BitSet() : (BitSet) garageIds.clone());
+    }
+
+    /**
+     * Enregistre un accessoire créé, après validation de la transaction courante.
+     */
+    public void onAccessorySaved(Long accessoryId, String name, Long garageId) {
+        if (garageId != null) {
+            applyAfterCommit(index -> index.put(accessoryId, name, garageId));
+        }
+    }
+
+    /**
+     * Met à jour le nom d'un accessoire, après validation de la transaction courante.
+     */
+    public void onAccessoryRenamed(Long accessoryId, String name) {
+        applyAfterCommit(index -> index.rename(accessoryId, name));
+    }
+
+    /**
+     * Retire des accessoires supprimés, après validation de la transaction courante.
+     */
+    public void onAccessoriesDeleted(Collection<Long> accessoryIds) {
+        if (!accessoryIds.isEmpty()) {
+            List<Long> ids = List.copyOf(accessoryIds);
+            applyAfterCommit(index -> ids.forEach(index::remove));
+        }
+    }
+
+    /**
+     * Retire un garage supprimé et tous ses accessoires, après validation de la
+     * transaction courante.
+     */
+    public void onGarageDeleted(Long garageId) {
+        applyAfterCommit(index -> index.removeGarage(garageId));
+    }
+
+    /**
+     * Contenu de l'index. Modifié uniquement sous le verrou d'écriture ; les
+     * bitmaps de {@code garagesByName} ne sont jamais modifiés après publication.
+     */
+    static final class State {
+
+        private final Map<String, BitSet> garagesByName = new ConcurrentHashMap<>();
+        private final Map<Long, Link> accessories = new HashMap<>();
+        private final Map<Link, Integer> referenceCounts = new HashMap<>();
+
+        void put(Long accessoryId, String name, Long garageId) {
+            Link link = new Link(normalize(name), Math.toIntExact(garageId));
+            Link previous = accessories.put(accessoryId, link);
+            if (link.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                release(previous);
+            }
+            if (referenceCounts.merge(link, 1, Integer::sum) == 1) {
+                BitSet garageIds = copyOf(link.name());
+                garageIds.set(link.garageId());
+                garagesByName.put(link.name(), garageIds);
+            }
+        }
+
+        void rename(Long accessoryId, String name) {
+            Link link = accessories.get(accessoryId);
+            if (link != null) {
+                put(accessoryId, name, (long) link.garageId());
+            }
+        }
+
+        void remove(Long accessoryId) {
+            Link link = accessories.remove(accessoryId);
+            if (link != null) {
+                release(link);
+            }
+        }
+
+        void removeGarage(Long garageId) {
+            int id = Math.toIntExact(garageId);
+            List<Long> accessoryIds = accessories.entrySet().stream()
+                    .filter(entry -> entry.getValue().garageId() == id)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            accessoryIds.forEach(this::remove);
+        }
+
+        private void release(Link link) {
+            if (referenceCounts.merge(link, -1, Integer::sum) > 0) {
+                return;
+            }
+            referenceCounts.remove(link);
+            BitSet garageIds = copyOf(link.name());
+            garageIds.clear(link.garageId());
+            if (garageIds.isEmpty()) {
+                garagesByName.remove(link.name());
+            } else {
+                garagesByName.put(link.name(), garageIds);
+            }
+        }
+
+        private BitSet copyOf(String name) {
+            BitSet garageIds = garagesByName.get(name);
+            return garageIds == null ? new BitSet() : (BitSet) garageIds.clone();
+        }
+    }
+
+    private record Link(String name, int garageId) {
+    }
+}
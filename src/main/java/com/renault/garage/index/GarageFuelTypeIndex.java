@@ -0,0 +1,242 @@
+package com.renault.garage.index;
+
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.VehicleRepository;
+import com.renault.garage.repository.projection.VehicleFuelTypeView;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Agrégats en mémoire du nombre de véhicules par garage et par type de carburant.
+ * <p>
+ * Chaque garage est associé à un tableau de compteurs indexé par
+ * {@link FuelType#ordinal()}, et chaque type de carburant à l'ensemble (bitmap)
+ * des garages ayant au moins un véhicule de ce type. Seuls ces compteurs sont
+ * conservés : chaque écriture est une transition d'un carburant à l'autre,
+ * fournie par le service qui a chargé le véhicule sous verrou d'écriture, de
+ * sorte que les transitions d'un même véhicule s'enchaînent. Le carburant de
+ * chaque véhicule n'est gardé que pendant une reconstruction, pour ne pas
+ * compter deux fois une transition déjà lue en base lors du rejeu du journal.
+ * Les tableaux et bitmaps publiés sont immuables et remplacés par une copie à
+ * chaque écriture.
+ */
+@Component
+public class GarageFuelTypeIndex extends InMemoryIndex<GarageFuelTypeIndex.State> {
+
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+    private final VehicleRepository vehicleRepository;
+
+    public GarageFuelTypeIndex(VehicleRepository vehicleRepository) {
+        super(State::new);
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    @Override
+    protected void load(State state) {
+        state.load(vehicleRepository.findAllFuelTypes());
+    }
+
+    @Override
+    protected void replayed(State state) {
+        state.loaded = null;
+    }
+
+    @Override
+    protected String describe(State state) {
+        long vehicles = state.countsByGarage.values().stream()
+                .flatMapToInt(Arrays::stream)
+                .asLongStream()
+                .sum();
+        return vehicles + " véhicules, " + state.countsByGarage.size() + " garages";
+    }
+
+    /**
+     * Garages ayant au moins un véhicule du type de carburant donné.
+     *
+     * @return une copie du bitmap des identifiants de garages, ou vide si les
+     *         agrégats ne sont pas encore construits
+     */
+    public Optional<BitSet> findGarageIds(FuelType fuelType) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of((BitSet) state().garagesByFuelType.get(fuelType.ordinal()).clone());
+    }
+
+    /**
+     * Prédicat d'appartenance aux garages ayant au moins un véhicule du type de
+     * carburant donné. Lit le bitmap publié sans le copier : le prédicat reflète
+     * les agrégats à l'instant de l'appel.
+     *
+     * @return le prédicat, ou vide si les agrégats ne sont pas encore construits
+     */
+    public Optional<LongPredicate> findGarageFilter(FuelType fuelType) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        BitSet garageIds = state().garagesByFuelType.get(fuelType.ordinal());
+        return Optional.of(garageId -> garageId <= Integer.MAX_VALUE && garageIds.get((int) garageId));
+    }
+
+    /**
+     * Répartition des véhicules d'un garage par type de carburant (tous les types
+     * sont présents, à zéro le cas échéant).
+     *
+     * @return la répartition, ou vide si les agrégats ne sont pas encore construits
+     */
+    public Optional<Map<FuelType, Integer>> findFuelMix(Long garageId) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        int[] counts = state().countsByGarage.get(garageId);
+        Map<FuelType, Integer> fuelMix = new EnumMap<>(FuelType.class);
+        for (FuelType fuelType : FUEL_TYPES) {
+            fuelMix.put(fuelType, counts == null ? 0 : counts[fuelType.ordinal()]);
+        }
+        return Optional.of(fuelMix);
+    }
+
+    /**
+     * Compte des véhicules créés, après validation de la transaction courante.
+     */
+    public void onVehiclesSaved(Collection<Vehicle> vehicles) {
+        List<Vehicle> attached = vehicles.stream()
+                .filter(vehicle -> vehicle.getGarage() != null)
+                .toList();
+        if (!attached.isEmpty()) {
+            List<Transition> transitions = attached.stream()
+                    .map(vehicle -> new Transition(vehicle.getId(), vehicle.getGarage().getId(), null,
+                            vehicle.getFuelType()))
+                    .toList();
+            applyAfterCommit(index -> transitions.forEach(index::move));
+        }
+    }
+
+    /**
+     * Reporte le changement de carburant d'un véhicule modifié, après validation
+     * de la transaction courante.
+     *
+     * @param previousFuelType carburant du véhicule avant la modification, lu
+     *                         sous verrou d'écriture
+     */
+    public void onVehicleUpdated(Vehicle vehicle, FuelType previousFuelType) {
+        if (vehicle.getGarage() != null && vehicle.getFuelType() != previousFuelType) {
+            Transition transition = new Transition(vehicle.getId(), vehicle.getGarage().getId(), previousFuelType,
+                    vehicle.getFuelType());
+            applyAfterCommit(index -> index.move(transition));
+        }
+    }
+
+    /**
+     * Décompte un véhicule supprimé, après validation de la transaction courante.
+     */
+    public void onVehicleDeleted(Long vehicleId, Long garageId, FuelType fuelType) {
+        Transition transition = new Transition(vehicleId, garageId, fuelType, null);
+        applyAfterCommit(index -> index.move(transition));
+    }
+
+    /**
+     * Retire un garage supprimé, après validation de la transaction courante.
+     */
+    public void onGarageDeleted(Long garageId) {
+        applyAfterCommit(index -> index.removeGarage(garageId));
+    }
+
+    /**
+     * Passage d'un véhicule d'un carburant à un autre ({@code null} pour une
+     * création ou une suppression).
+     */
+    private record Transition(Long vehicleId, Long garageId, FuelType from, FuelType to) {
+    }
+
+    /**
+     * Contenu des agrégats. Modifié uniquement sous le verrou d'écriture ; les
+     * tableaux de compteurs et les bitmaps ne sont jamais modifiés après publication.
+     */
+    static final class State {
+
+        private final Map<Long, int[]> countsByGarage = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<BitSet> garagesByFuelType = new AtomicReferenceArray<>(FUEL_TYPES.length);
+        /**
+         * Carburant des véhicules chargés, jusqu'à la fin du rejeu du journal.
+         */
+        private Map<Long, FuelType> loaded;
+
+        State() {
+            for (int i = 0; i < FUEL_TYPES.length; i++) {
+                garagesByFuelType.set(i, new BitSet());
+            }
+        }
+
+        void load(List<VehicleFuelTypeView> vehicles) {
+            loaded = new HashMap<>();
+            for (VehicleFuelTypeView vehicle : vehicles) {
+                loaded.put(vehicle.vehicleId(), vehicle.fuelType());
+                add(vehicle.garageId(), vehicle.fuelType(), 1);
+            }
+        }
+
+        void move(Transition transition) {
+            FuelType from = transition.from();
+            if (loaded != null) {
+                // Rejeu : le carburant lu en base reflète déjà la transition si elle
+                // a été validée avant le chargement
+                from = transition.to() == null
+                        ? loaded.remove(transition.vehicleId())
+                        : loaded.put(transition.vehicleId(), transition.to());
+            }
+            if (from == transition.to()) {
+                return;
+            }
+            if (from != null) {
+                add(transition.garageId(), from, -1);
+            }
+            if (transition.to() != null) {
+                add(transition.garageId(), transition.to(), 1);
+            }
+        }
+
+        void removeGarage(Long garageId) {
+            if (countsByGarage.remove(garageId) != null) {
+                for (int ordinal = 0; ordinal < FUEL_TYPES.length; ordinal++) {
+                    updateGarages(ordinal, garageIds -> garageIds.clear(Math.toIntExact(garageId)));
+                }
+            }
+        }
+
+        private void add(Long garageId, FuelType fuelType, int delta) {
+            int ordinal = fuelType.ordinal();
+            int[] previous = countsByGarage.get(garageId);
+            int[] counts = previous == null ? new int[FUEL_TYPES.length] : previous.clone();
+            int before = counts[ordinal];
+            counts[ordinal] = before + delta;
+            countsByGarage.put(garageId, counts);
+
+            if (before == 0 && counts[ordinal] > 0) {
+                updateGarages(ordinal, garageIds -> garageIds.set(Math.toIntExact(garageId)));
+            } else if (before > 0 && counts[ordinal] == 0) {
+                updateGarages(ordinal, garageIds -> garageIds.clear(Math.toIntExact(garageId)));
+            }
+        }
+
+        private void updateGarages(int ordinal, Consumer<BitSet> update) {
+            BitSet garageIds = (BitSet) garagesByFuelType.get(ordinal).clone();
+            update.accept(garageIds);
+            garagesByFuelType.set(ordinal, garageIds);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageLocationView;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Grille spatiale en mémoire des garages géolocalisés, pour rechercher les
+ * garages les plus proches d'un point, dans un rayon donné.
+ * <p>
+ * La surface du globe est découpée en cellules de {@value #CELL_DEGREES} degré
+ * de latitude et de longitude (environ 11 km à l'équateur). Chaque cellule non
+ * vide contient ses garages sous forme de vecteurs unitaires : la distance
+ * orthodromique croît avec la corde entre deux vecteurs, qui se calcule sans
+ * trigonométrie. Une recherche parcourt les cellules par anneaux concentriques
+ * autour du point et s'arrête dès que la distance minimale à l'anneau suivant
+ * dépasse le rayon ou le plus lointain des garages retenus. Si le nombre de
+ * cellules à parcourir dépasse celui des cellules non vides (réseau clairsemé,
+ * voisinage des pôles), toutes les cellules non vides sont parcourues.
+ * <p>
+ * Les cellules publiées sont immuables et remplacées par une copie à chaque
+ * écriture.
+ */
+@Component
+public class GarageLocationIndex extends InMemoryIndex<GarageLocationIndex.State> {
+
+    static final double CELL_DEGREES = 0.1;
+    static final int ROWS = 1800;
+    static final int COLUMNS = 3600;
+
+    /**
+     * Rayon terrestre moyen (IUGG), en kilomètres.
+     */
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final GarageRepository garageRepository;
+
+    public GarageLocationIndex(GarageRepository garageRepository) {
+        super(State::new);
+        this.garageRepository = garageRepository;
+    }
+
+    @Override
+    protected void load(State state) {
+        state.load(garageRepository.findAllLocations());
+    }
+
+    @Override
+    protected String describe(State state) {
+        return state.cellsByGarage.size() + " garages, " + state.cells.size() + " cellules";
+    }
+
+    /**
+     * Garages les plus proches du point donné, du plus proche au plus lointain.
+     *
+     * @param radiusKm distance maximale, {@link Double#POSITIVE_INFINITY} pour ne pas borner
+     * @param limit    nombre maximal de garages
+     * @param filter   garages retenus (par identifiant), ou null pour tous
+     * @return les garages trouvés et leur distance, ou vide si l'index n'est pas
+     *         encore construit
+     */
+    public Optional<List<Nearby>> findNearest(double latitude, double longitude, double radiusKm, int limit,
+            LongPredicate filter) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(state().findNearest(latitude, longitude, radiusKm, limit, filter));
+    }
+
+    /**
+     * Même recherche sur des coordonnées lues en base, tant que l'index n'est pas
+     * construit.
+     */
+    public static List<Nearby> findNearest(List<GarageLocationView> locations, double latitude, double longitude,
+            double radiusKm, int limit, LongPredicate filter) {
+        State state = new State();
+        state.load(locations);
+        return state.findNearest(latitude, longitude, radiusKm, limit, filter);
+    }
+
+    /**
+     * Place un garage créé ou modifié, après validation de la transaction
+     * courante. Un garage sans coordonnées est retiré de la grille.
+     */
+    public void onGarageSaved(Long garageId, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            onGarageDeleted(garageId);
+            return;
+        }
+        applyAfterCommit(index -> index.put(garageId, latitude, longitude));
+    }
+
+    /**
+     * Retire un garage supprimé, après validation de la transaction courante.
+     */
+    public void onGarageDeleted(Long garageId) {
+        applyAfterCommit(index -> index.remove(garageId));
+    }
+
+    /**
+     * Distance orthodromique entre deux points, en kilomètres.
+     */
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return chordToKm(chord(toVector(latitude1, longitude1), toVector(latitude2, longitude2), 0));
+    }
+
+    static int row(double latitude) {
+        return Math.max(0, Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    private static int cellKey(double latitude, double longitude) {
+        return row(latitude) * COLUMNS + column(longitude);
+    }
+
+    private static double[] toVector(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        return new double[] {Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    /**
+     * Corde entre le vecteur {@code from} et le point {@code offset} d'un tableau
+     * de vecteurs.
+     */
+    private static double chord(double[] from, double[] points, int offset) {
+        double dx = points[offset] - from[0];
+        double dy = points[offset + 1] - from[1];
+        double dz = points[offset + 2] - from[2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static double chordToKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, chord / 2));
+    }
+
+    private static double kmToChord(double km) {
+        return km >= Math.PI * EARTH_RADIUS_KM ? 2 : 2 * Math.sin(km / EARTH_RADIUS_KM / 2);
+    }
+
+    /**
+     * Garage trouvé et sa distance au point recherché.
+     */
+    public record Nearby(long garageId, double distanceKm) {
+    }
+
+    /**
+     * Garages d'une cellule : identifiants et vecteurs unitaires (x, y, z à la
+     * suite).
+     */
+    private record Cell(long[] ids, double[] points) {
+
+        private static final Cell EMPTY = new Cell(new long[0], new double[0]);
+
+        Cell with(long garageId, double[] vector) {
+            long[] updatedIds = Arrays.copyOf(ids, ids.length + 1);
+            double[] updatedPoints = Arrays.copyOf(points, points.length + 3);
+            updatedIds[ids.length] = garageId;
+            System.arraycopy(vector, 0, updatedPoints, points.length, 3);
+            return new Cell(updatedIds, updatedPoints);
+        }
+
+        /**
+         * @return la cellule sans le garage, ou null si elle devient vide
+         */
+        Cell without(long garageId) {
+            int position = 0;
+            while (position < ids.length && ids[position] != garageId) {
+                position++;
+            }
+            if (position == ids.length) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] updatedIds = new long[ids.length - 1];
+            double[] updatedPoints = new double[points.length - 3];
+            System.arraycopy(ids, 0, updatedIds, 0, position);
+            System.arraycopy(ids, position + 1, updatedIds, position, ids.length - position - 1);
+            System.arraycopy(points, 0, updatedPoints, 0, position * 3);
+            System.arraycopy(points, (position + 1) * 3, updatedPoints, position * 3, points.length - (position + 1) * 3);
+            return new Cell(updatedIds, updatedPoints);
+        }
+    }
+
+    /**
+     * Les {@code limit} garages les plus proches vus jusqu'ici, triés par corde
+     * croissante.
+     */
+    private static final class Nearest {
+
+        private final long[] ids;
+        private final double[] chords;
+        private final double maxChord;
+        private final LongPredicate filter;
+        private int size;
+
+        Nearest(int limit, double maxChord, LongPredicate filter) {
+            this.ids = new long[limit];
+            this.chords = new double[limit];
+            this.maxChord = maxChord;
+            this.filter = filter;
+        }
+
+        void offer(Cell cell, double[] from) {
+            long[] cellIds = cell.ids();
+            double[] points = cell.points();
+            for (int i = 0; i < cellIds.length; i++) {
+                double chord = chord(from, points, i * 3);
+                if (chord > worstChord() || (size == ids.length && chord == worstChord())
+                        || (filter != null && !filter.test(cellIds[i]))) {
+                    continue;
+                }
+                int position = Math.min(size, ids.length - 1);
+                while (position > 0 && chords[position - 1] > chord) {
+                    ids[position] = ids[position - 1];
+                    chords[position] = chords[position - 1];
+                    position--;
+                }
+                ids[position] = cellIds[i];
+                chords[position] = chord;
+                size = Math.min(size + 1, ids.length);
+            }
+        }
+
+        /**
+         * Corde au-delà de laquelle un garage ne peut plus être retenu.
+         */
+        double worstChord() {
+            return size < ids.length ? maxChord : chords[size - 1];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        List<Nearby> toList() {
+            List<Nearby> nearby = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                nearby.add(new Nearby(ids[i], chordToKm(chords[i])));
+            }
+            return nearby;
+        }
+    }
+
+    /**
+     * Contenu de l'index : les cellules non vides par numéro de cellule, et la
+     * cellule de chaque garage. Modifié uniquement sous le verrou d'écriture ;
+     * les cellules ne sont jamais modifiées après publication.
+     */
+    static final class State {
+
+        private final Map<Integer, Cell> cells = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> cellsByGarage = new HashMap<>();
+
+        void load(List<GarageLocationView> locations) {
+            Map<Integer, List<GarageLocationView>> locationsByCell = new HashMap<>();
+            for (GarageLocationView location : locations) {
+                locationsByCell.computeIfAbsent(cellKey(location.latitude(), location.longitude()),
+                        key -> new ArrayList<>()).add(location);
+            }
+            locationsByCell.forEach((key, cellLocations) -> {
+                long[] ids = new long[cellLocations.size()];
+                double[] points = new double[cellLocations.size() * 3];
+                for (int i = 0; i < ids.length; i++) {
+                    GarageLocationView location = cellLocations.get(i);
+                    ids[i] = location.id();
+                    System.arraycopy(toVector(location.latitude(), location.longitude()), 0, points, i * 3, 3);
+                    cellsByGarage.put(location.id(), key);
+                }
+                cells.put(key, new Cell(ids, points));
+            });
+        }
+
+        void put(Long garageId, double latitude, double longitude) {
+            remove(garageId);
+            int key = cellKey(latitude, longitude);
+            cells.put(key, cells.getOrDefault(key, Cell.EMPTY).with(garageId, toVector(latitude, longitude)));
+            cellsByGarage.put(garageId, key);
+        }
+
+        void remove(Long garageId) {
+            Integer key = cellsByGarage.remove(garageId);
+            if (key == null) {
+                return;
+            }
+            Cell updated = cells.get(key).without(garageId);
+            if (updated == null) {
+                cells.remove(key);
+            } else {
+                cells.put(key, updated);
+            }
+        }
+
+        List<Nearby> findNearest(double latitude, double longitude, double radiusKm, int limit,
+                LongPredicate filter) {
+            if (limit <= 0 || radiusKm < 0) {
+                return List.of();
+            }
+            double[] from = toVector(latitude, longitude);
+            Nearest nearest = new Nearest(limit, kmToChord(radiusKm), filter);
+            int row = row(latitude);
+            int column = column(longitude);
+            // Cellules non vides à un instant donné : borne le parcours par anneaux
+            int nonEmptyCells = cells.size();
+            for (int ring = 0; ; ring++) {
+                long side = 2L * ring + 1;
+                if (side * side > nonEmptyCells || side >= COLUMNS) {
+                    nearest.clear();
+                    cells.values().forEach(cell -> nearest.offer(cell, from));
+                    return nearest.toList();
+                }
+                offerRing(nearest, from, row, column, ring);
+                if (kmToChord(minDistanceBeyondKm(latitude, ring)) > nearest.worstChord()) {
+                    return nearest.toList();
+                }
+            }
+        }
+
+        /**
+         * Propose les garages des cellules à exactement {@code ring} cellules
+         * (distance de Tchebychev) de la cellule du point.
+         */
+        private void offerRing(Nearest nearest, double[] from, int row, int column, int ring) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= ROWS) {
+                    continue;
+                }
+                int step = r == row - ring || r == row + ring ? 1 : 2 * ring;
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    Cell cell = cells.get(r * COLUMNS + Math.floorMod(c, COLUMNS));
+                    if (cell != null) {
+                        nearest.offer(cell, from);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Minorant de la distance entre le point et tout garage situé au-delà de
+         * l'anneau {@code ring} : au moins {@code ring} cellules d'écart en
+         * latitude, ou en longitude dans la bande de latitudes de l'anneau.
+         */
+        private static double minDistanceBeyondKm(double latitude, int ring) {
+            double gap = Math.toRadians(ring * CELL_DEGREES);
+            double latitudeBound = EARTH_RADIUS_KM * gap;
+            double bandLatitude = Math.abs(latitude) + (ring + 1) * CELL_DEGREES;
+            if (bandLatitude >= 90) {
+                return 0;
+            }
+            // Formule du haversine, sans le terme en latitude
+            double haversine = Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(bandLatitude))
+                    * Math.pow(Math.sin(Math.min(gap, Math.PI) / 2), 2);
+            double longitudeBound = 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, haversine)));
+            return Math.min(latitudeBound, longitudeBound);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageNameView;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index trigramme en mémoire des noms de garages, pour la recherche par
+ * sous-chaîne insensible à la casse.
+ * <p>
+ * Chaque trigramme du nom normalisé pointe vers la liste triée des identifiants
+ * de garages qui le contiennent. Une recherche intersecte les listes des
+ * trigrammes de la chaîne recherchée, en commençant par la plus courte, puis
+ * vérifie chaque candidat sur le nom complet. Les chaînes de moins de trois
+ * caractères sont vérifiées sur tous les noms. Les listes publiées sont
+ * immuables et remplacées par une copie à chaque écriture.
+ * <p>
+ * Les garages sont aussi tenus triés par nom puis par id, pour paginer dans cet
+ * ordre les garages résolus par les autres index.
+ */
+@Component
+public class GarageNameIndex extends InMemoryIndex<GarageNameIndex.State> {
+
+    private static final int GRAM = 3;
+
+    private final GarageRepository garageRepository;
+
+    public GarageNameIndex(GarageRepository garageRepository) {
+        super(State::new);
+        this.garageRepository = garageRepository;
+    }
+
+    /**
+     * Normalise un nom ou une recherche (casse ignorée).
+     */
+    static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    protected void load(State state) {
+        state.load(garageRepository.findAllNames());
+    }
+
+    @Override
+    protected String describe(State state) {
+        return state.garages.size() + " garages, " + state.postings.size() + " trigrammes";
+    }
+
+    /**
+     * Page de garages dont le nom contient la chaîne recherchée, triés par nom
+     * puis par id.
+     *
+     * @param offset    position du premier garage de la page
+     * @param size      taille de la page
+     * @param direction sens du tri par nom
+     * @return les identifiants de la page et le nombre total de garages trouvés,
+     *         ou vide si l'index n'est pas encore construit
+     */
+    public Optional<Matches> findByName(String query, long offset, int size, Sort.Direction direction) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        State state = state();
+        String normalizedQuery = normalize(query);
+        Firsts firsts = new Firsts(order(direction), offset + size);
+        int total = 0;
+        for (int id : state.candidates(normalizedQuery)) {
+            Entry entry = state.garages.get(id);
+            if (entry == null || !entry.normalizedName().contains(normalizedQuery)) {
+                continue;
+            }
+            total++;
+            firsts.offer(new Match(id, entry.name()));
+        }
+        return Optional.of(new Matches(firsts.page(offset), total));
+    }
+
+    /**
+     * Page, triée par nom puis par id, d'un ensemble de garages résolu par un
+     * autre index. Si l'ensemble couvre une grande part des garages, l'ordre des
+     * noms est parcouru jusqu'à la fin de la page ; sinon, seuls les garages de
+     * l'ensemble sont triés, dans un tas borné à la fin de la page.
+     *
+     * @param garageIds bitmap des identifiants de garages, non modifié
+     * @param offset    position du premier garage de la page
+     * @param size      taille de la page
+     * @param direction sens du tri par nom
+     * @return les identifiants de la page, ou vide si l'index n'est pas encore construit
+     */
+    public Optional<List<Long>> findPage(BitSet garageIds, long offset, int size, Sort.Direction direction) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        State state = state();
+        long cardinality = garageIds.cardinality();
+        long limit = offset + size;
+        if (offset >= cardinality) {
+            return Optional.of(List.of());
+        }
+
+        // Parcours attendu de l'ordre des noms : limit * garages / cardinality
+        if (limit * state.garages.size() <= cardinality * cardinality) {
+            NavigableSet<Match> byName = direction == Sort.Direction.DESC
+                    ? state.byName.descendingSet() : state.byName;
+            List<Long> ids = new ArrayList<>(size);
+            long position = 0;
+            for (Match match : byName) {
+                if (garageIds.get(match.id()) && position++ >= offset) {
+                    ids.add((long) match.id());
+                    if (ids.size() == size) {
+                        break;
+                    }
+                }
+            }
+            return Optional.of(ids);
+        }
+
+        Firsts firsts = new Firsts(order(direction), limit);
+        for (int id = garageIds.nextSetBit(0); id >= 0; id = garageIds.nextSetBit(id + 1)) {
+            Entry entry = state.garages.get(id);
+            if (entry != null) {
+                firsts.offer(new Match(id, entry.name()));
+            }
+        }
+        return Optional.of(firsts.page(offset));
+    }
+
+    /**
+     * Même page, calculée depuis des noms lus en base (index non construit).
+     */
+    public static List<Long> findPage(List<GarageNameView> names, BitSet garageIds, long offset, int size,
+            Sort.Direction direction) {
+        Firsts firsts = new Firsts(order(direction), offset + size);
+        for (GarageNameView view : names) {
+            if (view.id() <= Integer.MAX_VALUE && garageIds.get(view.id().intValue())) {
+                firsts.offer(new Match(view.id().intValue(), view.name()));
+            }
+        }
+        return firsts.page(offset);
+    }
+
+    private static Comparator<Match> order(Sort.Direction direction) {
+        return direction == Sort.Direction.DESC ? State.BY_NAME.reversed() : State.BY_NAME;
+    }
+
+    /**
+     * Indexe un garage créé ou renommé, après validation de la transaction courante.
+     */
+    public void onGarageSaved(Long garageId, String name) {
+        applyAfterCommit(index -> index.put(Math.toIntExact(garageId), name));
+    }
+
+    /**
+     * Retire un garage supprimé, après validation de la transaction courante.
+     */
+    public void onGarageDeleted(Long garageId) {
+        applyAfterCommit(index -> index.remove(Math.toIntExact(garageId)));
+    }
+
+    /**
+     * Résultat d'une recherche : identifiants de la page, dans l'ordre, et
+     * nombre total de garages trouvés.
+     */
+    public record Matches(List<Long> ids, int total) {
+    }
+
+    private record Match(int id, String name) {
+    }
+
+    /**
+     * Tas des "limit" premiers garages selon l'ordre demandé (le dernier en tête).
+     */
+    private static final class Firsts {
+
+        private final Comparator<Match> order;
+        private final long limit;
+        private final PriorityQueue<Match> heap;
+
+        Firsts(Comparator<Match> order, long limit) {
+            this.order = order;
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(order.reversed());
+        }
+
+        void offer(Match match) {
+            if (heap.size() < limit) {
+                heap.add(match);
+            } else if (order.compare(match, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        /**
+         * Identifiants des garages retenus, dans l'ordre, à partir de {@code offset}.
+         */
+        List<Long> page(long offset) {
+            List<Match> sorted = new ArrayList<>(heap);
+            sorted.sort(order);
+            return sorted.stream()
+                    .skip(offset)
+                    .map(match -> (long) match.id())
+                    .toList();
+        }
+    }
+
+    private record Entry(String name, String normalizedName) {
+    }
+
+    /**
+     * Contenu de l'index. Modifié uniquement sous le verrou d'écriture ; les
+     * listes de {@code postings} ne sont jamais modifiées après publication.
+     */
+    static final class State {
+
+        private static final int[] EMPTY = new int[0];
+        private static final Comparator<Match> BY_NAME = Comparator.comparing(Match::name)
+                .thenComparingInt(Match::id);
+
+        private final Map<Integer, Entry> garages = new ConcurrentHashMap<>();
+        private final Map<Long, int[]> postings = new ConcurrentHashMap<>();
+        private final NavigableSet<Match> byName = new ConcurrentSkipListSet<>(BY_NAME);
+
+        void load(List<GarageNameView> views) {
+            Map<Long, IntList> lists = new HashMap<>();
+            views.stream()
+                    .sorted(Comparator.comparing(GarageNameView::id))
+                    .forEach(view -> {
+                        int id = Math.toIntExact(view.id());
+                        Entry entry = new Entry(view.name(), normalize(view.name()));
+                        garages.put(id, entry);
+                        byName.add(new Match(id, view.name()));
+                        for (long trigram : trigrams(entry.normalizedName())) {
+                            lists.computeIfAbsent(trigram, key -> new IntList()).add(id);
+                        }
+                    });
+            lists.forEach((trigram, list) -> postings.put(trigram, list.toArray()));
+        }
+
+        void put(int id, String name) {
+            Entry entry = new Entry(name, normalize(name));
+            Entry previous = garages.put(id, entry);
+            if (previous != null) {
+                byName.remove(new Match(id, previous.name()));
+            }
+            byName.add(new Match(id, name));
+            Set<Long> previousTrigrams = previous == null ? Set.of() : trigrams(previous.normalizedName());
+            Set<Long> trigrams = trigrams(entry.normalizedName());
+            for (long trigram : previousTrigrams) {
+                if (!trigrams.contains(trigram)) {
+                    removeFromPosting(trigram, id);
+                }
+            }
+            for (long trigram : trigrams) {
+                if (!previousTrigrams.contains(trigram)) {
+                    addToPosting(trigram, id);
+                }
+            }
+        }
+
+        void remove(int id) {
+            Entry previous = garages.remove(id);
+            if (previous != null) {
+                byName.remove(new Match(id, previous.name()));
+                trigrams(previous.normalizedName()).forEach(trigram -> removeFromPosting(trigram, id));
+            }
+        }
+
+        /**
+         * Identifiants candidats (sur-ensemble des résultats) pour une recherche normalisée.
+         */
+        Iterable<Integer> candidates(String normalizedQuery) {
+            if (normalizedQuery.length() < GRAM) {
+                return garages.keySet();
+            }
+            List<int[]> lists = new ArrayList<>();
+            for (long trigram : trigrams(normalizedQuery)) {
+                int[] posting = postings.get(trigram);
+                if (posting == null) {
+                    return List.of();
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.length));
+            int[] result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            return Arrays.stream(result).boxed().toList();
+        }
+
+        private void addToPosting(long trigram, int id) {
+            int[] posting = postings.getOrDefault(trigram, EMPTY);
+            int position = Arrays.binarySearch(posting, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertion = -position - 1;
+            int[] updated = new int[posting.length + 1];
+            System.arraycopy(posting, 0, updated, 0, insertion);
+            updated[insertion] = id;
+            System.arraycopy(posting, insertion, updated, insertion + 1, posting.length - insertion);
+            postings.put(trigram, updated);
+        }
+
+        private void removeFromPosting(long trigram, int id) {
+            int[] posting = postings.get(trigram);
+            int position = posting == null ? -1 : Arrays.binarySearch(posting, id);
+            if (position < 0) {
+                return;
+            }
+            if (posting.length == 1) {
+                postings.remove(trigram);
+                return;
+            }
+            int[] updated = new int[posting.length - 1];
+            System.arraycopy(posting, 0, updated, 0, position);
+            System.arraycopy(posting, position + 1, updated, position, posting.length - position - 1);
+            postings.put(trigram, updated);
+        }
+
+        /**
+         * Intersection de la liste courte avec la liste longue, par recherche
+         * dichotomique dans la liste longue.
+         */
+        private static int[] intersect(int[] shorter, int[] longer) {
+            int[] result = new int[shorter.length];
+            int count = 0;
+            int from = 0;
+            for (int id : shorter) {
+                int position = Arrays.binarySearch(longer, from, longer.length, id);
+                if (position >= 0) {
+                    result[count++] = id;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+                if (from >= longer.length) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private static Set<Long> trigrams(String normalized) {
+            Set<Long> trigrams = new TreeSet<>();
+            for (int i = 0; i + GRAM <= normalized.length(); i++) {
+                trigrams.add(((long) normalized.charAt(i) << 32)
+                        | ((long) normalized.charAt(i + 1) << 16)
+                        | normalized.charAt(i + 2));
+            }
+            return trigrams;
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
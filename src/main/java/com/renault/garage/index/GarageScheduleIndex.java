@@ -0,0 +1,243 @@
+package com.renault.garage.index;
+
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Horaires hebdomadaires des garages en mémoire, compactés au quart d'heure,
+ * pour rechercher les garages ouverts à un instant donné ou pendant une durée.
+ * <p>
+ * La semaine de chaque garage tient dans {@value #WORDS} mots de 64 bits
+ * (7 jours × 96 quarts d'heure, lundi 00:00 en bit 0). Un quart d'heure n'est
+ * ouvert que s'il est entièrement couvert par une plage : les bornes hors quart
+ * d'heure sont arrondies vers l'intérieur de la plage. Une plage dont la fin
+ * précède le début (ou finit à 00:00) se termine le lendemain.
+ * <p>
+ * Une recherche parcourt le tableau des garages et compare chaque semaine au
+ * masque de la fenêtre demandée, sans requête SQL. Chaque ligne publiée est
+ * immuable et remplacée à chaque écriture.
+ */
+@Component
+public class GarageScheduleIndex extends InMemoryIndex<GarageScheduleIndex.State> {
+
+    /**
+     * Durée maximale d'ouverture continue recherchée : une semaine.
+     */
+    public static final int MAX_HOURS = 7 * 24;
+
+    static final int SLOT_SECONDS = 15 * 60;
+    static final int SLOTS_PER_DAY = 24 * 4;
+    static final int SLOTS = 7 * SLOTS_PER_DAY;
+    static final int WORDS = (SLOTS + Long.SIZE - 1) / Long.SIZE;
+
+    private final GarageRepository garageRepository;
+
+    public GarageScheduleIndex(GarageRepository garageRepository) {
+        super(State::new);
+        this.garageRepository = garageRepository;
+    }
+
+    @Override
+    protected void load(State state) {
+        state.load(garageRepository.findAllOpeningHours());
+    }
+
+    @Override
+    protected String describe(State state) {
+        return state.rowsByGarage.size() + " garages";
+    }
+
+    /**
+     * Garages ouverts au jour et à l'heure donnés et, si {@code hours} est
+     * positif, sans interruption pendant les {@code hours} heures suivantes.
+     *
+     * @return le bitmap des identifiants de garages, ou vide si l'index n'est pas
+     *         encore construit
+     */
+    public Optional<BitSet> findOpenGarageIds(DayOfWeek day, LocalTime time, int hours) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(state().findOpen(window(day, time, hours)));
+    }
+
+    /**
+     * Même recherche sur des horaires lus en base, tant que l'index n'est pas
+     * construit.
+     */
+    public static BitSet findOpenGarageIds(List<GarageOpeningTimeView> openingHours, DayOfWeek day, LocalTime time,
+            int hours) {
+        State state = new State();
+        state.load(openingHours);
+        return state.findOpen(window(day, time, hours));
+    }
+
+    /**
+     * Enregistre les horaires d'un garage créé ou modifié, après validation de la
+     * transaction courante. Les horaires sont compactés immédiatement.
+     */
+    public void onGarageSaved(Long garageId, Collection<OpeningTime> openingHours) {
+        long[] row = newRow(garageId);
+        for (OpeningTime openingTime : openingHours) {
+            addOpeningTime(row, openingTime.getDayOfWeek(), openingTime.getStartTime(), openingTime.getEndTime());
+        }
+        applyAfterCommit(index -> index.put(row));
+    }
+
+    /**
+     * Retire un garage supprimé, après validation de la transaction courante.
+     */
+    public void onGarageDeleted(Long garageId) {
+        applyAfterCommit(index -> index.remove(garageId));
+    }
+
+    /**
+     * Masque des quarts d'heure de la fenêtre : celui qui contient l'heure donnée
+     * et tous ceux que touchent les {@code hours} heures suivantes, la semaine
+     * bouclant du dimanche au lundi.
+     */
+    static long[] window(DayOfWeek day, LocalTime time, int hours) {
+        long[] window = new long[WORDS];
+        int start = time.toSecondOfDay();
+        int from = day.ordinal() * SLOTS_PER_DAY + start / SLOT_SECONDS;
+        int to = hours <= 0
+                ? from + 1
+                : day.ordinal() * SLOTS_PER_DAY + (start + hours * 3600 + SLOT_SECONDS - 1) / SLOT_SECONDS;
+        setSlots(window, 0, from, Math.min(to, from + SLOTS));
+        return window;
+    }
+
+    /**
+     * Ligne d'un garage : identifiant suivi de sa semaine compactée.
+     */
+    static long[] newRow(long garageId) {
+        long[] row = new long[1 + WORDS];
+        row[0] = garageId;
+        return row;
+    }
+
+    static void addOpeningTime(long[] row, DayOfWeek day, LocalTime startTime, LocalTime endTime) {
+        if (day == null || startTime == null || endTime == null) {
+            return;
+        }
+        int start = startTime.toSecondOfDay();
+        int end = endTime.toSecondOfDay();
+        if (end <= start) {
+            end += 24 * 3600;
+        }
+        int dayStart = day.ordinal() * SLOTS_PER_DAY;
+        int from = dayStart + (start + SLOT_SECONDS - 1) / SLOT_SECONDS;
+        int to = dayStart + end / SLOT_SECONDS;
+        if (to > from) {
+            setSlots(row, 1, from, Math.min(to, from + SLOTS));
+        }
+    }
+
+    /**
+     * @return true si la ligne contient tous les quarts d'heure de la fenêtre
+     */
+    static boolean covers(long[] row, long[] window) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((row[1 + i] & window[i]) != window[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Positionne les quarts d'heure [from, to[ de la semaine, modulo la semaine.
+     */
+    private static void setSlots(long[] words, int offset, int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            int position = slot % SLOTS;
+            words[offset + position / Long.SIZE] |= 1L << (position % Long.SIZE);
+        }
+    }
+
+    /**
+     * Contenu de l'index : un tableau dense de lignes, et la position de chaque
+     * garage. Modifié uniquement sous le verrou d'écriture ; les lignes ne sont
+     * jamais modifiées après publication et les positions libérées sont
+     * réutilisées.
+     */
+    static final class State {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Map<Long, Integer> rowsByGarage = new HashMap<>();
+        private final Deque<Integer> freePositions = new ArrayDeque<>();
+        private volatile AtomicReferenceArray<long[]> rows = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        private volatile int rowCount;
+        private volatile int maxGarageId;
+
+        void load(List<GarageOpeningTimeView> openingHours) {
+            Map<Long, long[]> rowsById = new HashMap<>();
+            for (GarageOpeningTimeView view : openingHours) {
+                addOpeningTime(rowsById.computeIfAbsent(view.garageId(), GarageScheduleIndex::newRow),
+                        view.dayOfWeek(), view.startTime(), view.endTime());
+            }
+            rowsById.values().forEach(this::put);
+        }
+
+        void put(long[] row) {
+            Integer position = rowsByGarage.get(row[0]);
+            if (position == null) {
+                position = freePositions.isEmpty() ? append() : freePositions.pop();
+                rowsByGarage.put(row[0], position);
+                maxGarageId = Math.max(maxGarageId, Math.toIntExact(row[0]));
+            }
+            rows.set(position, row);
+        }
+
+        void remove(Long garageId) {
+            Integer position = rowsByGarage.remove(garageId);
+            if (position != null) {
+                rows.set(position, null);
+                freePositions.push(position);
+            }
+        }
+
+        BitSet findOpen(long[] window) {
+            // Le nombre de lignes est lu avant le tableau, publié avant lui
+            int count = rowCount;
+            AtomicReferenceArray<long[]> current = rows;
+            // Dimensionné d'emblée : les identifiants sont posés par ordre de position, pas d'id
+            BitSet garageIds = new BitSet(maxGarageId + 1);
+            for (int i = 0; i < count; i++) {
+                long[] row = current.get(i);
+                if (row != null && covers(row, window)) {
+                    garageIds.set(Math.toIntExact(row[0]));
+                }
+            }
+            return garageIds;
+        }
+
+        private int append() {
+            int position = rowCount;
+            if (position == rows.length()) {
+                AtomicReferenceArray<long[]> grown = new AtomicReferenceArray<>(position * 2);
+                for (int i = 0; i < position; i++) {
+                    grown.set(i, rows.get(i));
+                }
+                rows = grown;
+            }
+            rowCount = position + 1;
+            return position;
+        }
+    }
+}
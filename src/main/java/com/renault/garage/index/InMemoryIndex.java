@@ -0,0 +1,119 @@
+package com.renault.garage.index;
+
+import com.renault.garage.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cycle de vie commun des index en mémoire : construction au démarrage de
+ * l'application, puis mises à jour appliquées après la validation des
+ * transactions d'écriture.
+ * <p>
+ * Les mises à jour sont sérialisées par un verrou d'écriture ; les lectures n'en
+ * prennent aucun et lisent l'état publié. Les mises à jour signalées pendant une
+ * reconstruction sont journalisées puis rejouées sur le nouvel état avant sa
+ * publication : elles doivent donc être idempotentes ou relatives à l'état chargé.
+ *
+ * @param <S> le contenu de l'index
+ */
+@Slf4j
+public abstract class InMemoryIndex<S> {
+
+    private final Supplier<S> emptyState;
+    private final Object writeLock = new Object();
+    private volatile S state;
+    private volatile boolean ready;
+    private List<Consumer<S>> journal;
+
+    protected InMemoryIndex(Supplier<S> emptyState) {
+        this.emptyState = emptyState;
+        this.state = emptyState.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruit l'index depuis la base.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            journal = new ArrayList<>();
+        }
+        S rebuilt = emptyState.get();
+        try {
+            load(rebuilt);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                journal = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            journal.forEach(operation -> operation.accept(rebuilt));
+            journal = null;
+            replayed(rebuilt);
+            state = rebuilt;
+            ready = true;
+        }
+        log.info("{} construit en {} ms: {}", getClass().getSimpleName(),
+                (System.nanoTime() - start) / 1_000_000, describe(rebuilt));
+    }
+
+    /**
+     * Charge le contenu de l'index depuis la base.
+     */
+    protected abstract void load(S state);
+
+    /**
+     * Appelée sous le verrou d'écriture une fois le journal rejoué sur l'état
+     * reconstruit, juste avant sa publication.
+     */
+    protected void replayed(S state) {
+    }
+
+    /**
+     * Résumé du contenu de l'index pour les logs.
+     */
+    protected abstract String describe(S state);
+
+    /**
+     * @return true une fois l'index construit
+     */
+    protected boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return l'état publié, à lire sans le modifier
+     */
+    protected S state() {
+        return state;
+    }
+
+    /**
+     * Applique une mise à jour après la validation de la transaction courante,
+     * ou immédiatement si aucune transaction n'est active.
+     */
+    protected void applyAfterCommit(Consumer<S> operation) {
+        TransactionHooks.afterCommit(() -> apply(operation));
+    }
+
+    private void apply(Consumer<S> operation) {
+        synchronized (writeLock) {
+            operation.accept(state);
+            if (journal != null) {
+                journal.add(operation);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.renault.garage.dto.GarageDto;
 import com.renault.garage.dto.OpeningTimeDto;
 import com.renault.garage.entity.Garage;
 import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.repository.projection.GarageSummaryView;
 import org.mapstruct.*;
 
 import java.time.DayOfWeek;
@@ -19,13 +20,44 @@ public interface GarageMapper {
     @Mapping(target = "vehicleCount", expression = "java(garage.getVehicleCount())")
     GarageDto toDto(Garage garage);
 
+    @Named("withoutOpeningHours")
+    @Mapping(target = "horairesOuverture", ignore = true)
+    @Mapping(target = "vehicleCount", expression = "java(garage.getVehicleCount())")
+    GarageDto toDtoWithoutOpeningHours(Garage garage);
+
+    /**
+     * Construit le DTO à partir d'horaires déjà chargés, sans initialiser la
+     * collection openingHours du garage.
+     */
+    default GarageDto toDto(Garage garage, List<OpeningTime> openingHours) {
+        GarageDto dto = toDtoWithoutOpeningHours(garage);
+        dto.setHorairesOuverture(toOpeningHoursDtoMap(openingHours.stream()
+                .collect(Collectors.groupingBy(OpeningTime::getDayOfWeek))));
+        return dto;
+    }
+
+    @Mapping(target = "horairesOuverture", ignore = true)
+    GarageDto toDto(GarageSummaryView garage);
+
+    /**
+     * Construit le DTO à partir d'une projection et de ses horaires déjà chargés.
+     */
+    default GarageDto toDto(GarageSummaryView garage, List<OpeningTime> openingHours) {
+        GarageDto dto = toDto(garage);
+        dto.setHorairesOuverture(toOpeningHoursDtoMap(openingHours.stream()
+                .collect(Collectors.groupingBy(OpeningTime::getDayOfWeek))));
+        return dto;
+    }
+
     @Mapping(target = "openingHours", ignore = true)
     @Mapping(target = "vehicles", ignore = true)
+    @Mapping(target = "vehicleCount", ignore = true)
     Garage toEntity(GarageDto dto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "openingHours", ignore = true)
     @Mapping(target = "vehicles", ignore = true)
+    @Mapping(target = "vehicleCount", ignore = true)
     void updateFromDto(GarageDto dto, @MappingTarget Garage garage);
 
     List<GarageDto> toDtoList(List<Garage> garages);
@@ -2,6 +2,7 @@ package com.renault.garage.mapper;
 
 import com.renault.garage.dto.VehicleDto;
 import com.renault.garage.entity.Vehicle;
+import com.renault.garage.repository.projection.VehicleSummaryView;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -15,6 +16,10 @@ public interface VehicleMapper {
     @Mapping(target = "typeCarburant", source = "fuelType")
     VehicleDto toDto(Vehicle vehicle);
 
+    @Mapping(target = "anneeFabrication", source = "manufacturingYear")
+    @Mapping(target = "typeCarburant", source = "fuelType")
+    VehicleDto toDto(VehicleSummaryView vehicle);
+
     @Mapping(target = "garage", ignore = true)
     @Mapping(target = "accessories", ignore = true)
     @Mapping(target = "manufacturingYear", source = "anneeFabrication")
@@ -29,4 +34,6 @@ public interface VehicleMapper {
     void updateFromDto(VehicleDto dto, @MappingTarget Vehicle vehicle);
 
     List<VehicleDto> toDtoList(List<Vehicle> vehicles);
+
+    List<VehicleDto> toDtoListFromViews(List<VehicleSummaryView> vehicles);
 }
@@ -0,0 +1,31 @@
+package com.renault.garage.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration des métriques applicatives, exposées sur
+ * {@code /actuator/prometheus} : timers {@code @Timed} des services et
+ * compteurs Hibernate par requête HTTP.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Active les annotations {@code @Timed} posées sur les services.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                StatementCountingSessionListener.class.getName());
+    }
+}
@@ -0,0 +1,76 @@
+package com.renault.garage.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mesure, pour chaque requête HTTP, le nombre d'instructions SQL préparées,
+ * d'entités chargées et de collections initialisées par Hibernate.
+ * <p>
+ * Les distributions {@code hibernate.request.statements},
+ * {@code hibernate.request.entity.loads} et
+ * {@code hibernate.request.collection.fetches} sont étiquetées par méthode HTTP
+ * et motif d'URI, comme {@code http.server.requests}.
+ */
+@Component
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory) {
+        this.meterRegistry = meterRegistry;
+        PostLoadEventListener entityLoads = event -> RequestQueryStatistics.entityLoaded();
+        InitializeCollectionEventListener collectionFetches = event -> RequestQueryStatistics.collectionFetched();
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, entityLoads);
+        listeners.appendListeners(EventType.INIT_COLLECTION, collectionFetches);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStatistics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStatistics.Counts counts = RequestQueryStatistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(),
+                    "uri", pattern == null ? UNKNOWN_URI : pattern.toString());
+            record("hibernate.request.statements", "Instructions SQL préparées par requête", tags,
+                    counts.statements());
+            record("hibernate.request.entity.loads", "Entités chargées par requête", tags, counts.entityLoads());
+            record("hibernate.request.collection.fetches", "Collections initialisées par requête", tags,
+                    counts.collectionFetches());
+        }
+    }
+
+    private void record(String name, String description, Tags tags, int amount) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(amount);
+    }
+}
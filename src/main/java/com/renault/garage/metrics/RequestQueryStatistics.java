@@ -0,0 +1,71 @@
+package com.renault.garage.metrics;
+
+/**
+ * Compteurs Hibernate de la requête HTTP en cours sur le thread courant :
+ * instructions SQL préparées, entités chargées et collections initialisées.
+ * <p>
+ * Les compteurs ne sont tenus qu'entre {@link #begin()} et {@link #end()} ;
+ * en dehors (threads de fond, démarrage), les incréments sont ignorés.
+ */
+public final class RequestQueryStatistics {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private RequestQueryStatistics() {
+    }
+
+    static void begin() {
+        CURRENT.set(new Counts());
+    }
+
+    /**
+     * Arrête le décompte sur le thread courant.
+     *
+     * @return les compteurs accumulés depuis {@link #begin()}
+     */
+    static Counts end() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts == null ? new Counts() : counts;
+    }
+
+    static void statementPrepared() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.collectionFetches++;
+        }
+    }
+
+    static final class Counts {
+
+        private int statements;
+        private int entityLoads;
+        private int collectionFetches;
+
+        int statements() {
+            return statements;
+        }
+
+        int entityLoads() {
+            return entityLoads;
+        }
+
+        int collectionFetches() {
+            return collectionFetches;
+        }
+    }
+}
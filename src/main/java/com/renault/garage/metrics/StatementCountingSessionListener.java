@@ -0,0 +1,16 @@
+package com.renault.garage.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Écouteur de session Hibernate comptant les instructions SQL préparées pour
+ * la requête en cours. Instancié par Hibernate pour chaque session
+ * ({@code hibernate.session.events.auto}), d'où le constructeur public sans argument.
+ */
+public class StatementCountingSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        RequestQueryStatistics.statementPrepared();
+    }
+}
@@ -2,9 +2,13 @@ package com.renault.garage.repository;
 
 import com.renault.garage.entity.Accessory;
 import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.repository.projection.AccessoryGarageView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,9 +18,18 @@ import java.util.List;
 public interface AccessoryRepository extends JpaRepository<Accessory, Long> {
 
     /**
-     * Liste des accessoires d'un véhicule spécifique.
+     * Liste des accessoires d'un véhicule spécifique. Le filtre porte sur la clé
+     * étrangère : la requête dérivée joindrait la table des véhicules et ne
+     * pourrait pas utiliser l'index sur vehicle_id.
      */
-    List<Accessory> findByVehicleId(Long vehicleId);
+    @Query("SELECT a FROM Accessory a WHERE a.vehicle.id = :vehicleId")
+    List<Accessory> findByVehicleId(@Param("vehicleId") Long vehicleId);
+
+    /**
+     * Accessoires d'un ensemble de véhicules, chargés en une seule requête, par id croissant.
+     */
+    @Query("SELECT a FROM Accessory a WHERE a.vehicle.id IN :vehicleIds ORDER BY a.id")
+    List<Accessory> findByVehicleIdIn(@Param("vehicleIds") Collection<Long> vehicleIds);
 
     /**
      * Liste des accessoires par type.
@@ -27,4 +40,11 @@ public interface AccessoryRepository extends JpaRepository<Accessory, Long> {
      * Liste des accessoires par nom (recherche partielle).
      */
     List<Accessory> findByNameContainingIgnoreCase(String name);
+
+    /**
+     * Accessoires des véhicules rattachés à un garage, avec l'identifiant du garage.
+     */
+    @Query("SELECT new com.renault.garage.repository.projection.AccessoryGarageView(a.id, a.name, v.garage.id) "
+            + "FROM Accessory a JOIN a.vehicle v WHERE v.garage IS NOT NULL")
+    List<AccessoryGarageView> findAllGarageLinks();
 }
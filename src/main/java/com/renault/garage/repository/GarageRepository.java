@@ -2,14 +2,25 @@ package com.renault.garage.repository;
 
 import com.renault.garage.entity.Garage;
 import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.projection.GarageFuelTypeCountView;
+import com.renault.garage.repository.projection.GarageLocationView;
+import com.renault.garage.repository.projection.GarageNameView;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import com.renault.garage.repository.projection.GarageSummaryView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository pour les opérations sur les garages.
@@ -17,6 +28,14 @@ import java.util.List;
 @Repository
 public interface GarageRepository extends JpaRepository<Garage, Long> {
 
+    /**
+     * Sélection des colonnes de {@link GarageSummaryView}, complétée par les
+     * requêtes de liste et de recherche. Le nombre de véhicules est lu dans la
+     * colonne dénormalisée {@code vehicle_count}.
+     */
+    String SELECT_SUMMARY = "SELECT new com.renault.garage.repository.projection.GarageSummaryView("
+            + "g.id, g.name, g.address, g.telephone, g.email, g.latitude, g.longitude, g.vehicleCount) FROM Garage g";
+
     /**
      * Recherche paginée de garages par ville.
      */
@@ -28,20 +47,150 @@ public interface GarageRepository extends JpaRepository<Garage, Long> {
     Page<Garage> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
     /**
-     * Recherche de garages ayant des véhicules d'un type de carburant spécifique.
+     * Page de tous les garages, en projection.
+     */
+    @Query(value = SELECT_SUMMARY, countQuery = "SELECT COUNT(g) FROM Garage g")
+    Page<GarageSummaryView> findAllSummaries(Pageable pageable);
+
+    /**
+     * Recherche de garages par nom (contient), en projection.
+     */
+    @Query(value = SELECT_SUMMARY + " WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :name, '%'))",
+            countQuery = "SELECT COUNT(g) FROM Garage g WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Page<GarageSummaryView> findSummariesByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Garages d'un ensemble d'identifiants, en projection et sans ordre.
+     */
+    @Query(SELECT_SUMMARY + " WHERE g.id IN :ids")
+    List<GarageSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Noms de tous les garages.
+     */
+    @Query("SELECT new com.renault.garage.repository.projection.GarageNameView(g.id, g.name) FROM Garage g")
+    List<GarageNameView> findAllNames();
+
+    /**
+     * Coordonnées de tous les garages géolocalisés.
      */
-    @Query("SELECT DISTINCT g FROM Garage g JOIN g.vehicles v WHERE v.fuelType = :fuelType")
-    List<Garage> findByVehicleFuelType(@Param("fuelType") FuelType fuelType);
+    @Query("SELECT new com.renault.garage.repository.projection.GarageLocationView(g.id, g.latitude, g.longitude) "
+            + "FROM Garage g WHERE g.latitude IS NOT NULL AND g.longitude IS NOT NULL")
+    List<GarageLocationView> findAllLocations();
 
     /**
-     * Recherche de garages contenant un accessoire spécifique.
+     * Tous les garages par id croissant, lus au fil de l'eau par un curseur en
+     * avant seulement. Le flux doit être consommé dans une transaction et fermé.
      */
-    @Query("SELECT DISTINCT g FROM Garage g JOIN g.vehicles v JOIN v.accessories a WHERE a.name = :accessoryName")
-    List<Garage> findByAccessoryName(@Param("accessoryName") String accessoryName);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT g FROM Garage g ORDER BY g.id")
+    Stream<Garage> streamAllOrderById();
+
+    /**
+     * Première page du parcours par curseur, triée par nom puis id (sans count).
+     */
+    @Query(SELECT_SUMMARY + " ORDER BY g.name, g.id")
+    List<GarageSummaryView> findFirstPageOrderByNameAndId(Pageable pageable);
+
+    /**
+     * Page suivant la position (name, id) du parcours par curseur (keyset).
+     */
+    @Query(SELECT_SUMMARY + " WHERE g.name > :name OR (g.name = :name AND g.id > :id) ORDER BY g.name, g.id")
+    List<GarageSummaryView> findPageAfterOrderByNameAndId(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Première page de la recherche par nom par curseur, triée par nom puis id.
+     */
+    @Query(SELECT_SUMMARY + " WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY g.name, g.id")
+    List<GarageSummaryView> searchFirstPageByNameOrderByNameAndId(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Page suivante de la recherche par nom par curseur (keyset).
+     */
+    @Query(SELECT_SUMMARY + " WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :query, '%')) "
+            + "AND (g.name > :name OR (g.name = :name AND g.id > :id)) ORDER BY g.name, g.id")
+    List<GarageSummaryView> searchPageAfterByNameOrderByNameAndId(@Param("query") String query, @Param("name") String name,
+            @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Recherche paginée de garages ayant des véhicules d'un type de carburant spécifique.
+     * Semi-jointure EXISTS : chaque garage est retourné une seule fois, sans DISTINCT.
+     */
+    @Query(value = SELECT_SUMMARY + " WHERE EXISTS "
+            + "(SELECT 1 FROM Vehicle v WHERE v.garage = g AND v.fuelType = :fuelType)",
+            countQuery = "SELECT COUNT(g) FROM Garage g WHERE EXISTS "
+            + "(SELECT 1 FROM Vehicle v WHERE v.garage = g AND v.fuelType = :fuelType)")
+    Page<GarageSummaryView> findByVehicleFuelType(@Param("fuelType") FuelType fuelType, Pageable pageable);
+
+    /**
+     * Identifiants des garages ayant des véhicules d'un type de carburant spécifique.
+     * Part de l'index sur le type de carburant des véhicules : seuls les véhicules
+     * de ce type sont lus, et non chaque garage.
+     */
+    @Query("SELECT DISTINCT v.garage.id FROM Vehicle v WHERE v.fuelType = :fuelType")
+    List<Long> findIdsByVehicleFuelType(@Param("fuelType") FuelType fuelType);
+
+    /**
+     * Recherche paginée de garages contenant un accessoire spécifique, le nom
+     * étant normalisé (voir {@link com.renault.garage.index.AccessoryGarageIndex#normalize(String)}).
+     * Semi-jointure EXISTS : chaque garage est retourné une seule fois, sans DISTINCT.
+     */
+    @Query(value = SELECT_SUMMARY + " WHERE EXISTS (SELECT 1 FROM Vehicle v JOIN v.accessories a "
+            + "WHERE v.garage = g AND LOWER(TRIM(a.name)) = :accessoryName)",
+            countQuery = "SELECT COUNT(g) FROM Garage g WHERE EXISTS (SELECT 1 FROM Vehicle v JOIN v.accessories a "
+            + "WHERE v.garage = g AND LOWER(TRIM(a.name)) = :accessoryName)")
+    Page<GarageSummaryView> findByAccessoryName(@Param("accessoryName") String accessoryName, Pageable pageable);
 
     /**
      * Recherche de garages par type de véhicule (modèle).
      */
     @Query("SELECT DISTINCT g FROM Garage g JOIN g.vehicles v WHERE v.model = :model")
     List<Garage> findByVehicleModel(@Param("model") String model);
+
+    /**
+     * Horaires d'ouverture d'un ensemble de garages, chargés en une seule requête.
+     */
+    @Query("SELECT new com.renault.garage.repository.projection.GarageOpeningTimeView("
+            + "g.id, o.dayOfWeek, o.startTime, o.endTime) "
+            + "FROM Garage g JOIN g.openingHours o WHERE g.id IN :garageIds")
+    List<GarageOpeningTimeView> findOpeningHoursByGarageIds(@Param("garageIds") Collection<Long> garageIds);
+
+    /**
+     * Horaires d'ouverture de tous les garages.
+     */
+    @Query("SELECT new com.renault.garage.repository.projection.GarageOpeningTimeView("
+            + "g.id, o.dayOfWeek, o.startTime, o.endTime) FROM Garage g JOIN g.openingHours o")
+    List<GarageOpeningTimeView> findAllOpeningHours();
+
+    /**
+     * Nombre de véhicules d'un garage par type de carburant.
+     */
+    @Query("SELECT new com.renault.garage.repository.projection.GarageFuelTypeCountView("
+            + "v.garage.id, v.fuelType, COUNT(v)) "
+            + "FROM Vehicle v WHERE v.garage.id = :garageId GROUP BY v.garage.id, v.fuelType")
+    List<GarageFuelTypeCountView> countVehiclesByFuelType(@Param("garageId") Long garageId);
+
+    /**
+     * Réserve atomiquement des places pour un ou plusieurs véhicules si la capacité
+     * maximale n'est pas dépassée. La condition et l'incrément sont évalués dans la
+     * même instruction : le verrou de ligne sérialise uniquement les insertions
+     * concurrentes sur un même garage.
+     *
+     * @return 1 si les places ont été réservées, 0 si la capacité serait dépassée
+     *         ou si le garage n'existe pas
+     */
+    @Modifying
+    @Query("UPDATE Garage g SET g.vehicleCount = g.vehicleCount + :slots "
+            + "WHERE g.id = :garageId AND g.vehicleCount + :slots <= :maxVehicles")
+    int reserveVehicleSlots(@Param("garageId") Long garageId, @Param("slots") int slots,
+            @Param("maxVehicles") int maxVehicles);
+
+    /**
+     * Décrémente atomiquement le compteur de véhicules d'un garage.
+     */
+    @Modifying
+    @Query("UPDATE Garage g SET g.vehicleCount = g.vehicleCount - 1 WHERE g.id = :garageId AND g.vehicleCount > 0")
+    int decrementVehicleCount(@Param("garageId") Long garageId);
 }
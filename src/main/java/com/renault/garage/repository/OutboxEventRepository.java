@@ -0,0 +1,49 @@
+package com.renault.garage.repository;
+
+import com.renault.garage.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository pour les événements en attente de publication (outbox).
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Événements non encore publiés ni écartés, dans leur ordre d'écriture.
+     */
+    List<OutboxEvent> findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Marque publiés des événements acquittés par le broker.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, e.attempts = e.attempts + 1, e.lastError = NULL "
+            + "WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    /**
+     * Enregistre l'échec d'envoi d'un événement, écarté si {@code failedAt} est renseigné.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.lastError = :lastError, e.failedAt = :failedAt "
+            + "WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("lastError") String lastError,
+            @Param("failedAt") LocalDateTime failedAt);
+
+    /**
+     * Purge des événements publiés avant la date donnée.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :publishedBefore")
+    int deletePublishedBefore(@Param("publishedBefore") LocalDateTime publishedBefore);
+}
@@ -2,14 +2,20 @@ package com.renault.garage.repository;
 
 import com.renault.garage.entity.Vehicle;
 import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.projection.VehicleFuelTypeView;
+import com.renault.garage.repository.projection.VehicleSummaryView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour les opérations sur les véhicules.
@@ -18,19 +24,46 @@ import java.util.List;
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
     /**
-     * Liste des véhicules d'un garage spécifique.
+     * Sélection des colonnes de {@link VehicleSummaryView}, le nom du garage
+     * étant lu par jointure (alias {@code g}) dans la même requête.
      */
-    List<Vehicle> findByGarageId(Long garageId);
+    String SELECT_SUMMARY = "SELECT new com.renault.garage.repository.projection.VehicleSummaryView("
+            + "v.id, v.brand, v.model, v.manufacturingYear, v.fuelType, g.id, g.name) ";
 
     /**
-     * Liste paginée des véhicules d'un garage.
+     * Véhicule verrouillé en écriture jusqu'à la fin de la transaction : les
+     * modifications et suppressions concurrentes d'un même véhicule sont
+     * sérialisées et lisent chacune le type de carburant validé par la précédente.
      */
-    Page<Vehicle> findByGarageId(Long garageId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") Long id);
 
     /**
-     * Liste des véhicules par modèle (dans tous les garages).
+     * Liste des véhicules d'un garage spécifique, en projection. La jointure
+     * interne part de la clé primaire du garage puis suit l'index sur garage_id.
      */
-    List<Vehicle> findByModel(String model);
+    @Query(SELECT_SUMMARY + "FROM Vehicle v JOIN v.garage g WHERE g.id = :garageId")
+    List<VehicleSummaryView> findByGarageId(@Param("garageId") Long garageId);
+
+    /**
+     * Véhicules d'un ensemble de garages, chargés en une seule requête, par id croissant.
+     */
+    @Query("SELECT v FROM Vehicle v WHERE v.garage.id IN :garageIds ORDER BY v.id")
+    List<Vehicle> findByGarageIdIn(@Param("garageIds") Collection<Long> garageIds);
+
+    /**
+     * Liste paginée des véhicules d'un garage (filtre sur la clé étrangère).
+     */
+    @Query(value = "SELECT v FROM Vehicle v WHERE v.garage.id = :garageId",
+            countQuery = "SELECT COUNT(v) FROM Vehicle v WHERE v.garage.id = :garageId")
+    Page<Vehicle> findByGarageId(@Param("garageId") Long garageId, Pageable pageable);
+
+    /**
+     * Liste des véhicules par modèle (dans tous les garages), en projection.
+     */
+    @Query(SELECT_SUMMARY + "FROM Vehicle v LEFT JOIN v.garage g WHERE v.model = :model")
+    List<VehicleSummaryView> findByModel(@Param("model") String model);
 
     /**
      * Liste des véhicules par marque.
@@ -52,4 +85,11 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
      * Liste des véhicules par modèle et marque.
      */
     List<Vehicle> findByBrandAndModel(String brand, String model);
+
+    /**
+     * Type de carburant de tous les véhicules rattachés à un garage.
+     */
+    @Query("SELECT new com.renault.garage.repository.projection.VehicleFuelTypeView(v.id, v.garage.id, v.fuelType) "
+            + "FROM Vehicle v WHERE v.garage IS NOT NULL")
+    List<VehicleFuelTypeView> findAllFuelTypes();
 }
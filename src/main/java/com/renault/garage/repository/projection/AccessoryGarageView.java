@@ -0,0 +1,8 @@
+package com.renault.garage.repository.projection;
+
+/**
+ * Accessoire associé au garage du véhicule qui le porte.
+ * Permet de construire l'index des accessoires en une seule requête.
+ */
+public record AccessoryGarageView(Long accessoryId, String name, Long garageId) {
+}
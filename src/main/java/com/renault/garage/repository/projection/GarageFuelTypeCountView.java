@@ -0,0 +1,9 @@
+package com.renault.garage.repository.projection;
+
+import com.renault.garage.enums.FuelType;
+
+/**
+ * Nombre de véhicules d'un garage pour un type de carburant.
+ */
+public record GarageFuelTypeCountView(Long garageId, FuelType fuelType, Long vehicleCount) {
+}
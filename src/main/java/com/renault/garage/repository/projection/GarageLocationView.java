@@ -0,0 +1,7 @@
+package com.renault.garage.repository.projection;
+
+/**
+ * Coordonnées d'un garage géolocalisé, en degrés décimaux (WGS 84).
+ */
+public record GarageLocationView(Long id, double latitude, double longitude) {
+}
@@ -0,0 +1,7 @@
+package com.renault.garage.repository.projection;
+
+/**
+ * Nom d'un garage avec son identifiant.
+ */
+public record GarageNameView(Long id, String name) {
+}
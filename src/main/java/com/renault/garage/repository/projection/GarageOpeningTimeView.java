@@ -0,0 +1,11 @@
+package com.renault.garage.repository.projection;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Plage horaire d'ouverture associée à l'identifiant de son garage.
+ * Permet de charger les horaires de plusieurs garages en une seule requête.
+ */
+public record GarageOpeningTimeView(Long garageId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+}
@@ -0,0 +1,10 @@
+package com.renault.garage.repository.projection;
+
+/**
+ * Colonnes d'un garage nécessaires aux listes et recherches, sans ses horaires.
+ * Lue par expression constructeur : aucune entité n'est chargée ni suivie par
+ * le contexte de persistance.
+ */
+public record GarageSummaryView(Long id, String name, String address, String telephone, String email,
+        Double latitude, Double longitude, int vehicleCount) {
+}
@@ -0,0 +1,9 @@
+package com.renault.garage.repository.projection;
+
+import com.renault.garage.enums.FuelType;
+
+/**
+ * Type de carburant d'un véhicule avec l'identifiant de son garage.
+ */
+public record VehicleFuelTypeView(Long vehicleId, Long garageId, FuelType fuelType) {
+}
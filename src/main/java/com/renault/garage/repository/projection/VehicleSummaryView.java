@@ -0,0 +1,11 @@
+package com.renault.garage.repository.projection;
+
+import com.renault.garage.enums.FuelType;
+
+/**
+ * Colonnes d'un véhicule nécessaires aux listes, avec l'identifiant et le nom
+ * de son garage (nuls pour un véhicule sans garage).
+ */
+public record VehicleSummaryView(Long id, String brand, String model, Integer manufacturingYear, FuelType fuelType,
+        Long garageId, String garageName) {
+}
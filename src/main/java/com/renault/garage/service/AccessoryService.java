@@ -5,9 +5,11 @@ import com.renault.garage.entity.Accessory;
 import com.renault.garage.entity.Vehicle;
 import com.renault.garage.exception.AccessoryNotFoundException;
 import com.renault.garage.exception.VehicleNotFoundException;
+import com.renault.garage.index.AccessoryGarageIndex;
 import com.renault.garage.mapper.AccessoryMapper;
 import com.renault.garage.repository.AccessoryRepository;
 import com.renault.garage.repository.VehicleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,18 +19,23 @@ import java.util.List;
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Timed(value = "accessory.service", histogram = true)
 public class AccessoryService {
 
     private final AccessoryRepository accessoryRepository;
     private final VehicleRepository vehicleRepository;
     private final AccessoryMapper mapper;
+    private final AccessoryGarageIndex accessoryGarageIndex;
 
     public AccessoryDto addAccessoryToVehicle(Long vehicleId, AccessoryDto accessoryDto) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new VehicleNotFoundException(vehicleId));
         Accessory accessory = mapper.toEntity(accessoryDto);
         accessory.setVehicle(vehicle);
-        return mapper.toDto(accessoryRepository.save(accessory));
+        Accessory savedAccessory = accessoryRepository.save(accessory);
+        accessoryGarageIndex.onAccessorySaved(savedAccessory.getId(), savedAccessory.getName(),
+                vehicle.getGarage() != null ? vehicle.getGarage().getId() : null);
+        return mapper.toDto(savedAccessory);
     }
 
     @Transactional(readOnly = true)
@@ -43,7 +50,9 @@ public class AccessoryService {
         Accessory existingAccessory = accessoryRepository.findById(id)
                 .orElseThrow(() -> new AccessoryNotFoundException(id));
         mapper.updateFromDto(accessoryDto, existingAccessory);
-        return mapper.toDto(accessoryRepository.save(existingAccessory));
+        Accessory updatedAccessory = accessoryRepository.save(existingAccessory);
+        accessoryGarageIndex.onAccessoryRenamed(updatedAccessory.getId(), updatedAccessory.getName());
+        return mapper.toDto(updatedAccessory);
     }
 
     public void deleteAccessory(Long id) {
@@ -51,5 +60,6 @@ public class AccessoryService {
             throw new AccessoryNotFoundException(id);
         }
         accessoryRepository.deleteById(id);
+        accessoryGarageIndex.onAccessoriesDeleted(List.of(id));
     }
 }
@@ -0,0 +1,171 @@
+package com.renault.garage.service;
+
+import com.renault.garage.dto.GarageDto;
+import com.renault.garage.dto.OpeningTimeDto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecture des lignes CSV de l'import de garages.
+ * <p>
+ * La première ligne est l'en-tête : colonnes {@code name}, {@code address},
+ * {@code telephone}, {@code email} et {@code horairesOuverture}, dans un ordre
+ * quelconque, et facultativement {@code latitude} et {@code longitude} (degrés
+ * décimaux, vides si le garage n'est pas géolocalisé). Les champs sont séparés
+ * par des virgules et peuvent être entourés de guillemets (guillemet doublé
+ * pour un guillemet littéral) ; un champ ne peut pas contenir de saut de
+ * ligne. Les horaires sont de la forme
+ * {@code MONDAY=08:00-12:00|14:00-18:00;TUESDAY=08:00-12:00}.
+ */
+final class GarageCsvParser {
+
+    static final List<String> COLUMNS = List.of("name", "address", "telephone", "email", "horairesOuverture");
+    static final List<String> OPTIONAL_COLUMNS = List.of("latitude", "longitude");
+
+    private final int[] positions = new int[COLUMNS.size()];
+    private final int[] optionalPositions = new int[OPTIONAL_COLUMNS.size()];
+    private final int columnCount;
+
+    private GarageCsvParser(List<String> header) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            indexes.put(header.get(i).strip(), i);
+        }
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer position = indexes.get(COLUMNS.get(i));
+            if (position == null) {
+                throw new IllegalArgumentException("Colonne absente de l'en-tête CSV : " + COLUMNS.get(i));
+            }
+            positions[i] = position;
+        }
+        for (int i = 0; i < OPTIONAL_COLUMNS.size(); i++) {
+            optionalPositions[i] = indexes.getOrDefault(OPTIONAL_COLUMNS.get(i), -1);
+        }
+        this.columnCount = header.size();
+    }
+
+    /**
+     * @throws IllegalArgumentException si l'en-tête est absent ou incomplet
+     */
+    static GarageCsvParser fromHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("En-tête CSV absent");
+        }
+        return new GarageCsvParser(split(header.startsWith("\uFEFF") ? header.substring(1) : header));
+    }
+
+    /**
+     * @throws IllegalArgumentException si la ligne est mal formée
+     */
+    GarageDto parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != columnCount) {
+            throw new IllegalArgumentException(fields.size() + " champs au lieu de " + columnCount);
+        }
+        GarageDto dto = new GarageDto();
+        dto.setName(emptyToNull(fields.get(positions[0])));
+        dto.setAddress(emptyToNull(fields.get(positions[1])));
+        dto.setTelephone(emptyToNull(fields.get(positions[2])));
+        dto.setEmail(emptyToNull(fields.get(positions[3])));
+        dto.setHorairesOuverture(parseOpeningHours(fields.get(positions[4])));
+        dto.setLatitude(parseCoordinate(fields, optionalPositions[0]));
+        dto.setLongitude(parseCoordinate(fields, optionalPositions[1]));
+        return dto;
+    }
+
+    static Map<DayOfWeek, List<OpeningTimeDto>> parseOpeningHours(String value) {
+        Map<DayOfWeek, List<OpeningTimeDto>> openingHours = new EnumMap<>(DayOfWeek.class);
+        for (String day : value.split(";")) {
+            if (day.isBlank()) {
+                continue;
+            }
+            int separator = day.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Horaires mal formés : " + day.strip());
+            }
+            List<OpeningTimeDto> slots = new ArrayList<>();
+            for (String slot : day.substring(separator + 1).split("\\|")) {
+                String[] bounds = slot.strip().split("-");
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("Plage horaire mal formée : " + slot.strip());
+                }
+                slots.add(new OpeningTimeDto(parseTime(bounds[0]), parseTime(bounds[1])));
+            }
+            openingHours.put(parseDay(day.substring(0, separator)), slots);
+        }
+        return openingHours;
+    }
+
+    /**
+     * Découpe une ligne CSV en champs (RFC 4180, sans champ multiligne).
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Guillemet non fermé");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        try {
+            return DayOfWeek.valueOf(day.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jour inconnu : " + day.strip());
+        }
+    }
+
+    private static LocalTime parseTime(String time) {
+        try {
+            return LocalTime.parse(time.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Heure invalide : " + time.strip());
+        }
+    }
+
+    private static Double parseCoordinate(List<String> fields, int position) {
+        if (position < 0 || fields.get(position).isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(fields.get(position).strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Coordonnée invalide : " + fields.get(position).strip());
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
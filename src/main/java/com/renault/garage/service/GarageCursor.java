@@ -0,0 +1,36 @@
+package com.renault.garage.service;
+
+import com.renault.garage.exception.InvalidCursorException;
+import com.renault.garage.repository.projection.GarageSummaryView;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position dans le parcours des garages triés par (nom, id), encodée en
+ * Base64 URL pour former un curseur opaque.
+ */
+record GarageCursor(String name, Long id) {
+
+    static GarageCursor after(GarageSummaryView garage) {
+        return new GarageCursor(garage.name(), garage.id());
+    }
+
+    String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static GarageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new GarageCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.renault.garage.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.renault.garage.dto.AccessoryDto;
+import com.renault.garage.dto.GarageExportDto;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.mapper.AccessoryMapper;
+import com.renault.garage.mapper.GarageMapper;
+import com.renault.garage.mapper.VehicleMapper;
+import com.renault.garage.repository.AccessoryRepository;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.VehicleRepository;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Export NDJSON de tous les garages : une ligne JSON par garage, par id
+ * croissant, avec ses véhicules et leurs accessoires si demandé.
+ * <p>
+ * Les garages sont lus par un curseur en avant seulement. Par tranche de
+ * {@value #CHUNK_SIZE} garages, les horaires, les véhicules et les accessoires
+ * sont chargés en une requête chacun, les lignes sont écrites, puis le
+ * contexte de persistance est vidé : la mémoire utilisée ne dépend pas du
+ * nombre de garages exportés.
+ */
+@Service
+@RequiredArgsConstructor
+public class GarageExportService {
+
+    static final int CHUNK_SIZE = 100;
+
+    private final GarageRepository garageRepository;
+    private final VehicleRepository vehicleRepository;
+    private final AccessoryRepository accessoryRepository;
+    private final GarageMapper garageMapper;
+    private final VehicleMapper vehicleMapper;
+    private final AccessoryMapper accessoryMapper;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Écrit tous les garages dans le flux, sans le fermer.
+     *
+     * @param withVehicles inclure les véhicules et leurs accessoires
+     * @return le nombre de garages exportés
+     */
+    @Transactional(readOnly = true)
+    public long exportGarages(OutputStream output, boolean withVehicles) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(GarageExportDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long exported = 0;
+        List<Garage> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Garage> garages = garageRepository.streamAllOrderById()) {
+            Iterator<Garage> iterator = garages.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (GarageExportDto line : toExportLines(chunk, withVehicles)) {
+                        writer.writeValue(generator, line);
+                        generator.writeRaw('\n');
+                    }
+                    exported += chunk.size();
+                    chunk.clear();
+                    // Les entités de la tranche sont écrites : elles sont détachées
+                    entityManager.clear();
+                }
+            }
+        }
+        generator.close();
+        return exported;
+    }
+
+    private List<GarageExportDto> toExportLines(List<Garage> garages, boolean withVehicles) {
+        List<Long> garageIds = garages.stream().map(Garage::getId).toList();
+        Map<Long, List<OpeningTime>> openingHours = garageRepository.findOpeningHoursByGarageIds(garageIds).stream()
+                .collect(Collectors.groupingBy(GarageOpeningTimeView::garageId,
+                        Collectors.mapping(view -> new OpeningTime(view.dayOfWeek(), view.startTime(), view.endTime()),
+                                Collectors.toList())));
+        Map<Long, List<GarageExportDto.VehicleExport>> vehicles = withVehicles ? loadVehicles(garageIds) : Map.of();
+
+        return garages.stream()
+                .map(garage -> new GarageExportDto(
+                        garageMapper.toDto(garage, openingHours.getOrDefault(garage.getId(), List.of())),
+                        withVehicles ? vehicles.getOrDefault(garage.getId(), List.of()) : null))
+                .toList();
+    }
+
+    /**
+     * Véhicules des garages de la tranche avec leurs accessoires, groupés par garage.
+     */
+    private Map<Long, List<GarageExportDto.VehicleExport>> loadVehicles(List<Long> garageIds) {
+        List<Vehicle> vehicles = vehicleRepository.findByGarageIdIn(garageIds);
+        if (vehicles.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<AccessoryDto>> accessories = accessoryRepository
+                .findByVehicleIdIn(vehicles.stream().map(Vehicle::getId).toList()).stream()
+                .collect(Collectors.groupingBy(accessory -> accessory.getVehicle().getId(),
+                        Collectors.mapping(accessoryMapper::toDto, Collectors.toList())));
+        return vehicles.stream()
+                .collect(Collectors.groupingBy(vehicle -> vehicle.getGarage().getId(),
+                        Collectors.mapping(vehicle -> new GarageExportDto.VehicleExport(vehicleMapper.toDto(vehicle),
+                                accessories.getOrDefault(vehicle.getId(), List.of())), Collectors.toList())));
+    }
+}
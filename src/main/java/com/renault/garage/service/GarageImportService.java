@@ -0,0 +1,207 @@
+package com.renault.garage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.renault.garage.dto.GarageDto;
+import com.renault.garage.dto.GarageImportReport;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.exception.InvalidImportFileException;
+import com.renault.garage.index.GarageLocationIndex;
+import com.renault.garage.index.GarageNameIndex;
+import com.renault.garage.index.GarageScheduleIndex;
+import com.renault.garage.mapper.GarageMapper;
+import com.renault.garage.repository.GarageRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de garages et de leurs horaires depuis un flux NDJSON ou CSV.
+ * <p>
+ * Le flux est lu ligne à ligne : chaque ligne est convertie en {@link GarageDto}
+ * et validée, puis les garages valides sont insérés par lots de
+ * {@code app.import.batch-size}, un lot par transaction. La ligne suivante
+ * n'est lue qu'une fois le lot en cours inséré : un client plus rapide que la
+ * base est freiné par le flux lui-même, et seul le lot en cours est en mémoire.
+ * <p>
+ * Une ligne illisible ou invalide est rejetée sans interrompre l'import. Un lot
+ * refusé par la base est annulé en entier et toutes ses lignes sont rejetées ;
+ * les lots précédents restent validés.
+ */
+@Slf4j
+@Service
+public class GarageImportService {
+
+    /**
+     * Format du flux importé.
+     */
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final GarageRepository garageRepository;
+    private final GarageMapper mapper;
+    private final GarageNameIndex garageNameIndex;
+    private final GarageScheduleIndex garageScheduleIndex;
+    private final GarageLocationIndex garageLocationIndex;
+    private final Validator validator;
+    private final ObjectReader garageReader;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public GarageImportService(GarageRepository garageRepository,
+            GarageMapper mapper,
+            GarageNameIndex garageNameIndex,
+            GarageScheduleIndex garageScheduleIndex,
+            GarageLocationIndex garageLocationIndex,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.garageRepository = garageRepository;
+        this.mapper = mapper;
+        this.garageNameIndex = garageNameIndex;
+        this.garageScheduleIndex = garageScheduleIndex;
+        this.garageLocationIndex = garageLocationIndex;
+        this.validator = validator;
+        this.garageReader = objectMapper.readerFor(GarageDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importe les garages du flux, sans le fermer.
+     *
+     * @return le nombre de garages importés et les lignes rejetées
+     * @throws InvalidImportFileException si l'en-tête CSV est absent ou incomplet
+     */
+    public GarageImportReport importGarages(InputStream input, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Import current = new Import();
+        long lineNumber = 0;
+        GarageCsvParser csvParser = null;
+        if (format == Format.CSV) {
+            try {
+                csvParser = GarageCsvParser.fromHeader(reader.readLine());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidImportFileException(e.getMessage());
+            }
+            lineNumber++;
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            GarageDto garageDto;
+            try {
+                garageDto = csvParser != null ? csvParser.parse(line) : garageReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                current.reject(lineNumber, "JSON invalide : " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                current.reject(lineNumber, e.getMessage());
+                continue;
+            }
+            if (garageDto == null) {
+                current.reject(lineNumber, "Ligne sans garage");
+                continue;
+            }
+            // Les identifiants éventuels (fichier issu de l'export) sont ignorés
+            garageDto.setId(null);
+            Set<ConstraintViolation<GarageDto>> violations = validator.validate(garageDto);
+            if (!violations.isEmpty()) {
+                current.reject(lineNumber, violations.stream()
+                        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                        .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            current.pending.add(new PendingGarage(lineNumber, garageDto));
+            if (current.pending.size() >= batchSize) {
+                insertBatch(current);
+            }
+        }
+        insertBatch(current);
+
+        log.info("Import de garages : {} importés, {} lignes rejetées", current.imported, current.rejected);
+        return new GarageImportReport(current.imported, current.rejected, current.errors);
+    }
+
+    private void insertBatch(Import current) {
+        if (current.pending.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Garage> garages = current.pending.stream()
+                        .map(pending -> mapper.toEntity(pending.garage()))
+                        .toList();
+                garageRepository.saveAll(garages);
+                entityManager.flush();
+                garages.forEach(garage -> {
+                    garageNameIndex.onGarageSaved(garage.getId(), garage.getName());
+                    garageScheduleIndex.onGarageSaved(garage.getId(), garage.getOpeningHours());
+                    garageLocationIndex.onGarageSaved(garage.getId(), garage.getLatitude(), garage.getLongitude());
+                });
+                // Les garages du lot sont insérés : ils sont détachés
+                entityManager.clear();
+            });
+            current.imported += current.pending.size();
+        } catch (RuntimeException e) {
+            log.warn("Lot de {} garages rejeté par la base", current.pending.size(), e);
+            String message = "Lot rejeté par la base : " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            current.pending.forEach(pending -> current.reject(pending.line(), message));
+        }
+        current.pending.clear();
+    }
+
+    private record PendingGarage(long line, GarageDto garage) {
+    }
+
+    /**
+     * État d'un import en cours : lot en attente et bilan.
+     */
+    private final class Import {
+
+        private final List<PendingGarage> pending = new ArrayList<>();
+        private final List<GarageImportReport.LineError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new GarageImportReport.LineError(line, message));
+            }
+        }
+    }
+}
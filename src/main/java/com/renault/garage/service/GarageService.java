@@ -1,43 +1,96 @@
 package com.renault.garage.service;
 
+import com.renault.garage.cache.GarageDtoCache;
+import com.renault.garage.dto.CursorPage;
 import com.renault.garage.dto.GarageDto;
+import com.renault.garage.dto.NearbyGarageDto;
 import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
 import com.renault.garage.enums.FuelType;
 import com.renault.garage.exception.GarageNotFoundException;
+import com.renault.garage.exception.InvalidCoordinatesException;
+import com.renault.garage.exception.UnsupportedSortException;
+import com.renault.garage.index.AccessoryGarageIndex;
+import com.renault.garage.index.GarageFuelTypeIndex;
+import com.renault.garage.index.GarageLocationIndex;
+import com.renault.garage.index.GarageNameIndex;
+import com.renault.garage.index.GarageScheduleIndex;
 import com.renault.garage.mapper.GarageMapper;
 import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageFuelTypeCountView;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import com.renault.garage.repository.projection.GarageSummaryView;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Timed(value = "garage.service", histogram = true)
 public class GarageService {
 
+    static final int MAX_SCROLL_SIZE = 100;
+    static final int MAX_NEAREST = 100;
+
     private final GarageRepository garageRepository;
     private final GarageMapper mapper;
+    private final AccessoryGarageIndex accessoryGarageIndex;
+    private final GarageFuelTypeIndex garageFuelTypeIndex;
+    private final GarageNameIndex garageNameIndex;
+    private final GarageScheduleIndex garageScheduleIndex;
+    private final GarageLocationIndex garageLocationIndex;
+    private final GarageDtoCache garageDtoCache;
 
     public GarageDto createGarage(GarageDto garageDto) {
         Garage garage = mapper.toEntity(garageDto);
         Garage savedGarage = garageRepository.save(garage);
+        garageNameIndex.onGarageSaved(savedGarage.getId(), savedGarage.getName());
+        garageScheduleIndex.onGarageSaved(savedGarage.getId(), savedGarage.getOpeningHours());
+        garageLocationIndex.onGarageSaved(savedGarage.getId(), savedGarage.getLatitude(), savedGarage.getLongitude());
         return mapper.toDto(savedGarage);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Lecture servie par le cache : sans transaction propre, un succès de cache
+     * n'emprunte aucune connexion. En cas d'échec, le garage et ses horaires sont
+     * chargés par deux requêtes, sans chargement paresseux.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public GarageDto getGarageById(Long id) {
-        Garage garage = garageRepository.findById(id)
-                .orElseThrow(() -> new GarageNotFoundException(id));
-        return mapper.toDto(garage);
+        return garageDtoCache.get(id, this::loadGarage);
     }
 
+    /**
+     * Les listes et recherches lisent les garages en projection
+     * ({@link GarageSummaryView}) : aucune entité n'est hydratée ni suivie par le
+     * contexte de persistance, et les horaires de la page sont chargés en une
+     * seule requête.
+     */
     @Transactional(readOnly = true)
     public Page<GarageDto> getAllGarages(Pageable pageable) {
-        return garageRepository.findAll(pageable).map(mapper::toDto);
+        return toDtoPage(garageRepository.findAllSummaries(pageable));
     }
 
     public GarageDto updateGarage(Long id, GarageDto garageDto) {
@@ -46,6 +99,10 @@ public class GarageService {
 
         mapper.updateFromDto(garageDto, existingGarage);
         Garage updatedGarage = garageRepository.save(existingGarage);
+        garageNameIndex.onGarageSaved(id, updatedGarage.getName());
+        garageScheduleIndex.onGarageSaved(id, updatedGarage.getOpeningHours());
+        garageLocationIndex.onGarageSaved(id, updatedGarage.getLatitude(), updatedGarage.getLongitude());
+        garageDtoCache.invalidateAfterCommit(id);
         return mapper.toDto(updatedGarage);
     }
 
@@ -54,22 +111,317 @@ public class GarageService {
             throw new GarageNotFoundException(id);
         }
         garageRepository.deleteById(id);
+        accessoryGarageIndex.onGarageDeleted(id);
+        garageFuelTypeIndex.onGarageDeleted(id);
+        garageNameIndex.onGarageDeleted(id);
+        garageScheduleIndex.onGarageDeleted(id);
+        garageLocationIndex.onGarageDeleted(id);
+        garageDtoCache.invalidateAfterCommit(id);
     }
 
+    /**
+     * Les identifiants des garages sont résolus par les agrégats en mémoire et la
+     * page y est découpée, dans l'ordre des ids ou des noms ; seuls les garages de
+     * la page sont lus en base. Pour un autre tri, ou tant que les index ne sont
+     * pas construits, la recherche est faite en base (requête paginée).
+     */
     @Transactional(readOnly = true)
-    public List<GarageDto> getGaragesByVehicleFuelType(FuelType fuelType) {
-        List<Garage> garages = garageRepository.findByVehicleFuelType(fuelType);
-        return mapper.toDtoList(garages);
+    public Page<GarageDto> getGaragesByVehicleFuelType(FuelType fuelType, Pageable pageable) {
+        Optional<Page<GarageDto>> page = garageFuelTypeIndex.findGarageIds(fuelType)
+                .flatMap(garageIds -> pageInMemory(garageIds, pageable));
+        return page.orElseGet(() -> toDtoPage(garageRepository.findByVehicleFuelType(fuelType, pageable)));
     }
 
+    /**
+     * Répartition des véhicules d'un garage par type de carburant.
+     */
     @Transactional(readOnly = true)
-    public List<GarageDto> getGaragesByAccessoryName(String accessoryName) {
-        List<Garage> garages = garageRepository.findByAccessoryName(accessoryName);
-        return mapper.toDtoList(garages);
+    public Map<FuelType, Integer> getFuelMix(Long id) {
+        if (!garageRepository.existsById(id)) {
+            throw new GarageNotFoundException(id);
+        }
+        return garageFuelTypeIndex.findFuelMix(id).orElseGet(() -> {
+            Map<FuelType, Integer> fuelMix = new EnumMap<>(FuelType.class);
+            for (FuelType fuelType : FuelType.values()) {
+                fuelMix.put(fuelType, 0);
+            }
+            for (GarageFuelTypeCountView count : garageRepository.countVehiclesByFuelType(id)) {
+                fuelMix.put(count.fuelType(), Math.toIntExact(count.vehicleCount()));
+            }
+            return fuelMix;
+        });
     }
 
+    /**
+     * Les identifiants des garages sont résolus par l'index en mémoire et la page
+     * y est découpée, dans l'ordre des ids ou des noms ; seuls les garages de la
+     * page sont lus en base. Pour un autre tri, ou tant que les index ne sont pas
+     * construits, la recherche est faite en base (requête paginée).
+     */
+    @Transactional(readOnly = true)
+    public Page<GarageDto> getGaragesByAccessoryName(String accessoryName, Pageable pageable) {
+        Optional<Page<GarageDto>> page = accessoryGarageIndex.findGarageIds(accessoryName)
+                .flatMap(garageIds -> pageInMemory(garageIds, pageable));
+        return page.orElseGet(() -> toDtoPage(garageRepository.findByAccessoryName(
+                AccessoryGarageIndex.normalize(accessoryName), pageable)));
+    }
+
+    /**
+     * Garages ouverts au jour et à l'heure donnés (maintenant par défaut) et, si
+     * {@code hours} est positif, sans interruption pendant les {@code hours}
+     * heures suivantes, bornées à une semaine. Les identifiants sont résolus par
+     * les horaires compactés en mémoire et la page y est découpée, dans l'ordre des
+     * ids ou des noms ; seuls les garages de la page sont lus en base. Tant que les
+     * index ne sont pas construits, les horaires et les noms sont lus en base. Les
+     * autres tris ne sont pas supportés.
+     */
+    @Transactional(readOnly = true)
+    public Page<GarageDto> getOpenGarages(DayOfWeek day, LocalTime time, int hours, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        DayOfWeek openDay = day != null ? day : now.getDayOfWeek();
+        LocalTime openTime = time != null ? time : now.toLocalTime();
+        int openHours = Math.max(0, Math.min(hours, GarageScheduleIndex.MAX_HOURS));
+        BitSet garageIds = garageScheduleIndex.findOpenGarageIds(openDay, openTime, openHours)
+                .orElseGet(() -> GarageScheduleIndex.findOpenGarageIds(garageRepository.findAllOpeningHours(),
+                        openDay, openTime, openHours));
+        return pageInMemory(garageIds, pageable).orElseGet(() -> {
+            Sort.Direction direction = nameOrder(pageable)
+                    .orElseThrow(() -> new UnsupportedSortException(pageable.getSort()));
+            List<Long> ids = GarageNameIndex.findPage(garageRepository.findAllNames(), garageIds,
+                    pageable.getOffset(), pageable.getPageSize(), direction);
+            return new PageImpl<>(toDtoList(loadSummaries(ids)), pageable, garageIds.cardinality());
+        });
+    }
+
+    /**
+     * Garages géolocalisés les plus proches du point donné, du plus proche au plus
+     * lointain, dans le rayon donné s'il est renseigné et, si un type de carburant
+     * est demandé, parmi les garages ayant des véhicules de ce type. Les garages
+     * sont résolus par la grille spatiale et les agrégats par carburant en
+     * mémoire ; seuls les garages retenus sont lus en base. Tant que la grille ou
+     * les agrégats ne sont pas construits, les données manquantes sont lues en base.
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyGarageDto> getNearestGarages(double latitude, double longitude, Double radiusKm, int limit,
+            FuelType fuelType) {
+        if (!(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new InvalidCoordinatesException(latitude, longitude);
+        }
+        double radius = radiusKm == null || radiusKm.isNaN() ? Double.POSITIVE_INFINITY : Math.max(0, radiusKm);
+        int size = Math.max(1, Math.min(limit, MAX_NEAREST));
+        LongPredicate filter = fuelType == null ? null : fuelTypeFilter(fuelType);
+        List<GarageLocationIndex.Nearby> nearest = garageLocationIndex
+                .findNearest(latitude, longitude, radius, size, filter)
+                .orElseGet(() -> GarageLocationIndex.findNearest(garageRepository.findAllLocations(),
+                        latitude, longitude, radius, size, filter));
+        if (nearest.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = nearest.stream().map(GarageLocationIndex.Nearby::garageId).toList();
+        Map<Long, GarageDto> garagesById = toDtoList(garageRepository.findSummariesByIdIn(ids)).stream()
+                .collect(Collectors.toMap(GarageDto::getId, Function.identity()));
+        return nearest.stream()
+                .filter(garage -> garagesById.containsKey(garage.garageId()))
+                .map(garage -> new NearbyGarageDto(garagesById.get(garage.garageId()), garage.distanceKm()))
+                .toList();
+    }
+
+    /**
+     * Triée par nom (ou sans tri), la recherche est résolue par l'index trigramme
+     * et seuls les garages de la page sont lus en base. Pour un autre tri, ou tant
+     * que l'index n'est pas construit, la recherche est faite en base.
+     */
     @Transactional(readOnly = true)
     public Page<GarageDto> searchGaragesByName(String name, Pageable pageable) {
-        return garageRepository.findByNameContainingIgnoreCase(name, pageable).map(mapper::toDto);
+        Optional<GarageNameIndex.Matches> matches = nameOrder(pageable).flatMap(direction ->
+                garageNameIndex.findByName(name, pageable.getOffset(), pageable.getPageSize(), direction));
+        if (matches.isEmpty()) {
+            return toDtoPage(garageRepository.findSummariesByNameContainingIgnoreCase(name, pageable));
+        }
+        return new PageImpl<>(toDtoList(loadSummaries(matches.get().ids())), pageable, matches.get().total());
+    }
+
+    /**
+     * Parcours de tous les garages par curseur, trié par nom puis id. Chaque page
+     * est obtenue par un seek sur l'index, sans requête count ni offset.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<GarageDto> scrollGarages(String cursor, int size) {
+        Pageable limit = scrollLimit(size);
+        List<GarageSummaryView> garages;
+        if (cursor == null) {
+            garages = garageRepository.findFirstPageOrderByNameAndId(limit);
+        } else {
+            GarageCursor position = GarageCursor.decode(cursor);
+            garages = garageRepository.findPageAfterOrderByNameAndId(position.name(), position.id(), limit);
+        }
+        return toCursorPage(garages, limit.getPageSize() - 1);
+    }
+
+    /**
+     * Recherche par nom parcourue par curseur, triée par nom puis id.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<GarageDto> scrollGaragesByName(String name, String cursor, int size) {
+        Pageable limit = scrollLimit(size);
+        List<GarageSummaryView> garages;
+        if (cursor == null) {
+            garages = garageRepository.searchFirstPageByNameOrderByNameAndId(name, limit);
+        } else {
+            GarageCursor position = GarageCursor.decode(cursor);
+            garages = garageRepository.searchPageAfterByNameOrderByNameAndId(name, position.name(), position.id(), limit);
+        }
+        return toCursorPage(garages, limit.getPageSize() - 1);
+    }
+
+    /**
+     * Sens du tri si la page est triée uniquement par nom (croissant si non triée).
+     */
+    private static Optional<Sort.Direction> nameOrder(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Optional.empty();
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.isEmpty()) {
+            return Optional.of(Sort.Direction.ASC);
+        }
+        if (orders.size() == 1 && orders.get(0).getProperty().equals("name") && !orders.get(0).isIgnoreCase()) {
+            return Optional.of(orders.get(0).getDirection());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Identifiants de la page parmi les garages résolus en mémoire : sans tri ou
+     * triée par id, la fenêtre de la page est prise directement dans le bitmap ;
+     * triée par nom, elle est prise dans l'ordre des noms de l'index trigramme.
+     *
+     * @return les identifiants de la page, dans l'ordre, ou vide pour un autre tri
+     *         ou si l'index des noms n'est pas encore construit
+     */
+    private Optional<List<Long>> pageIds(BitSet garageIds, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Optional.empty();
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.isEmpty()) {
+            return Optional.of(idWindow(garageIds, pageable.getOffset(), pageable.getPageSize(), Sort.Direction.ASC));
+        }
+        Sort.Order order = orders.get(0);
+        if (orders.size() > 1 || order.isIgnoreCase()) {
+            return Optional.empty();
+        }
+        return switch (order.getProperty()) {
+            case "id" -> Optional.of(idWindow(garageIds, pageable.getOffset(), pageable.getPageSize(),
+                    order.getDirection()));
+            case "name" -> garageNameIndex.findPage(garageIds, pageable.getOffset(), pageable.getPageSize(),
+                    order.getDirection());
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Fenêtre de {@code size} identifiants à partir de la position {@code offset}
+     * dans l'ordre des identifiants.
+     */
+    private static List<Long> idWindow(BitSet garageIds, long offset, int size, Sort.Direction direction) {
+        List<Long> ids = new ArrayList<>(size);
+        long position = 0;
+        int id = direction == Sort.Direction.DESC
+                ? garageIds.previousSetBit(garageIds.length() - 1) : garageIds.nextSetBit(0);
+        while (id >= 0 && ids.size() < size) {
+            if (position++ >= offset) {
+                ids.add((long) id);
+            }
+            id = direction == Sort.Direction.DESC ? garageIds.previousSetBit(id - 1) : garageIds.nextSetBit(id + 1);
+        }
+        return ids;
+    }
+
+    private LongPredicate fuelTypeFilter(FuelType fuelType) {
+        return garageFuelTypeIndex.findGarageFilter(fuelType).orElseGet(() -> {
+            BitSet garageIds = new BitSet();
+            garageRepository.findIdsByVehicleFuelType(fuelType).forEach(id -> garageIds.set(Math.toIntExact(id)));
+            return garageId -> garageIds.get(Math.toIntExact(garageId));
+        });
+    }
+
+    private GarageDto loadGarage(Long id) {
+        Garage garage = garageRepository.findById(id)
+                .orElseThrow(() -> new GarageNotFoundException(id));
+        return mapper.toDto(garage, loadOpeningHours(List.of(id)).getOrDefault(id, List.of()));
+    }
+
+    /**
+     * Une ligne de plus que la taille demandée est lue pour savoir s'il existe une
+     * page suivante.
+     */
+    private Pageable scrollLimit(int size) {
+        return PageRequest.ofSize(Math.max(1, Math.min(size, MAX_SCROLL_SIZE)) + 1);
+    }
+
+    private CursorPage<GarageDto> toCursorPage(List<GarageSummaryView> garages, int size) {
+        boolean hasNext = garages.size() > size;
+        List<GarageSummaryView> content = hasNext ? garages.subList(0, size) : garages;
+        String nextCursor = hasNext ? GarageCursor.after(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(toDtoList(content), nextCursor, hasNext);
+    }
+
+    /**
+     * Page de garages parmi les identifiants résolus en mémoire, sans requête de
+     * count : seuls les garages de la page sont lus en base.
+     *
+     * @return la page, ou vide si elle ne peut pas être découpée en mémoire
+     */
+    private Optional<Page<GarageDto>> pageInMemory(BitSet garageIds, Pageable pageable) {
+        return pageIds(garageIds, pageable).map(ids ->
+                new PageImpl<>(toDtoList(loadSummaries(ids)), pageable, garageIds.cardinality()));
+    }
+
+    /**
+     * Garages des identifiants donnés, dans le même ordre.
+     */
+    private List<GarageSummaryView> loadSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, GarageSummaryView> garagesById = garageRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(GarageSummaryView::id, Function.identity()));
+        return ids.stream()
+                .map(garagesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Convertit une page de garages en chargeant les horaires de toute la page
+     * en une seule requête, au lieu d'une requête par garage.
+     */
+    private Page<GarageDto> toDtoPage(Page<GarageSummaryView> garages) {
+        Map<Long, List<OpeningTime>> openingHours = loadOpeningHours(idsOf(garages.getContent()));
+        return garages.map(garage -> mapper.toDto(garage,
+                openingHours.getOrDefault(garage.id(), List.of())));
+    }
+
+    private List<GarageDto> toDtoList(List<GarageSummaryView> garages) {
+        Map<Long, List<OpeningTime>> openingHours = loadOpeningHours(idsOf(garages));
+        return garages.stream()
+                .map(garage -> mapper.toDto(garage, openingHours.getOrDefault(garage.id(), List.of())))
+                .toList();
+    }
+
+    private static List<Long> idsOf(List<GarageSummaryView> garages) {
+        return garages.stream().map(GarageSummaryView::id).toList();
+    }
+
+    private Map<Long, List<OpeningTime>> loadOpeningHours(List<Long> garageIds) {
+        if (garageIds.isEmpty()) {
+            return Map.of();
+        }
+        return garageRepository.findOpeningHoursByGarageIds(garageIds).stream()
+                .collect(Collectors.groupingBy(GarageOpeningTimeView::garageId,
+                        Collectors.mapping(view -> new OpeningTime(view.dayOfWeek(), view.startTime(), view.endTime()),
+                                Collectors.toList())));
     }
 }
@@ -1,15 +1,21 @@
 package com.renault.garage.service;
 
+import com.renault.garage.cache.GarageDtoCache;
 import com.renault.garage.dto.VehicleDto;
+import com.renault.garage.entity.Accessory;
 import com.renault.garage.entity.Garage;
 import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.FuelType;
 import com.renault.garage.event.VehicleEventPublisher;
 import com.renault.garage.exception.GarageCapacityExceededException;
 import com.renault.garage.exception.GarageNotFoundException;
 import com.renault.garage.exception.VehicleNotFoundException;
+import com.renault.garage.index.AccessoryGarageIndex;
+import com.renault.garage.index.GarageFuelTypeIndex;
 import com.renault.garage.mapper.VehicleMapper;
 import com.renault.garage.repository.GarageRepository;
 import com.renault.garage.repository.VehicleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -20,12 +26,16 @@ import java.util.List;
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Timed(value = "vehicle.service", histogram = true)
 public class VehicleService {
 
     private final VehicleRepository vehicleRepository;
     private final GarageRepository garageRepository;
     private final VehicleMapper mapper;
     private final VehicleEventPublisher vehicleEventPublisher;
+    private final AccessoryGarageIndex accessoryGarageIndex;
+    private final GarageFuelTypeIndex garageFuelTypeIndex;
+    private final GarageDtoCache garageDtoCache;
 
     @Value("${app.garage.max-vehicles:50}")
     private int maxVehiclesPerGarage;
@@ -34,42 +44,83 @@ public class VehicleService {
         Garage garage = garageRepository.findById(garageId)
                 .orElseThrow(() -> new GarageNotFoundException(garageId));
 
-        long currentVehicleCount = vehicleRepository.countByGarageId(garageId);
-        if (currentVehicleCount >= maxVehiclesPerGarage) {
+        if (garageRepository.reserveVehicleSlots(garageId, 1, maxVehiclesPerGarage) == 0) {
             throw new GarageCapacityExceededException(garageId);
         }
+        garageDtoCache.invalidateAfterCommit(garageId);
 
         Vehicle vehicle = mapper.toEntity(vehicleDto);
         vehicle.setGarage(garage);
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        garageFuelTypeIndex.onVehiclesSaved(List.of(savedVehicle));
         vehicleEventPublisher.publishVehicleCreated(savedVehicle);
         return mapper.toDto(savedVehicle);
     }
 
+    /**
+     * Ajoute un lot de véhicules à un garage. La capacité est réservée une seule
+     * fois pour tout le lot, les insertions sont regroupées en batchs JDBC et les
+     * événements publiés ensemble.
+     */
+    public List<VehicleDto> addVehiclesToGarage(Long garageId, List<VehicleDto> vehicleDtos) {
+        Garage garage = garageRepository.findById(garageId)
+                .orElseThrow(() -> new GarageNotFoundException(garageId));
+
+        if (garageRepository.reserveVehicleSlots(garageId, vehicleDtos.size(), maxVehiclesPerGarage) == 0) {
+            throw new GarageCapacityExceededException("Le garage avec l'id " + garageId
+                    + " ne peut pas accueillir " + vehicleDtos.size()
+                    + " véhicules supplémentaires (capacité maximale de " + maxVehiclesPerGarage + " véhicules)");
+        }
+        garageDtoCache.invalidateAfterCommit(garageId);
+
+        List<Vehicle> vehicles = vehicleDtos.stream()
+                .map(mapper::toEntity)
+                .toList();
+        vehicles.forEach(vehicle -> vehicle.setGarage(garage));
+        List<Vehicle> savedVehicles = vehicleRepository.saveAll(vehicles);
+        garageFuelTypeIndex.onVehiclesSaved(savedVehicles);
+        vehicleEventPublisher.publishVehiclesCreated(savedVehicles);
+        return mapper.toDtoList(savedVehicles);
+    }
+
+    /**
+     * Véhicules lus en projection avec le nom de leur garage, sans charger
+     * d'entité.
+     */
     @Transactional(readOnly = true)
     public List<VehicleDto> getVehiclesByGarage(Long garageId) {
         if (!garageRepository.existsById(garageId)) {
             throw new GarageNotFoundException(garageId);
         }
-        return mapper.toDtoList(vehicleRepository.findByGarageId(garageId));
+        return mapper.toDtoListFromViews(vehicleRepository.findByGarageId(garageId));
     }
 
     @Transactional(readOnly = true)
     public List<VehicleDto> getVehiclesByModel(String model) {
-        return mapper.toDtoList(vehicleRepository.findByModel(model));
+        return mapper.toDtoListFromViews(vehicleRepository.findByModel(model));
     }
 
     public VehicleDto updateVehicle(Long id, VehicleDto vehicleDto) {
-        Vehicle existingVehicle = vehicleRepository.findById(id)
+        Vehicle existingVehicle = vehicleRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new VehicleNotFoundException(id));
+        FuelType previousFuelType = existingVehicle.getFuelType();
         mapper.updateFromDto(vehicleDto, existingVehicle);
-        return mapper.toDto(vehicleRepository.save(existingVehicle));
+        Vehicle updatedVehicle = vehicleRepository.save(existingVehicle);
+        garageFuelTypeIndex.onVehicleUpdated(updatedVehicle, previousFuelType);
+        return mapper.toDto(updatedVehicle);
     }
 
     public void deleteVehicle(Long id) {
-        if (!vehicleRepository.existsById(id)) {
-            throw new VehicleNotFoundException(id);
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new VehicleNotFoundException(id));
+        List<Long> accessoryIds = vehicle.getAccessories().stream().map(Accessory::getId).toList();
+        vehicleRepository.delete(vehicle);
+        accessoryGarageIndex.onAccessoriesDeleted(accessoryIds);
+        if (vehicle.getGarage() != null) {
+            garageRepository.decrementVehicleCount(vehicle.getGarage().getId());
+            garageDtoCache.invalidateAfterCommit(vehicle.getGarage().getId());
+            garageFuelTypeIndex.onVehicleDeleted(vehicle.getId(), vehicle.getGarage().getId(),
+                    vehicle.getFuelType());
         }
-        vehicleRepository.deleteById(id);
     }
 }
@@ -0,0 +1,71 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Format binaire d'un snapshot complet du réseau de garages.
+ * <p>
+ * Format (version 2) : les octets {@code RGSN}, un octet de version, puis une
+ * suite d'enregistrements préfixés par un octet de type et terminée par
+ * {@link #END}. Les enregistrements sont écrits par table, dans l'ordre des clés
+ * étrangères : garages, horaires, véhicules puis accessoires.
+ * <ul>
+ * <li>garage : id, name, address, city, telephone, email, vehicleCount, puis un
+ * octet de présence des coordonnées (0 ou 1) suivi le cas échéant de la latitude
+ * et de la longitude (doubles IEEE 754) ;</li>
+ * <li>horaire : garageId, jour (octet, 1 = lundi), début et fin ;</li>
+ * <li>véhicule : id, garageId, brand, model, manufacturingYear, fuelType (octet, ordinal) ;</li>
+ * <li>accessoire : id, vehicleId, name, description, price, type (octet, ordinal).</li>
+ * </ul>
+ * Les entiers sont encodés en zigzag + varint. Les identifiants des
+ * enregistrements sont écrits en delta du précédent de la même table (exportés
+ * par id croissant, ils tiennent le plus souvent sur un octet). Les chaînes sont
+ * écrites en longueur + 1 (0 pour null) puis UTF-8, les clés étrangères et les
+ * heures (microsecondes du jour) décalées de 1 pour représenter null par 0, les
+ * prix en échelle puis valeur non mise à l'échelle (octets signés).
+ * <p>
+ * Les ordinaux de {@link FuelType} et {@link AccessoryType} font partie du
+ * format : l'ordre existant ne doit pas changer sans incrémenter la version.
+ * Les snapshots de version 1, sans coordonnées, restent lisibles.
+ */
+public final class GarageSnapshot {
+
+    static final byte[] MAGIC = {'R', 'G', 'S', 'N'};
+    static final byte VERSION = 2;
+    static final byte VERSION_WITHOUT_COORDINATES = 1;
+
+    static final int END = 0;
+    static final int GARAGE = 1;
+    static final int OPENING_TIME = 2;
+    static final int VEHICLE = 3;
+    static final int ACCESSORY = 4;
+
+    private GarageSnapshot() {
+    }
+
+    public record GarageRow(long id, String name, String address, String city, String telephone, String email,
+            int vehicleCount, Double latitude, Double longitude) {
+    }
+
+    public record OpeningTimeRow(long garageId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+    }
+
+    public record VehicleRow(long id, Long garageId, String brand, String model, int manufacturingYear,
+            FuelType fuelType) {
+    }
+
+    public record AccessoryRow(long id, Long vehicleId, String name, String description, BigDecimal price,
+            AccessoryType type) {
+    }
+
+    /**
+     * Nombre d'enregistrements d'un snapshot, par table.
+     */
+    public record Counts(long garages, long openingTimes, long vehicles, long accessories) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.snapshot.GarageSnapshot.AccessoryRow;
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import com.renault.garage.snapshot.GarageSnapshot.GarageRow;
+import com.renault.garage.snapshot.GarageSnapshot.OpeningTimeRow;
+import com.renault.garage.snapshot.GarageSnapshot.VehicleRow;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Lecture en flux d'un snapshot (voir {@link GarageSnapshot} pour le format) :
+ * chaque enregistrement est transmis au {@link Handler} dans l'ordre du flux.
+ */
+public class GarageSnapshotReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+    private static final AccessoryType[] ACCESSORY_TYPES = AccessoryType.values();
+
+    private final DataInputStream in;
+
+    public GarageSnapshotReader(InputStream input) {
+        this.in = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+    }
+
+    /**
+     * Lit le snapshot jusqu'à son dernier enregistrement.
+     *
+     * @return le nombre d'enregistrements lus
+     * @throws IOException si le flux n'est pas un snapshot valide ou est tronqué
+     */
+    public Counts read(Handler handler) throws IOException {
+        try {
+            boolean coordinates = readHeader() != GarageSnapshot.VERSION_WITHOUT_COORDINATES;
+            long garageId = 0;
+            long vehicleId = 0;
+            long accessoryId = 0;
+            long garages = 0;
+            long openingTimes = 0;
+            long vehicles = 0;
+            long accessories = 0;
+            while (true) {
+                int type = in.readUnsignedByte();
+                switch (type) {
+                    case GarageSnapshot.END -> {
+                        return new Counts(garages, openingTimes, vehicles, accessories);
+                    }
+                    case GarageSnapshot.GARAGE -> {
+                        garageId += readVarLong();
+                        handler.onGarage(readGarage(garageId, coordinates));
+                        garages++;
+                    }
+                    case GarageSnapshot.OPENING_TIME -> {
+                        handler.onOpeningTime(new OpeningTimeRow(readVarLong(), readDayOfWeek(), readTime(),
+                                readTime()));
+                        openingTimes++;
+                    }
+                    case GarageSnapshot.VEHICLE -> {
+                        vehicleId += readVarLong();
+                        handler.onVehicle(new VehicleRow(vehicleId, readReference(), readString(), readString(),
+                                (int) readVarLong(), readOrdinal(FUEL_TYPES)));
+                        vehicles++;
+                    }
+                    case GarageSnapshot.ACCESSORY -> {
+                        accessoryId += readVarLong();
+                        handler.onAccessory(new AccessoryRow(accessoryId, readReference(), readString(),
+                                readString(), readDecimal(), readOrdinal(ACCESSORY_TYPES)));
+                        accessories++;
+                    }
+                    default -> throw new IOException("Type d'enregistrement de snapshot inconnu: " + type);
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Snapshot tronqué", e);
+        }
+    }
+
+    /**
+     * @return la version du snapshot
+     */
+    private byte readHeader() throws IOException {
+        byte[] magic = new byte[GarageSnapshot.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, GarageSnapshot.MAGIC)) {
+            throw new IOException("Le flux n'est pas un snapshot de garages");
+        }
+        byte version = in.readByte();
+        if (version != GarageSnapshot.VERSION && version != GarageSnapshot.VERSION_WITHOUT_COORDINATES) {
+            throw new IOException("Version de snapshot non supportée: " + version);
+        }
+        return version;
+    }
+
+    private GarageRow readGarage(long id, boolean coordinates) throws IOException {
+        String name = readString();
+        String address = readString();
+        String city = readString();
+        String telephone = readString();
+        String email = readString();
+        int vehicleCount = (int) readVarLong();
+        if (!coordinates || in.readUnsignedByte() == 0) {
+            return new GarageRow(id, name, address, city, telephone, email, vehicleCount, null, null);
+        }
+        return new GarageRow(id, name, address, city, telephone, email, vehicleCount, in.readDouble(),
+                in.readDouble());
+    }
+
+    private DayOfWeek readDayOfWeek() throws IOException {
+        int day = in.readUnsignedByte();
+        if (day > DayOfWeek.values().length) {
+            throw new IOException("Jour de snapshot invalide: " + day);
+        }
+        return day == 0 ? null : DayOfWeek.of(day);
+    }
+
+    private <E extends Enum<E>> E readOrdinal(E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= values.length) {
+            throw new IOException("Ordinal de snapshot invalide: " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    private Long readReference() throws IOException {
+        long value = readVarLong();
+        return value == 0 ? null : value - 1;
+    }
+
+    private LocalTime readTime() throws IOException {
+        long value = readVarLong();
+        return value == 0 ? null : LocalTime.ofNanoOfDay((value - 1) * 1_000);
+    }
+
+    private BigDecimal readDecimal() throws IOException {
+        int scale = (int) readVarLong();
+        byte[] unscaled = new byte[readLength(readVarLong())];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private String readString() throws IOException {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[readLength(length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Longueur de snapshot invalide: " + length);
+        }
+        return (int) length;
+    }
+
+    private long readVarLong() throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new IOException("Varint trop long");
+            }
+            b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Reçoit les enregistrements d'un snapshot.
+     */
+    public interface Handler {
+
+        void onGarage(GarageRow garage) throws IOException;
+
+        void onOpeningTime(OpeningTimeRow openingTime) throws IOException;
+
+        void onVehicle(VehicleRow vehicle) throws IOException;
+
+        void onAccessory(AccessoryRow accessory) throws IOException;
+    }
+}
@@ -0,0 +1,229 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.snapshot.GarageSnapshot.AccessoryRow;
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import com.renault.garage.snapshot.GarageSnapshot.GarageRow;
+import com.renault.garage.snapshot.GarageSnapshot.OpeningTimeRow;
+import com.renault.garage.snapshot.GarageSnapshot.VehicleRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Export et import d'un snapshot binaire complet du réseau de garages
+ * (garages et horaires, véhicules, accessoires), en JDBC direct.
+ * <p>
+ * L'export lit chaque table par id croissant dans une même transaction en
+ * lecture répétable et écrit les lignes au fil de l'eau. L'import, destiné au
+ * démarrage d'une base vide, insère les lignes par lots d'INSERT multi-lignes
+ * puis repositionne les séquences au-delà des identifiants importés.
+ * <p>
+ * L'import n'est pas transactionnel : chaque instruction est validée
+ * séparément, une transaction unique d'un million de lignes étant plusieurs
+ * fois plus lente sous H2. Un import en échec laisse une base partiellement
+ * chargée et doit faire échouer le démarrage.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GarageSnapshotService {
+
+    static final int ROWS_PER_INSERT = 100;
+    static final int INSERTS_PER_BATCH = 10;
+
+    private static final String[] SEQUENCES = {"garages_seq", "vehicles_seq", "accessories_seq"};
+    private static final String[] SEQUENCE_TABLES = {"garages", "vehicles", "accessories"};
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Écrit le snapshot de toute la base dans le flux, sans le fermer.
+     *
+     * @return le nombre d'enregistrements exportés
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Counts exportSnapshot(OutputStream output) throws IOException {
+        GarageSnapshotWriter writer = new GarageSnapshotWriter(output);
+        export("SELECT id, name, address, city, telephone, email, vehicle_count, latitude, longitude "
+                        + "FROM garages ORDER BY id",
+                rs -> writer.writeGarage(new GarageRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getString(5), rs.getString(6), rs.getInt(7),
+                        rs.getObject(8, Double.class), rs.getObject(9, Double.class))));
+        export("SELECT garage_id, day_of_week, start_time, end_time FROM garage_opening_hours ORDER BY garage_id",
+                rs -> writer.writeOpeningTime(new OpeningTimeRow(rs.getLong(1),
+                        rs.getString(2) == null ? null : DayOfWeek.valueOf(rs.getString(2)),
+                        rs.getObject(3, LocalTime.class), rs.getObject(4, LocalTime.class))));
+        export("SELECT id, garage_id, brand, model, manufacturing_year, fuel_type FROM vehicles ORDER BY id",
+                rs -> writer.writeVehicle(new VehicleRow(rs.getLong(1), rs.getObject(2, Long.class),
+                        rs.getString(3), rs.getString(4), rs.getInt(5), FuelType.valueOf(rs.getString(6)))));
+        export("SELECT id, vehicle_id, name, description, price, type FROM accessories ORDER BY id",
+                rs -> writer.writeAccessory(new AccessoryRow(rs.getLong(1), rs.getObject(2, Long.class),
+                        rs.getString(3), rs.getString(4), rs.getBigDecimal(5),
+                        AccessoryType.valueOf(rs.getString(6)))));
+        return writer.finish();
+    }
+
+    /**
+     * Charge un snapshot dans une base vide.
+     *
+     * @return le nombre d'enregistrements importés
+     * @throws IllegalStateException si la base contient déjà des garages ou des véhicules
+     */
+    public Counts importSnapshot(InputStream input) throws IOException {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM garages) + (SELECT COUNT(*) FROM vehicles)", Integer.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Import de snapshot impossible : la base n'est pas vide");
+        }
+
+        Loader loader = new Loader();
+        Counts counts = new GarageSnapshotReader(input).read(loader);
+        loader.flush();
+        restartSequences();
+        return counts;
+    }
+
+    private void export(String sql, RowWriter rowWriter) throws IOException {
+        try {
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Avance chaque séquence pour que le prochain bloc alloué par Hibernate
+     * (allocationSize 50) commence après le plus grand id importé. Une séquence
+     * n'est jamais reculée : les blocs déjà alloués restent valides.
+     */
+    private void restartSequences() {
+        for (int i = 0; i < SEQUENCES.length; i++) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + SEQUENCE_TABLES[i], Long.class);
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCES[i], Long.class);
+            if (maxId != null && next != null && maxId + SEQUENCE_INCREMENT > next) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCES[i] + " RESTART WITH "
+                        + (maxId + SEQUENCE_INCREMENT));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Accumule les lignes d'une table et les insère par lots d'INSERT de
+     * {@value #ROWS_PER_INSERT} lignes. Les tables se suivent dans le snapshot :
+     * le lot en cours est inséré dès que la table change.
+     */
+    private final class Loader implements GarageSnapshotReader.Handler {
+
+        private static final String INSERT_GARAGE = "INSERT INTO garages "
+                + "(id, name, address, city, telephone, email, vehicle_count, latitude, longitude) VALUES ";
+        private static final String INSERT_OPENING_TIME = "INSERT INTO garage_opening_hours "
+                + "(garage_id, day_of_week, start_time, end_time) VALUES ";
+        private static final String INSERT_VEHICLE = "INSERT INTO vehicles "
+                + "(id, garage_id, brand, model, manufacturing_year, fuel_type) VALUES ";
+        private static final String INSERT_ACCESSORY = "INSERT INTO accessories "
+                + "(id, vehicle_id, name, description, price, type) VALUES ";
+
+        private final List<Object[]> rows = new ArrayList<>(ROWS_PER_INSERT * INSERTS_PER_BATCH);
+        private String insert;
+
+        @Override
+        public void onGarage(GarageRow garage) {
+            add(INSERT_GARAGE, new Object[] {garage.id(), garage.name(), garage.address(), garage.city(),
+                    garage.telephone(), garage.email(), garage.vehicleCount(), garage.latitude(),
+                    garage.longitude()});
+        }
+
+        @Override
+        public void onOpeningTime(OpeningTimeRow openingTime) {
+            add(INSERT_OPENING_TIME, new Object[] {openingTime.garageId(),
+                    openingTime.dayOfWeek() == null ? null : openingTime.dayOfWeek().name(),
+                    openingTime.startTime(), openingTime.endTime()});
+        }
+
+        @Override
+        public void onVehicle(VehicleRow vehicle) {
+            add(INSERT_VEHICLE, new Object[] {vehicle.id(), vehicle.garageId(), vehicle.brand(), vehicle.model(),
+                    vehicle.manufacturingYear(), vehicle.fuelType().name()});
+        }
+
+        @Override
+        public void onAccessory(AccessoryRow accessory) {
+            add(INSERT_ACCESSORY, new Object[] {accessory.id(), accessory.vehicleId(), accessory.name(),
+                    accessory.description(), accessory.price(), accessory.type().name()});
+        }
+
+        private void add(String table, Object[] row) {
+            if (!table.equals(insert)) {
+                flush();
+                insert = table;
+            }
+            rows.add(row);
+            if (rows.size() == ROWS_PER_INSERT * INSERTS_PER_BATCH) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            int columns = rows.get(0).length;
+            int fullInserts = rows.size() / ROWS_PER_INSERT;
+            List<Object[]> batch = new ArrayList<>(fullInserts);
+            for (int i = 0; i < fullInserts; i++) {
+                batch.add(parameters(rows.subList(i * ROWS_PER_INSERT, (i + 1) * ROWS_PER_INSERT), columns));
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql(ROWS_PER_INSERT, columns), batch);
+            }
+            List<Object[]> remaining = rows.subList(fullInserts * ROWS_PER_INSERT, rows.size());
+            if (!remaining.isEmpty()) {
+                jdbcTemplate.update(sql(remaining.size(), columns), parameters(remaining, columns));
+            }
+            rows.clear();
+        }
+
+        private String sql(int rowCount, int columns) {
+            String tuple = "(?" + ", ?".repeat(columns - 1) + ")";
+            return insert + String.join(", ", Collections.nCopies(rowCount, tuple));
+        }
+
+        private static Object[] parameters(List<Object[]> rows, int columns) {
+            Object[] parameters = new Object[rows.size() * columns];
+            for (int i = 0; i < rows.size(); i++) {
+                System.arraycopy(rows.get(i), 0, parameters, i * columns, columns);
+            }
+            return parameters;
+        }
+    }
+}
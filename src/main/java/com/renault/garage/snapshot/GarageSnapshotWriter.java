@@ -0,0 +1,138 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.snapshot.GarageSnapshot.AccessoryRow;
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import com.renault.garage.snapshot.GarageSnapshot.GarageRow;
+import com.renault.garage.snapshot.GarageSnapshot.OpeningTimeRow;
+import com.renault.garage.snapshot.GarageSnapshot.VehicleRow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+
+/**
+ * Écriture en flux d'un snapshot (voir {@link GarageSnapshot} pour le format).
+ * Les enregistrements doivent être écrits table par table, dans l'ordre des
+ * clés étrangères, puis le snapshot terminé par {@link #finish()}.
+ */
+public class GarageSnapshotWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private long previousGarageId;
+    private long previousVehicleId;
+    private long previousAccessoryId;
+    private long garages;
+    private long openingTimes;
+    private long vehicles;
+    private long accessories;
+
+    public GarageSnapshotWriter(OutputStream output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        out.write(GarageSnapshot.MAGIC);
+        out.writeByte(GarageSnapshot.VERSION);
+    }
+
+    public void writeGarage(GarageRow garage) throws IOException {
+        out.writeByte(GarageSnapshot.GARAGE);
+        writeVarLong(garage.id() - previousGarageId);
+        previousGarageId = garage.id();
+        writeString(garage.name());
+        writeString(garage.address());
+        writeString(garage.city());
+        writeString(garage.telephone());
+        writeString(garage.email());
+        writeVarLong(garage.vehicleCount());
+        if (garage.latitude() == null || garage.longitude() == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            out.writeDouble(garage.latitude());
+            out.writeDouble(garage.longitude());
+        }
+        garages++;
+    }
+
+    public void writeOpeningTime(OpeningTimeRow openingTime) throws IOException {
+        out.writeByte(GarageSnapshot.OPENING_TIME);
+        writeVarLong(openingTime.garageId());
+        out.writeByte(openingTime.dayOfWeek() == null ? 0 : openingTime.dayOfWeek().getValue());
+        writeTime(openingTime.startTime());
+        writeTime(openingTime.endTime());
+        openingTimes++;
+    }
+
+    public void writeVehicle(VehicleRow vehicle) throws IOException {
+        out.writeByte(GarageSnapshot.VEHICLE);
+        writeVarLong(vehicle.id() - previousVehicleId);
+        previousVehicleId = vehicle.id();
+        writeReference(vehicle.garageId());
+        writeString(vehicle.brand());
+        writeString(vehicle.model());
+        writeVarLong(vehicle.manufacturingYear());
+        out.writeByte(vehicle.fuelType().ordinal());
+        vehicles++;
+    }
+
+    public void writeAccessory(AccessoryRow accessory) throws IOException {
+        out.writeByte(GarageSnapshot.ACCESSORY);
+        writeVarLong(accessory.id() - previousAccessoryId);
+        previousAccessoryId = accessory.id();
+        writeReference(accessory.vehicleId());
+        writeString(accessory.name());
+        writeString(accessory.description());
+        writeDecimal(accessory.price());
+        out.writeByte(accessory.type().ordinal());
+        accessories++;
+    }
+
+    /**
+     * Termine le snapshot et vide le tampon, sans fermer le flux sous-jacent.
+     *
+     * @return le nombre d'enregistrements écrits
+     */
+    public Counts finish() throws IOException {
+        out.writeByte(GarageSnapshot.END);
+        out.flush();
+        return new Counts(garages, openingTimes, vehicles, accessories);
+    }
+
+    private void writeReference(Long id) throws IOException {
+        writeVarLong(id == null ? 0 : id + 1);
+    }
+
+    private void writeTime(LocalTime time) throws IOException {
+        writeVarLong(time == null ? 0 : time.toNanoOfDay() / 1_000 + 1);
+    }
+
+    private void writeDecimal(BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(value.scale());
+        writeVarLong(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+}
@@ -0,0 +1,46 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Charge au démarrage le snapshot désigné par {@code app.snapshot.import-path}.
+ * <p>
+ * Exécuté avant l'événement {@code ApplicationReadyEvent} : les index en
+ * mémoire sont construits sur les données importées et l'application n'est
+ * prête qu'une fois l'import terminé. Un échec de l'import fait échouer le démarrage.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnapshotImportRunner implements ApplicationRunner {
+
+    private final GarageSnapshotService garageSnapshotService;
+
+    @Value("${app.snapshot.import-path:}")
+    private String importPath;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (importPath.isBlank()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (InputStream input = Files.newInputStream(Path.of(importPath))) {
+            Counts counts = garageSnapshotService.importSnapshot(input);
+            log.info("Snapshot {} importé en {} ms: {} garages, {} horaires, {} véhicules, {} accessoires",
+                    importPath, (System.nanoTime() - start) / 1_000_000, counts.garages(), counts.openingTimes(),
+                    counts.vehicles(), counts.accessories());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+-- Schéma initial du service de gestion des garages.
+-- Les index couvrent les recherches des repositories (voir RepositoryQueryPlanTest).
+
+create sequence garages_seq start with 1 increment by 50;
+create sequence vehicles_seq start with 1 increment by 50;
+create sequence accessories_seq start with 1 increment by 50;
+create sequence outbox_events_seq start with 1 increment by 50;
+
+create table garages (
+    id bigint not null,
+    name varchar(255) not null,
+    address varchar(255) not null,
+    city varchar(255),
+    telephone varchar(255) not null,
+    email varchar(255) not null,
+    vehicle_count integer not null,
+    constraint pk_garages primary key (id)
+);
+
+create table garage_opening_hours (
+    garage_id bigint not null,
+    day_of_week varchar(255) check (day_of_week in ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY')),
+    start_time time(6),
+    end_time time(6)
+);
+
+create table vehicles (
+    id bigint not null,
+    brand varchar(255) not null,
+    model varchar(255) not null,
+    manufacturing_year integer not null check (manufacturing_year >= 1900),
+    fuel_type varchar(255) not null check (fuel_type in ('ESSENCE','DIESEL','ELECTRIC','HYBRID')),
+    garage_id bigint,
+    constraint pk_vehicles primary key (id)
+);
+
+create table accessories (
+    id bigint not null,
+    name varchar(255) not null,
+    description varchar(255),
+    price numeric(38,2) not null,
+    type varchar(255) not null check (type in ('INTERIOR','EXTERIOR','ELECTRONIC','SAFETY','COMFORT','PERFORMANCE')),
+    vehicle_id bigint,
+    constraint pk_accessories primary key (id)
+);
+
+create table outbox_events (
+    id bigint not null,
+    topic varchar(255) not null,
+    event_key varchar(255),
+    payload varchar(4000) not null,
+    created_at timestamp(6) not null,
+    published_at timestamp(6),
+    attempts integer not null,
+    last_error varchar(1000),
+    constraint pk_outbox_events primary key (id)
+);
+
+-- Garages : recherche par ville, tri et parcours par curseur (name, id)
+create index idx_garages_city on garages (city);
+create index idx_garages_name_id on garages (name, id);
+
+-- Horaires chargés par lot de garages
+create index idx_garage_opening_hours_garage on garage_opening_hours (garage_id);
+
+-- Véhicules : par garage (et carburant pour la semi-jointure), modèle, marque/modèle, carburant
+create index idx_vehicles_garage_fuel_type on vehicles (garage_id, fuel_type);
+create index idx_vehicles_model on vehicles (model);
+create index idx_vehicles_brand_model on vehicles (brand, model);
+create index idx_vehicles_fuel_type on vehicles (fuel_type);
+
+-- Accessoires : par véhicule, nom, type
+create index idx_accessories_vehicle on accessories (vehicle_id);
+create index idx_accessories_name on accessories (name);
+create index idx_accessories_type on accessories (type);
+
+-- Outbox : événements en attente et purge des événements publiés
+create index idx_outbox_events_published_at on outbox_events (published_at);
+
+-- Clés étrangères, déclarées après les index qui les couvrent
+alter table garage_opening_hours
+    add constraint fk_garage_opening_hours_garage foreign key (garage_id) references garages (id);
+alter table vehicles
+    add constraint fk_vehicles_garage foreign key (garage_id) references garages (id);
+alter table accessories
+    add constraint fk_accessories_vehicle foreign key (vehicle_id) references vehicles (id);
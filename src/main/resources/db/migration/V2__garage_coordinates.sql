@@ -0,0 +1,4 @@
+-- Coordonnées des garages (WGS 84, degrés décimaux), pour la recherche des
+-- garages les plus proches. Les garages existants restent sans coordonnées.
+alter table garages add column latitude double precision;
+alter table garages add column longitude double precision;
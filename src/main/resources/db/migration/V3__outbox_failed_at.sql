@@ -0,0 +1,3 @@
+-- Événements de l'outbox écartés après un échec définitif ou trop de tentatives :
+-- ils ne sont plus relayés et restent en base pour analyse.
+alter table outbox_events add column failed_at timestamp(6);
@@ -0,0 +1,214 @@
+package com.renault.garage.benchmark;
+
+import com.renault.garage.RenaultGarageApplication;
+import com.renault.garage.dto.GarageDto;
+import com.renault.garage.dto.VehicleDto;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.index.GarageScheduleIndex;
+import com.renault.garage.index.InMemoryIndex;
+import com.renault.garage.mapper.GarageMapper;
+import com.renault.garage.mapper.VehicleMapper;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.VehicleRepository;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import com.renault.garage.service.GarageService;
+import com.renault.garage.service.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks JMH des chemins critiques des services sur une base H2 peuplée
+ * (profil test, Kafka désactivé). Les méthodes suffixées {@code FromEntities}
+ * lisent les mêmes données en entités gérées puis les convertissent, comme les
+ * services avant les projections : elles servent de référence pour la latence
+ * et l'allocation par opération ({@code gc.alloc.rate.norm}). Exécution :
+ * {@code mvn test -Pjmh -Djmh.args="GarageServiceBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GarageServiceBenchmark {
+
+    private static final long FIRST_ID = 10_000_000L;
+    private static final int VEHICLES_PER_GARAGE = 10;
+    private static final List<String> CITIES = List.of("Casablanca", "Rabat", "Marrakech", "Fès", "Tanger");
+    private static final List<String> MODELS = List.of("Clio", "Megane", "Captur", "Austral", "Zoe");
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("name"));
+
+    @Param({"10000"})
+    private int garages;
+
+    private ConfigurableApplicationContext context;
+    private GarageService garageService;
+    private VehicleService vehicleService;
+    private GarageRepository garageRepository;
+    private VehicleRepository vehicleRepository;
+    private GarageMapper garageMapper;
+    private VehicleMapper vehicleMapper;
+    private GarageScheduleIndex garageScheduleIndex;
+    private TransactionTemplate readOnly;
+    private long nextGarage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RenaultGarageApplication.class)
+                .profiles("test")
+                .properties("app.garage.max-vehicles=1000000", "logging.level.root=WARN")
+                .run();
+        garageService = context.getBean(GarageService.class);
+        vehicleService = context.getBean(VehicleService.class);
+        garageRepository = context.getBean(GarageRepository.class);
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        garageMapper = context.getBean(GarageMapper.class);
+        vehicleMapper = context.getBean(VehicleMapper.class);
+        garageScheduleIndex = context.getBean(GarageScheduleIndex.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBeansOfType(InMemoryIndex.class).values().forEach(InMemoryIndex::rebuild);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<GarageDto> getAllGarages() {
+        return garageService.getAllGarages(FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<GarageDto> getAllGaragesFromEntities() {
+        return readOnly.execute(status -> {
+            Page<Garage> page = garageRepository.findAll(FIRST_PAGE);
+            Map<Long, List<OpeningTime>> openingHours = garageRepository.findOpeningHoursByGarageIds(
+                    page.map(Garage::getId).getContent()).stream()
+                    .collect(Collectors.groupingBy(GarageOpeningTimeView::garageId,
+                            Collectors.mapping(view -> new OpeningTime(view.dayOfWeek(), view.startTime(),
+                                    view.endTime()), Collectors.toList())));
+            return page.map(garage -> garageMapper.toDto(garage,
+                    openingHours.getOrDefault(garage.getId(), List.of())));
+        });
+    }
+
+    @Benchmark
+    public List<VehicleDto> getVehiclesByGarage() {
+        return vehicleService.getVehiclesByGarage(FIRST_ID + nextGarage++ % garages);
+    }
+
+    @Benchmark
+    public List<VehicleDto> getVehiclesByGarageFromEntities() {
+        long garageId = FIRST_ID + nextGarage++ % garages;
+        return readOnly.execute(status -> {
+            if (!garageRepository.existsById(garageId)) {
+                throw new IllegalStateException("Garage absent : " + garageId);
+            }
+            return vehicleMapper.toDtoList(vehicleRepository.findByGarageIdIn(List.of(garageId)));
+        });
+    }
+
+    @Benchmark
+    public Page<GarageDto> searchGaragesByName() {
+        return garageService.searchGaragesByName("rabat 12", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<GarageDto> getGaragesByVehicleFuelType() {
+        return garageService.getGaragesByVehicleFuelType(FuelType.ELECTRIC, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<GarageDto> getGaragesByAccessoryName() {
+        return garageService.getGaragesByAccessoryName("GPS", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<GarageDto> getOpenGarages() {
+        return garageService.getOpenGarages(DayOfWeek.MONDAY, LocalTime.of(10, 30), 1, FIRST_PAGE);
+    }
+
+    /**
+     * Parcours des horaires compactés seul, sans lecture de la page en base.
+     */
+    @Benchmark
+    public Optional<BitSet> findOpenGarageIds() {
+        return garageScheduleIndex.findOpenGarageIds(DayOfWeek.MONDAY, LocalTime.of(10, 30), 1);
+    }
+
+    @Benchmark
+    public VehicleDto addVehicleToGarage() {
+        long garageId = FIRST_ID + nextGarage++ % garages;
+        VehicleDto dto = new VehicleDto();
+        dto.setBrand("Renault");
+        dto.setModel("Clio");
+        dto.setAnneeFabrication(2024);
+        dto.setTypeCarburant(FuelType.HYBRID);
+        return vehicleService.addVehicleToGarage(garageId, dto);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> garageRows = new ArrayList<>(garages);
+        List<Object[]> openingHours = new ArrayList<>(garages * 2);
+        List<Object[]> vehicles = new ArrayList<>(garages * VEHICLES_PER_GARAGE);
+        List<Object[]> accessories = new ArrayList<>(garages);
+        for (int i = 0; i < garages; i++) {
+            long garageId = FIRST_ID + i;
+            String city = CITIES.get(i % CITIES.size());
+            garageRows.add(new Object[] {garageId, "Renault " + city + " " + i, "Adresse " + i, city,
+                    "0522000000", "garage" + i + "@renault.ma", VEHICLES_PER_GARAGE});
+            openingHours.add(new Object[] {garageId, "MONDAY", "08:00", "12:00"});
+            openingHours.add(new Object[] {garageId, "MONDAY", "14:00", "18:00"});
+            for (int v = 0; v < VEHICLES_PER_GARAGE; v++) {
+                long vehicleId = FIRST_ID + (long) i * VEHICLES_PER_GARAGE + v;
+                vehicles.add(new Object[] {vehicleId, garageId, "Renault", MODELS.get(v % MODELS.size()), 2020,
+                        FuelType.values()[(i + v) % FuelType.values().length].name()});
+            }
+            accessories.add(new Object[] {FIRST_ID + i, FIRST_ID + (long) i * VEHICLES_PER_GARAGE,
+                    i % 2 == 0 ? "GPS" : "Attelage", "Accessoire", "499.90", "ELECTRONIC"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO garages (id, name, address, city, telephone, email, vehicle_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", garageRows);
+        jdbcTemplate.batchUpdate("INSERT INTO garage_opening_hours (garage_id, day_of_week, start_time, end_time) "
+                + "VALUES (?, ?, ?, ?)", openingHours);
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (id, garage_id, brand, model, manufacturing_year, fuel_type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", vehicles);
+        jdbcTemplate.batchUpdate("INSERT INTO accessories (id, vehicle_id, name, description, price, type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", accessories);
+    }
+}
@@ -0,0 +1,129 @@
+package com.renault.garage.benchmark;
+
+import com.renault.garage.dto.AccessoryDto;
+import com.renault.garage.dto.GarageDto;
+import com.renault.garage.dto.OpeningTimeDto;
+import com.renault.garage.dto.VehicleDto;
+import com.renault.garage.entity.Accessory;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.mapper.AccessoryMapper;
+import com.renault.garage.mapper.GarageMapper;
+import com.renault.garage.mapper.VehicleMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks JMH des mappers MapStruct et du regroupement des horaires
+ * par jour. Exécution : {@code mvn test -Pjmh -Djmh.args="MapperBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final List<String> MODELS = List.of("Clio", "Megane", "Captur", "Austral", "Zoe");
+
+    @Param({"100"})
+    private int size;
+
+    private final GarageMapper garageMapper = Mappers.getMapper(GarageMapper.class);
+    private final VehicleMapper vehicleMapper = Mappers.getMapper(VehicleMapper.class);
+    private final AccessoryMapper accessoryMapper = Mappers.getMapper(AccessoryMapper.class);
+
+    private Garage garage;
+    private List<Garage> garages;
+    private List<Vehicle> vehicles;
+    private List<Accessory> accessories;
+    private Map<DayOfWeek, List<OpeningTime>> openingHoursMap;
+
+    @Setup
+    public void setUp() {
+        garages = new ArrayList<>(size);
+        vehicles = new ArrayList<>(size);
+        accessories = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Garage g = new Garage("Garage Renault " + i, "Adresse " + i, "0522000000", "garage" + i + "@renault.ma");
+            g.setId((long) i);
+            g.setCity("Casablanca");
+            for (DayOfWeek day : DayOfWeek.values()) {
+                g.getOpeningHours().add(new OpeningTime(day, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+                g.getOpeningHours().add(new OpeningTime(day, LocalTime.of(14, 0), LocalTime.of(18, 0)));
+            }
+            garages.add(g);
+
+            Vehicle vehicle = new Vehicle("Renault", MODELS.get(i % MODELS.size()), 2020 + i % 5,
+                    FuelType.values()[i % FuelType.values().length]);
+            vehicle.setId((long) i);
+            vehicle.setGarage(g);
+            vehicles.add(vehicle);
+
+            Accessory accessory = new Accessory("GPS", "Navigation connectée", new BigDecimal("499.90"),
+                    AccessoryType.ELECTRONIC);
+            accessory.setId((long) i);
+            accessory.setVehicle(vehicle);
+            accessories.add(accessory);
+        }
+        garage = garages.get(0);
+        openingHoursMap = garage.getOpeningHoursMap();
+    }
+
+    @Benchmark
+    public GarageDto garageToDto() {
+        return garageMapper.toDto(garage);
+    }
+
+    @Benchmark
+    public List<GarageDto> garageToDtoList() {
+        return garageMapper.toDtoList(garages);
+    }
+
+    @Benchmark
+    public Map<DayOfWeek, List<OpeningTimeDto>> toOpeningHoursDtoMap() {
+        return garageMapper.toOpeningHoursDtoMap(openingHoursMap);
+    }
+
+    @Benchmark
+    public Map<DayOfWeek, List<OpeningTime>> garageGetOpeningHoursMap() {
+        return garage.getOpeningHoursMap();
+    }
+
+    @Benchmark
+    public List<VehicleDto> vehicleToDtoList() {
+        return vehicleMapper.toDtoList(vehicles);
+    }
+
+    @Benchmark
+    public AccessoryDto accessoryToDto() {
+        return accessoryMapper.toDto(accessories.get(0));
+    }
+
+    @Benchmark
+    public List<AccessoryDto> accessoryToDtoList() {
+        return accessoryMapper.toDtoList(accessories);
+    }
+}
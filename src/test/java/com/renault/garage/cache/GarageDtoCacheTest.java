@@ -0,0 +1,69 @@
+package com.renault.garage.cache;
+
+import com.renault.garage.dto.GarageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GarageDtoCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GarageDtoCache cache = new GarageDtoCache(meterRegistry, 2, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Cache garages - chargé une fois, rechargé après invalidation")
+    void loadsOnceUntilInvalidated() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.invalidateAfterCommit(1L);
+        cache.get(1L, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cache garages - une valeur chargée pendant une invalidation n'est pas conservée")
+    void discardsValueLoadedDuringInvalidation() {
+        GarageDto first = cache.get(1L, id -> {
+            // Une écriture est validée pendant le chargement
+            cache.invalidateAfterCommit(id);
+            return load(id);
+        });
+
+        GarageDto second = cache.get(1L, this::load);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cache garages - compteurs de succès, d'échecs et d'évictions")
+    void exposesMetrics() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(3L, this::load);
+        cache.get(4L, this::load);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "garages").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "garages").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "garages").functionCounter())
+                .isNotNull();
+    }
+
+    private GarageDto load(Long id) {
+        loads.incrementAndGet();
+        GarageDto dto = new GarageDto();
+        dto.setId(id);
+        return dto;
+    }
+}
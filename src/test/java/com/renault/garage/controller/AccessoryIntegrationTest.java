@@ -0,0 +1,140 @@
+package com.renault.garage.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renault.garage.dto.AccessoryDto;
+import com.renault.garage.entity.Accessory;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.AccessoryRepository;
+import com.renault.garage.repository.GarageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+class AccessoryIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private GarageRepository garageRepository;
+
+        @Autowired
+        private AccessoryRepository accessoryRepository;
+
+        @Autowired
+        private EntityManager entityManager;
+
+        private Vehicle testVehicle;
+        private AccessoryDto testAccessoryDto;
+        private QueryBudget queryBudget;
+
+        @BeforeEach
+        void setUp() {
+                queryBudget = new QueryBudget(mockMvc, entityManager);
+
+                Garage garage = garageRepository.save(new Garage("Garage Renault Marrakech", "Route de Safi, Marrakech",
+                                "0524123456", "marrakech@renault.ma"));
+                testVehicle = new Vehicle("Renault", "Austral", 2024, FuelType.HYBRID);
+                testVehicle.setGarage(garage);
+                entityManager.persist(testVehicle);
+
+                testAccessoryDto = new AccessoryDto();
+                testAccessoryDto.setNom("GPS");
+                testAccessoryDto.setDescription("Navigation connectée");
+                testAccessoryDto.setPrix(new BigDecimal("499.90"));
+                testAccessoryDto.setType(AccessoryType.ELECTRONIC);
+        }
+
+        @Test
+        @DisplayName("POST /api/vehicles/{id}/accessories - Ajouter un accessoire avec succès")
+        void addAccessory_Success() throws Exception {
+                queryBudget.perform(2, post("/api/vehicles/{vehicleId}/accessories", testVehicle.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(testAccessoryDto)))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.id").exists())
+                                .andExpect(jsonPath("$.nom").value("GPS"))
+                                .andExpect(jsonPath("$.vehicleId").value(testVehicle.getId()));
+        }
+
+        @Test
+        @DisplayName("POST /api/vehicles/{id}/accessories - Véhicule non trouvé")
+        void addAccessory_VehicleNotFound() throws Exception {
+                mockMvc.perform(post("/api/vehicles/{vehicleId}/accessories", 999999)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(testAccessoryDto)))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("GET /api/vehicles/{id}/accessories - Lister les accessoires d'un véhicule")
+        void getAccessoriesByVehicle_Success() throws Exception {
+                persistAccessory("GPS", AccessoryType.ELECTRONIC);
+                persistAccessory("Attelage", AccessoryType.EXTERIOR);
+                persistAccessory("Sièges chauffants", AccessoryType.COMFORT);
+
+                queryBudget.perform(2, get("/api/vehicles/{vehicleId}/accessories", testVehicle.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(3)))
+                                .andExpect(jsonPath("$[*].vehicleId", everyItem(equalTo(
+                                                testVehicle.getId().intValue()))));
+        }
+
+        @Test
+        @DisplayName("PUT /api/accessories/{id} - Modifier un accessoire")
+        void updateAccessory_Success() throws Exception {
+                Accessory accessory = persistAccessory("GPS", AccessoryType.ELECTRONIC);
+                testAccessoryDto.setNom("GPS Europe");
+                testAccessoryDto.setPrix(new BigDecimal("599.90"));
+
+                queryBudget.perform(2, put("/api/accessories/{id}", accessory.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(testAccessoryDto)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.nom").value("GPS Europe"))
+                                .andExpect(jsonPath("$.prix").value(599.90));
+        }
+
+        @Test
+        @DisplayName("DELETE /api/accessories/{id} - Supprimer un accessoire")
+        void deleteAccessory_Success() throws Exception {
+                Accessory accessory = persistAccessory("GPS", AccessoryType.ELECTRONIC);
+
+                queryBudget.perform(3, delete("/api/accessories/{id}", accessory.getId()))
+                                .andExpect(status().isNoContent());
+
+                assertThat(accessoryRepository.findById(accessory.getId())).isEmpty();
+        }
+
+        private Accessory persistAccessory(String name, AccessoryType type) {
+                Accessory accessory = new Accessory(name, "Accessoire", BigDecimal.TEN, type);
+                accessory.setVehicle(testVehicle);
+                entityManager.persist(accessory);
+                return accessory;
+        }
+}
@@ -1,10 +1,24 @@
 package com.renault.garage.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.renault.garage.dto.GarageDto;
 import com.renault.garage.dto.OpeningTimeDto;
+import com.renault.garage.entity.Accessory;
 import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.index.AccessoryGarageIndex;
+import com.renault.garage.index.GarageFuelTypeIndex;
+import com.renault.garage.index.GarageNameIndex;
+import com.renault.garage.index.GarageLocationIndex;
+import com.renault.garage.index.GarageScheduleIndex;
 import com.renault.garage.repository.GarageRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,14 +27,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,10 +59,30 @@ class GarageIntegrationTest {
         @Autowired
         private GarageRepository garageRepository;
 
+        @Autowired
+        private AccessoryGarageIndex accessoryGarageIndex;
+
+        @Autowired
+        private GarageFuelTypeIndex garageFuelTypeIndex;
+
+        @Autowired
+        private GarageNameIndex garageNameIndex;
+
+        @Autowired
+        private GarageScheduleIndex garageScheduleIndex;
+
+        @Autowired
+        private GarageLocationIndex garageLocationIndex;
+
+        @Autowired
+        private EntityManager entityManager;
+
         private GarageDto testGarageDto;
+        private QueryBudget queryBudget;
 
         @BeforeEach
         void setUp() {
+                queryBudget = new QueryBudget(mockMvc, entityManager);
                 garageRepository.deleteAll();
 
                 testGarageDto = new GarageDto();
@@ -63,7 +102,7 @@ class GarageIntegrationTest {
         @Test
         @DisplayName("POST /api/garages - Créer un garage avec succès")
         void createGarage_Success() throws Exception {
-                mockMvc.perform(post("/api/garages")
+                queryBudget.perform(2, post("/api/garages")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(testGarageDto)))
                                 .andExpect(status().isCreated())
@@ -91,7 +130,7 @@ class GarageIntegrationTest {
                                 new Garage("Garage Maarif", "45 Rue Abou Mahassine, Casablanca", "0522334455",
                                                 "maarif@renault.ma"));
 
-                mockMvc.perform(get("/api/garages/{id}", savedGarage.getId()))
+                queryBudget.perform(2, get("/api/garages/{id}", savedGarage.getId()))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.id").value(savedGarage.getId()))
                                 .andExpect(jsonPath("$.name").value("Garage Maarif"));
@@ -115,7 +154,7 @@ class GarageIntegrationTest {
                 garageRepository.save(new Garage("Garage Rabat", "Avenue Mohammed V, Rabat", "0537333333",
                                 "rabat@renault.ma"));
 
-                mockMvc.perform(get("/api/garages")
+                queryBudget.perform(3, get("/api/garages")
                                 .param("page", "0")
                                 .param("size", "2")
                                 .param("sort", "name,asc"))
@@ -144,7 +183,7 @@ class GarageIntegrationTest {
                                 DayOfWeek.MONDAY, List.of(morningSlot, afternoonSlot),
                                 DayOfWeek.TUESDAY, List.of(morningSlot, afternoonSlot)));
 
-                mockMvc.perform(put("/api/garages/{id}", savedGarage.getId())
+                queryBudget.perform(4, put("/api/garages/{id}", savedGarage.getId())
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(updateDto)))
                                 .andExpect(status().isOk())
@@ -159,7 +198,7 @@ class GarageIntegrationTest {
                                 new Garage("Garage Sidi Maarouf", "Sidi Maarouf, Casablanca", "0522667788",
                                                 "sidimaarouf@renault.ma"));
 
-                mockMvc.perform(delete("/api/garages/{id}", savedGarage.getId()))
+                queryBudget.perform(5, delete("/api/garages/{id}", savedGarage.getId()))
                                 .andExpect(status().isNoContent());
 
                 mockMvc.perform(get("/api/garages/{id}", savedGarage.getId()))
@@ -175,10 +214,377 @@ class GarageIntegrationTest {
                                 "rabat@renault.ma"));
                 garageRepository.save(new Garage("Dacia Casablanca", "Hay Hassani, Casablanca", "0522333333",
                                 "dacia@renault.ma"));
+                entityManager.flush();
+                rebuildIndexes();
 
-                mockMvc.perform(get("/api/garages/search/by-name")
+                queryBudget.perform(2, get("/api/garages/search/by-name")
                                 .param("name", "Renault"))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.content", hasSize(2)));
         }
+
+        @Test
+        @DisplayName("GET /api/garages/search/by-name - Index trigramme, pagination et tri par nom")
+        void searchByName_PaginatedFromTrigramIndex() throws Exception {
+                for (String name : List.of("Renault Casablanca", "Dacia Casablanca", "Renault Rabat",
+                                "Casablanca Nord", "Tanger Auto")) {
+                        garageRepository.save(new Garage(name, "Adresse", "0522000000", "garage@renault.ma"));
+                }
+                entityManager.flush();
+                rebuildIndexes();
+
+                mockMvc.perform(get("/api/garages/search/by-name")
+                                .param("name", "CASA")
+                                .param("size", "2")
+                                .param("page", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].name", contains("Renault Casablanca")))
+                                .andExpect(jsonPath("$.totalElements").value(3))
+                                .andExpect(jsonPath("$.totalPages").value(2));
+
+                mockMvc.perform(get("/api/garages/search/by-name")
+                                .param("name", "ca")
+                                .param("sort", "name,desc"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].name", contains("Renault Casablanca",
+                                                "Dacia Casablanca", "Casablanca Nord")));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages - Nombre de requêtes indépendant de la taille de page")
+        void getAllGarages_QueryCountIndependentOfPageSize() throws Exception {
+                for (int i = 0; i < 12; i++) {
+                        Garage garage = new Garage("Garage " + i, "Adresse " + i, "052200000" + i,
+                                        "garage" + i + "@renault.ma");
+                        garage.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(8, 0),
+                                        LocalTime.of(12, 0)));
+                        garage.getOpeningHours().add(new OpeningTime(DayOfWeek.FRIDAY, LocalTime.of(14, 0),
+                                        LocalTime.of(18, 0)));
+                        garageRepository.save(garage);
+                }
+
+                long smallPageStatements = countStatements("2");
+                long largePageStatements = countStatements("12");
+
+                assertThat(largePageStatements).isEqualTo(smallPageStatements);
+        }
+
+        @Test
+        @DisplayName("GET /api/garages?size=50 - Budget de requêtes SQL, horaires et véhicules compris")
+        void getAllGarages_StatementBudget() throws Exception {
+                for (int i = 0; i < 50; i++) {
+                        Garage garage = new Garage("Garage " + i, "Adresse " + i, "0522000000",
+                                        "garage" + i + "@renault.ma");
+                        garage.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(8, 0),
+                                        LocalTime.of(12, 0)));
+                        garage.getOpeningHours().add(new OpeningTime(DayOfWeek.SATURDAY, LocalTime.of(9, 0),
+                                        LocalTime.of(13, 0)));
+                        garage = garageRepository.save(garage);
+                        persistVehicle(garage, FuelType.ELECTRIC, "GPS");
+                        persistVehicle(garage, FuelType.DIESEL, "Attelage");
+                }
+
+                queryBudget.perform(3, get("/api/garages").param("size", "50"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content", hasSize(50)))
+                                .andExpect(jsonPath("$.content[*].horairesOuverture.SATURDAY", hasSize(50)));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/scroll - Parcours complet par curseur sans count")
+        void scrollGarages_VisitsEveryGarageOnceInOrder() throws Exception {
+                for (String name : List.of("Garage E", "Garage A", "Garage C", "Garage A", "Garage B")) {
+                        garageRepository.save(new Garage(name, "Adresse", "0522000000", "garage@renault.ma"));
+                }
+
+                List<String> names = new ArrayList<>();
+                String cursor = null;
+                int pages = 0;
+                do {
+                        var request = get("/api/garages/scroll").param("size", "2");
+                        if (cursor != null) {
+                                request.param("cursor", cursor);
+                        }
+                        JsonNode page = objectMapper.readTree(queryBudget.perform(2, request)
+                                        .andExpect(status().isOk())
+                                        .andReturn().getResponse().getContentAsString());
+                        page.get("content").forEach(garage -> names.add(garage.get("name").asText()));
+                        cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+                        pages++;
+                } while (cursor != null);
+
+                assertThat(names).containsExactly("Garage A", "Garage A", "Garage B", "Garage C", "Garage E");
+                assertThat(pages).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/search/by-name/scroll - Recherche par nom par curseur")
+        void scrollByName_Success() throws Exception {
+                garageRepository.save(new Garage("Renault Casablanca", "Boulevard Hassan II, Casablanca", "0522111111",
+                                "casa@renault.ma"));
+                garageRepository.save(new Garage("Renault Rabat", "Avenue Mohammed V, Rabat", "0537222222",
+                                "rabat@renault.ma"));
+                garageRepository.save(new Garage("Dacia Casablanca", "Hay Hassani, Casablanca", "0522333333",
+                                "dacia@renault.ma"));
+
+                String response = queryBudget.perform(2, get("/api/garages/search/by-name/scroll")
+                                .param("name", "renault")
+                                .param("size", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content", hasSize(1)))
+                                .andExpect(jsonPath("$.content[0].name").value("Renault Casablanca"))
+                                .andExpect(jsonPath("$.hasNext").value(true))
+                                .andReturn().getResponse().getContentAsString();
+
+                mockMvc.perform(get("/api/garages/search/by-name/scroll")
+                                .param("name", "renault")
+                                .param("size", "1")
+                                .param("cursor", objectMapper.readTree(response).get("nextCursor").asText()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[0].name").value("Renault Rabat"))
+                                .andExpect(jsonPath("$.hasNext").value(false));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/scroll - Curseur invalide")
+        void scrollGarages_InvalidCursor() throws Exception {
+                mockMvc.perform(get("/api/garages/scroll").param("cursor", "pas-un-curseur"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message").value(containsString("Curseur")));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/search/by-fuel-type - Chaque garage une seule fois, paginé")
+        void searchByFuelType_PaginatedWithoutDuplicates() throws Exception {
+                Garage casablanca = garageRepository.save(new Garage("Renault Casablanca", "Casablanca", "0522111111",
+                                "casa@renault.ma"));
+                Garage rabat = garageRepository.save(new Garage("Renault Rabat", "Rabat", "0537222222",
+                                "rabat@renault.ma"));
+                Garage tanger = garageRepository.save(new Garage("Renault Tanger", "Tanger", "0539333333",
+                                "tanger@renault.ma"));
+                for (int i = 0; i < 3; i++) {
+                        persistVehicle(casablanca, FuelType.ELECTRIC, "GPS");
+                        persistVehicle(rabat, FuelType.ELECTRIC, "GPS");
+                }
+                persistVehicle(tanger, FuelType.DIESEL, "Attelage");
+                entityManager.flush();
+                entityManager.clear();
+                rebuildIndexes();
+
+                queryBudget.perform(2, get("/api/garages/search/by-fuel-type")
+                                .param("typeCarburant", "ELECTRIC")
+                                .param("size", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content", hasSize(1)))
+                                .andExpect(jsonPath("$.content[0].name").value("Renault Casablanca"))
+                                .andExpect(jsonPath("$.totalElements").value(2));
+
+                queryBudget.perform(2, get("/api/garages/search/by-accessory").param("nom", "gps"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].name",
+                                                contains("Renault Casablanca", "Renault Rabat")))
+                                .andExpect(jsonPath("$.totalElements").value(2));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/search/open - Garages ouverts à l'heure donnée et pendant N heures")
+        void searchOpen_ResolvedFromSchedules() throws Exception {
+                Garage continu = new Garage("Renault Continu", "Casablanca", "0522111111", "continu@renault.ma");
+                continu.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(8, 0),
+                                LocalTime.of(19, 0)));
+                Garage coupure = new Garage("Renault Coupure", "Rabat", "0537222222", "coupure@renault.ma");
+                coupure.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(8, 0),
+                                LocalTime.of(12, 0)));
+                coupure.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(14, 0),
+                                LocalTime.of(18, 0)));
+                Garage ferme = new Garage("Renault Fermé", "Tanger", "0539333333", "ferme@renault.ma");
+                ferme.getOpeningHours().add(new OpeningTime(DayOfWeek.TUESDAY, LocalTime.of(8, 0),
+                                LocalTime.of(18, 0)));
+                garageRepository.saveAll(List.of(continu, coupure, ferme));
+                entityManager.flush();
+                entityManager.clear();
+                rebuildIndexes();
+
+                queryBudget.perform(2, get("/api/garages/search/open")
+                                .param("jour", "MONDAY")
+                                .param("heure", "10:30"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].name",
+                                                contains("Renault Continu", "Renault Coupure")))
+                                .andExpect(jsonPath("$.totalElements").value(2));
+
+                queryBudget.perform(2, get("/api/garages/search/open")
+                                .param("jour", "MONDAY")
+                                .param("heure", "10:30")
+                                .param("heures", "4"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].name", contains("Renault Continu")))
+                                .andExpect(jsonPath("$.content[0].horairesOuverture.MONDAY", hasSize(1)));
+
+
+                mockMvc.perform(get("/api/garages/search/open")
+                                .param("jour", "MONDAY")
+                                .param("heure", "10:30")
+                                .param("sort", "email"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/search/nearest - Garages les plus proches, par rayon et type de carburant")
+        void searchNearest_ResolvedFromGrid() throws Exception {
+                Garage casablanca = locatedGarage("Renault Casablanca", 33.5731, -7.5898);
+                Garage rabat = locatedGarage("Renault Rabat", 34.0209, -6.8416);
+                Garage tanger = locatedGarage("Renault Tanger", 35.7595, -5.8340);
+                garageRepository.save(new Garage("Renault Sans Coordonnées", "Fès", "0535444444",
+                                "fes@renault.ma"));
+                persistVehicle(casablanca, FuelType.DIESEL, "GPS");
+                persistVehicle(rabat, FuelType.ELECTRIC, "GPS");
+                persistVehicle(tanger, FuelType.ELECTRIC, "GPS");
+                entityManager.flush();
+                entityManager.clear();
+                rebuildIndexes();
+
+                queryBudget.perform(2, get("/api/garages/search/nearest")
+                                .param("latitude", "33.59")
+                                .param("longitude", "-7.60")
+                                .param("limite", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[*].name", contains("Renault Casablanca", "Renault Rabat")))
+                                .andExpect(jsonPath("$[0].latitude").value(33.5731))
+                                .andExpect(jsonPath("$[0].distanceKm").value(lessThan(5.0)))
+                                .andExpect(jsonPath("$[1].distanceKm").value(greaterThan(80.0)));
+
+                queryBudget.perform(2, get("/api/garages/search/nearest")
+                                .param("latitude", "33.59")
+                                .param("longitude", "-7.60")
+                                .param("rayonKm", "200")
+                                .param("typeCarburant", "ELECTRIC"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[*].name", contains("Renault Rabat")));
+
+                mockMvc.perform(get("/api/garages/search/nearest")
+                                .param("latitude", "95")
+                                .param("longitude", "-7.60"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/search/by-fuel-type - Taille de page plafonnée")
+        void searchByFuelType_PageSizeIsCapped() throws Exception {
+                mockMvc.perform(get("/api/garages/search/by-fuel-type")
+                                .param("typeCarburant", "ELECTRIC")
+                                .param("size", "100000"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.size").value(100));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/{id}/fuel-mix - Répartition des véhicules par carburant")
+        void getFuelMix_Success() throws Exception {
+                Garage garage = garageRepository.save(new Garage("Renault Fès", "Fès", "0535444444",
+                                "fes@renault.ma"));
+                persistVehicle(garage, FuelType.ELECTRIC, "GPS");
+                persistVehicle(garage, FuelType.ELECTRIC, "GPS");
+                persistVehicle(garage, FuelType.DIESEL, "GPS");
+                entityManager.flush();
+                entityManager.clear();
+                rebuildIndexes();
+
+                queryBudget.perform(1, get("/api/garages/{id}/fuel-mix", garage.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.ELECTRIC").value(2))
+                                .andExpect(jsonPath("$.DIESEL").value(1))
+                                .andExpect(jsonPath("$.ESSENCE").value(0))
+                                .andExpect(jsonPath("$.HYBRID").value(0));
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/export - Export en flux NDJSON")
+        void exportGarages_StreamsNdjson() throws Exception {
+                MvcResult result = mockMvc.perform(get("/api/garages/export").param("avecVehicules", "true"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                                .andExpect(header().string("Content-Disposition", containsString("garages.ndjson")));
+        }
+
+        @Test
+        @DisplayName("POST /api/garages/import - Import CSV avec rapport des lignes rejetées")
+        void importGarages_Csv() throws Exception {
+                String csv = "name,address,telephone,email,horairesOuverture\n"
+                                + "Garage Importé,Adresse,0522000000,importe@renault.ma,MONDAY=08:00-12:00\n"
+                                + "Garage Invalide,Adresse,0522000000,,MONDAY=08:00-12:00\n";
+
+                mockMvc.perform(post("/api/garages/import")
+                                .contentType("text/csv")
+                                .content(csv))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imported").value(1))
+                                .andExpect(jsonPath("$.rejected").value(1))
+                                .andExpect(jsonPath("$.errors[0].line").value(3))
+                                .andExpect(jsonPath("$.errors[0].message").value(containsString("email")));
+        }
+
+        @Test
+        @DisplayName("POST /api/garages/import - En-tête CSV incomplet")
+        void importGarages_InvalidHeader() throws Exception {
+                mockMvc.perform(post("/api/garages/import")
+                                .contentType("text/csv")
+                                .content("name,address\n"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/garages/{id}/fuel-mix - Garage non trouvé")
+        void getFuelMix_NotFound() throws Exception {
+                mockMvc.perform(get("/api/garages/{id}/fuel-mix", 999999))
+                                .andExpect(status().isNotFound());
+        }
+
+        /**
+         * Les données de test ne sont pas validées : les index en mémoire sont
+         * reconstruits depuis la transaction du test, puis après son rollback.
+         */
+        @AfterTransaction
+        void rebuildIndexes() {
+                accessoryGarageIndex.rebuild();
+                garageFuelTypeIndex.rebuild();
+                garageNameIndex.rebuild();
+                garageScheduleIndex.rebuild();
+                garageLocationIndex.rebuild();
+        }
+
+        private Garage locatedGarage(String name, double latitude, double longitude) {
+                Garage garage = new Garage(name, "Maroc", "0522000000", "garage@renault.ma");
+                garage.setLatitude(latitude);
+                garage.setLongitude(longitude);
+                return garageRepository.save(garage);
+        }
+
+        private void persistVehicle(Garage garage, FuelType fuelType, String accessoryName) {
+                Vehicle vehicle = new Vehicle("Renault", "Megane", 2023, fuelType);
+                vehicle.setGarage(garage);
+                Accessory accessory = new Accessory(accessoryName, "Accessoire", BigDecimal.TEN,
+                                AccessoryType.ELECTRONIC);
+                accessory.setVehicle(vehicle);
+                vehicle.getAccessories().add(accessory);
+                entityManager.persist(vehicle);
+        }
+
+        private long countStatements(String pageSize) throws Exception {
+                entityManager.flush();
+                entityManager.clear();
+                Statistics statistics = entityManager.getEntityManagerFactory()
+                                .unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+
+                mockMvc.perform(get("/api/garages").param("size", pageSize))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[0].horairesOuverture.MONDAY", hasSize(1)));
+
+                return statistics.getPrepareStatementCount();
+        }
 }
@@ -0,0 +1,54 @@
+package com.renault.garage.controller;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Budget d'instructions SQL par requête MockMvc, pour bloquer les régressions N+1.
+ * <p>
+ * La requête part d'un contexte de persistance vide : toutes les lectures vont
+ * en base. Les écritures restées en attente dans la transaction du test sont
+ * vidées avant le décompte. Seules les instructions préparées par Hibernate
+ * sont comptées, pas celles passées par {@code JdbcTemplate}.
+ */
+final class QueryBudget {
+
+        private final MockMvc mockMvc;
+        private final EntityManager entityManager;
+        private final Statistics statistics;
+
+        QueryBudget(MockMvc mockMvc, EntityManager entityManager) {
+                this.mockMvc = mockMvc;
+                this.entityManager = entityManager;
+                this.statistics = entityManager.getEntityManagerFactory()
+                                .unwrap(SessionFactory.class).getStatistics();
+        }
+
+        /**
+         * Exécute la requête et vérifie qu'elle prépare au plus {@code maxStatements}
+         * instructions SQL.
+         *
+         * @return le résultat de la requête, pour enchaîner les vérifications
+         */
+        ResultActions perform(int maxStatements, RequestBuilder request) throws Exception {
+                entityManager.flush();
+                entityManager.clear();
+                statistics.clear();
+
+                ResultActions result = mockMvc.perform(request);
+                entityManager.flush();
+
+                MockHttpServletRequest executed = result.andReturn().getRequest();
+                assertThat(statistics.getPrepareStatementCount())
+                                .as("Instructions SQL de %s %s", executed.getMethod(), executed.getRequestURI())
+                                .isLessThanOrEqualTo(maxStatements);
+                return result;
+        }
+}
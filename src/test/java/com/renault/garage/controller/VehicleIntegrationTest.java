@@ -1,12 +1,16 @@
 package com.renault.garage.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renault.garage.dto.VehicleBatchDto;
 import com.renault.garage.dto.VehicleDto;
 import com.renault.garage.entity.Garage;
 import com.renault.garage.entity.Vehicle;
 import com.renault.garage.enums.FuelType;
 import com.renault.garage.repository.GarageRepository;
 import com.renault.garage.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +22,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,11 +48,16 @@ class VehicleIntegrationTest {
         @Autowired
         private VehicleRepository vehicleRepository;
 
+        @Autowired
+        private EntityManager entityManager;
+
         private Garage testGarage;
         private VehicleDto testVehicleDto;
+        private QueryBudget queryBudget;
 
         @BeforeEach
         void setUp() {
+                queryBudget = new QueryBudget(mockMvc, entityManager);
                 vehicleRepository.deleteAll();
                 garageRepository.deleteAll();
 
@@ -63,7 +76,7 @@ class VehicleIntegrationTest {
         @Test
         @DisplayName("POST /api/garages/{id}/vehicles - Ajouter un véhicule avec succès")
         void addVehicle_Success() throws Exception {
-                mockMvc.perform(post("/api/garages/{garageId}/vehicles", testGarage.getId())
+                queryBudget.perform(3, post("/api/garages/{garageId}/vehicles", testGarage.getId())
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(testVehicleDto)))
                                 .andExpect(status().isCreated())
@@ -94,6 +107,62 @@ class VehicleIntegrationTest {
                                 .andExpect(jsonPath("$.errors.brand").exists());
         }
 
+        @Test
+        @DisplayName("POST /api/garages/{id}/vehicles/batch - Insertion d'un lot en batch JDBC")
+        void addVehicles_BatchInserted() throws Exception {
+                VehicleBatchDto batch = new VehicleBatchDto();
+                batch.setVehicles(new ArrayList<>());
+                for (int i = 0; i < 30; i++) {
+                        batch.getVehicles().add(testVehicleDto);
+                }
+                entityManager.flush();
+                Statistics statistics = entityManager.getEntityManagerFactory()
+                                .unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+
+                mockMvc.perform(post("/api/garages/{garageId}/vehicles/batch", testGarage.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$", hasSize(30)))
+                                .andExpect(jsonPath("$[*].id", everyItem(notNullValue())));
+                entityManager.flush();
+
+                assertThat(statistics.getEntityInsertCount()).isEqualTo(30);
+                assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+                assertThat(vehicleRepository.countByGarageId(testGarage.getId())).isEqualTo(30);
+        }
+
+        @Test
+        @DisplayName("POST /api/garages/{id}/vehicles/batch - Lot dépassant la capacité")
+        void addVehicles_CapacityExceeded() throws Exception {
+                VehicleBatchDto batch = new VehicleBatchDto();
+                batch.setVehicles(new ArrayList<>());
+                for (int i = 0; i < 51; i++) {
+                        batch.getVehicles().add(testVehicleDto);
+                }
+
+                mockMvc.perform(post("/api/garages/{garageId}/vehicles/batch", testGarage.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("POST /api/garages/{id}/vehicles/batch - Validation d'un élément du lot")
+        void addVehicles_ValidationFailed() throws Exception {
+                VehicleDto invalid = new VehicleDto();
+                invalid.setModel("Clio");
+                VehicleBatchDto batch = new VehicleBatchDto();
+                batch.setVehicles(List.of(testVehicleDto, invalid));
+
+                mockMvc.perform(post("/api/garages/{garageId}/vehicles/batch", testGarage.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.errors['vehicles[1].brand']").exists());
+        }
+
         @Test
         @DisplayName("GET /api/garages/{id}/vehicles - Lister les véhicules d'un garage")
         void getVehiclesByGarage_Success() throws Exception {
@@ -105,10 +174,11 @@ class VehicleIntegrationTest {
                 vehicle2.setGarage(testGarage);
                 vehicleRepository.save(vehicle2);
 
-                mockMvc.perform(get("/api/garages/{garageId}/vehicles", testGarage.getId()))
+                queryBudget.perform(2, get("/api/garages/{garageId}/vehicles", testGarage.getId()))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$", hasSize(2)))
-                                .andExpect(jsonPath("$[*].brand", everyItem(equalTo("Renault"))));
+                                .andExpect(jsonPath("$[*].brand", everyItem(equalTo("Renault"))))
+                                .andExpect(jsonPath("$[*].garageName", everyItem(equalTo(testGarage.getName()))));
         }
 
         @Test
@@ -130,10 +200,12 @@ class VehicleIntegrationTest {
                 v3.setGarage(testGarage);
                 vehicleRepository.save(v3);
 
-                mockMvc.perform(get("/api/vehicles/model/{model}", "Clio"))
+                queryBudget.perform(1, get("/api/vehicles/model/{model}", "Clio"))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$", hasSize(2)))
-                                .andExpect(jsonPath("$[*].model", everyItem(equalTo("Clio"))));
+                                .andExpect(jsonPath("$[*].model", everyItem(equalTo("Clio"))))
+                                .andExpect(jsonPath("$[*].garageName",
+                                                containsInAnyOrder(testGarage.getName(), "Garage Rabat")));
         }
 
 
@@ -150,7 +222,7 @@ class VehicleIntegrationTest {
                 updateDto.setAnneeFabrication(2023);
                 updateDto.setTypeCarburant(FuelType.ESSENCE);
 
-                mockMvc.perform(put("/api/vehicles/{id}", vehicle.getId())
+                queryBudget.perform(3, put("/api/vehicles/{id}", vehicle.getId())
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(updateDto)))
                                 .andExpect(status().isOk())
@@ -165,8 +237,33 @@ class VehicleIntegrationTest {
                 vehicle.setGarage(testGarage);
                 vehicle = vehicleRepository.save(vehicle);
 
-                mockMvc.perform(delete("/api/vehicles/{id}", vehicle.getId()))
+                queryBudget.perform(4, delete("/api/vehicles/{id}", vehicle.getId()))
                                 .andExpect(status().isNoContent());
         }
 
+        @Test
+        @DisplayName("POST puis DELETE - Le compteur de véhicules du garage est maintenu")
+        void vehicleCount_MaintainedOnAddAndDelete() throws Exception {
+                String response = mockMvc.perform(post("/api/garages/{garageId}/vehicles", testGarage.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(testVehicleDto)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                Long vehicleId = objectMapper.readValue(response, VehicleDto.class).getId();
+
+                entityManager.flush();
+                entityManager.clear();
+                mockMvc.perform(get("/api/garages/{id}", testGarage.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.vehicleCount").value(1));
+
+                mockMvc.perform(delete("/api/vehicles/{id}", vehicleId))
+                                .andExpect(status().isNoContent());
+
+                entityManager.flush();
+                entityManager.clear();
+                mockMvc.perform(get("/api/garages/{id}", testGarage.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.vehicleCount").value(0));
+        }
 }
@@ -0,0 +1,75 @@
+package com.renault.garage.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final EventCircuitBreaker circuitBreaker = new EventCircuitBreaker(2, 1000, now::get);
+
+    @Test
+    @DisplayName("Disjoncteur - s'ouvre après le seuil d'échecs consécutifs")
+    void opensAfterThreshold() {
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+
+        circuitBreaker.recordFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(EventCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Disjoncteur - semi-ouvert après la durée d'ouverture puis refermé sur succès")
+    void halfOpensThenClosesOnSuccess() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        now.addAndGet(1000);
+
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(EventCircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(EventCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Disjoncteur - une seule tentative d'essai en semi-ouvert")
+    void singleTrialWhileHalfOpen() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        now.addAndGet(1000);
+
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+
+        // Tentative restée sans résultat : abandonnée après la durée d'ouverture
+        now.addAndGet(1000);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Disjoncteur - un échec en semi-ouvert le rouvre immédiatement")
+    void reopensOnFailureWhileHalfOpen() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        now.addAndGet(1000);
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.recordFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(EventCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+}
@@ -0,0 +1,102 @@
+package com.renault.garage.event;
+
+import com.renault.garage.enums.FuelType;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark du codec binaire face au chemin JSON (JsonSerializer avec en-têtes
+ * de type) : octets par événement et débit de sérialisation/désérialisation.
+ * Exécution : {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VehicleCreatedEventCodecBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleCreatedEventCodecBenchmarkTest.class);
+
+    private static final String TOPIC = "vehicle-created-topic";
+    private static final int EVENTS = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Test
+    @DisplayName("Benchmark - codec binaire contre JSON")
+    void binaryVersusJson() {
+        List<VehicleCreatedEvent> events = events();
+
+        Result json = measure("JSON", events, new JsonSerializer<>(), new JsonDeserializer<>(VehicleCreatedEvent.class));
+        Result binary = measure("binaire", events, new VehicleCreatedEventBinarySerializer(),
+                new VehicleCreatedEventBinaryDeserializer());
+
+        assertThat(binary.bytesPerEvent()).isLessThan(json.bytesPerEvent());
+    }
+
+    private Result measure(String name, List<VehicleCreatedEvent> events,
+            Serializer<VehicleCreatedEvent> serializer, Deserializer<VehicleCreatedEvent> deserializer) {
+        long totalBytes = 0;
+        long serializeNanos = 0;
+        long deserializeNanos = 0;
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        List<RecordHeaders> headers = new ArrayList<>(events.size());
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            payloads.clear();
+            headers.clear();
+            long start = System.nanoTime();
+            for (VehicleCreatedEvent event : events) {
+                RecordHeaders recordHeaders = new RecordHeaders();
+                headers.add(recordHeaders);
+                payloads.add(serializer.serialize(TOPIC, recordHeaders, event));
+            }
+            long serialized = System.nanoTime();
+            for (int i = 0; i < payloads.size(); i++) {
+                deserializer.deserialize(TOPIC, headers.get(i), payloads.get(i));
+            }
+            long deserialized = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                serializeNanos += serialized - start;
+                deserializeNanos += deserialized - serialized;
+            }
+        }
+        for (int i = 0; i < payloads.size(); i++) {
+            totalBytes += payloads.get(i).length;
+            for (var header : headers.get(i)) {
+                totalBytes += header.key().length() + header.value().length;
+            }
+        }
+
+        long operations = (long) events.size() * MEASURED_ROUNDS;
+        Result result = new Result((double) totalBytes / events.size(),
+                operations * 1_000_000_000.0 / serializeNanos,
+                operations * 1_000_000_000.0 / deserializeNanos);
+        logger.info("Codec {}: {} octets/événement (en-têtes inclus), sérialisation {} évén./s, désérialisation {} évén./s",
+                name, String.format("%.1f", result.bytesPerEvent()),
+                String.format("%.0f", result.serializePerSecond()), String.format("%.0f", result.deserializePerSecond()));
+        return result;
+    }
+
+    private List<VehicleCreatedEvent> events() {
+        FuelType[] fuelTypes = FuelType.values();
+        List<VehicleCreatedEvent> events = new ArrayList<>(EVENTS);
+        for (long i = 0; i < EVENTS; i++) {
+            events.add(new VehicleCreatedEvent(100_000 + i, "Renault", "Clio " + (i % 5), 2015 + (int) (i % 10),
+                    fuelTypes[(int) (i % fuelTypes.length)], i % 500, "Garage Renault " + (i % 500)));
+        }
+        return events;
+    }
+
+    private record Result(double bytesPerEvent, double serializePerSecond, double deserializePerSecond) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.renault.garage.event;
+
+import com.renault.garage.enums.FuelType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VehicleCreatedEventCodecTest {
+
+    private final VehicleCreatedEventBinarySerializer serializer = new VehicleCreatedEventBinarySerializer();
+    private final VehicleCreatedEventBinaryDeserializer deserializer = new VehicleCreatedEventBinaryDeserializer();
+
+    @Test
+    @DisplayName("Codec binaire - aller-retour complet")
+    void roundTrip_AllFields() {
+        VehicleCreatedEvent event = new VehicleCreatedEvent(123456789L, "Renault", "Mégane E-Tech", 2024,
+                FuelType.ELECTRIC, 42L, "Garage Renault Casablanca");
+        event.setCreatedAt(LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123456789));
+
+        VehicleCreatedEvent decoded = deserializer.deserialize("topic", serializer.serialize("topic", event));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Codec binaire - champs absents")
+    void roundTrip_NullFields() {
+        VehicleCreatedEvent event = new VehicleCreatedEvent();
+        event.setVehicleId(1L);
+        event.setCreatedAt(null);
+
+        byte[] data = serializer.serialize("topic", event);
+        VehicleCreatedEvent decoded = deserializer.deserialize("topic", data);
+
+        assertThat(data).hasSize(3);
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Codec binaire - version de schéma inconnue")
+    void decode_UnknownVersion() {
+        assertThatThrownBy(() -> deserializer.deserialize("topic", new byte[] { 99, 0 }))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    @DisplayName("Codec binaire - données tronquées")
+    void decode_Truncated() {
+        VehicleCreatedEvent event = new VehicleCreatedEvent(1L, "Renault", "Clio", 2023,
+                FuelType.DIESEL, 2L, "Garage");
+        byte[] data = serializer.serialize("topic", event);
+        byte[] truncated = Arrays.copyOf(data, data.length - 4);
+
+        assertThatThrownBy(() -> deserializer.deserialize("topic", truncated))
+                .isInstanceOf(SerializationException.class);
+    }
+}
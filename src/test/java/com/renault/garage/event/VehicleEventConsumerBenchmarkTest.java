@@ -0,0 +1,122 @@
+package com.renault.garage.event;
+
+import com.renault.garage.enums.FuelType;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de débit du consumer VehicleCreated sur le broker Kafka embarqué,
+ * en mode unitaire et en mode lot. Exécution : {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3, topics = VehicleEventConsumerBenchmarkTest.TOPIC)
+class VehicleEventConsumerBenchmarkTest {
+
+    static final String TOPIC = "vehicle-created-benchmark";
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleEventConsumerBenchmarkTest.class);
+
+    private static final int EVENTS = 20_000;
+    private static final int CONCURRENCY = 3;
+
+    private final VehicleEventConsumer consumer = new VehicleEventConsumer();
+
+    @Test
+    @DisplayName("Benchmark - débit du consumer unitaire et par lot")
+    void singleRecordVersusBatchThroughput(EmbeddedKafkaBroker broker) throws Exception {
+        produceEvents(broker);
+
+        double singleThroughput = consume(broker, false);
+        double batchThroughput = consume(broker, true);
+
+        logger.info("Consumer VehicleCreated - {} événements, {} partitions: unitaire {} évén./s, lot {} évén./s",
+                EVENTS, CONCURRENCY, String.format("%.0f", singleThroughput), String.format("%.0f", batchThroughput));
+        assertThat(singleThroughput).isPositive();
+        assertThat(batchThroughput).isPositive();
+    }
+
+    private void produceEvents(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        DefaultKafkaProducerFactory<String, VehicleCreatedEvent> producerFactory = new DefaultKafkaProducerFactory<>(
+                props, new StringSerializer(), new JsonSerializer<>());
+        KafkaTemplate<String, VehicleCreatedEvent> template = new KafkaTemplate<>(producerFactory);
+        FuelType[] fuelTypes = FuelType.values();
+        for (long i = 0; i < EVENTS; i++) {
+            VehicleCreatedEvent event = new VehicleCreatedEvent(i, "Renault", "Clio", 2023,
+                    fuelTypes[(int) (i % fuelTypes.length)], i % 100, "Garage " + (i % 100));
+            template.send(TOPIC, String.valueOf(i), event);
+        }
+        template.flush();
+        producerFactory.destroy();
+    }
+
+    /**
+     * Consomme tous les événements du topic avec un nouveau groupe.
+     *
+     * @return le débit en événements par seconde, mesuré à partir du premier
+     *         enregistrement reçu pour exclure le rebalancing initial
+     */
+    private double consume(EmbeddedKafkaBroker broker, boolean batch) throws InterruptedException {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("benchmark-" + (batch ? "batch" : "single"),
+                "true", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        DefaultKafkaConsumerFactory<String, VehicleCreatedEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new JsonDeserializer<>(VehicleCreatedEvent.class, false));
+
+        CountDownLatch latch = new CountDownLatch(EVENTS);
+        AtomicLong firstRecordAt = new AtomicLong();
+        ContainerProperties containerProperties = new ContainerProperties(TOPIC);
+        if (batch) {
+            containerProperties.setMessageListener((BatchMessageListener<String, VehicleCreatedEvent>) records -> {
+                firstRecordAt.compareAndSet(0, System.nanoTime());
+                consumer.consumeVehicleCreatedEvents(records.stream().map(ConsumerRecord::value).toList());
+                records.forEach(record -> latch.countDown());
+            });
+        } else {
+            containerProperties.setMessageListener((MessageListener<String, VehicleCreatedEvent>) record -> {
+                firstRecordAt.compareAndSet(0, System.nanoTime());
+                consumer.consumeVehicleCreatedEvent(record.value());
+                latch.countDown();
+            });
+        }
+
+        ConcurrentMessageListenerContainer<String, VehicleCreatedEvent> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+        container.setConcurrency(CONCURRENCY);
+        container.start();
+        try {
+            assertThat(latch.await(5, TimeUnit.MINUTES)).isTrue();
+            double seconds = (System.nanoTime() - firstRecordAt.get()) / 1_000_000_000.0;
+            return EVENTS / seconds;
+        } finally {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.renault.garage.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.renault.garage.entity.OutboxEvent;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleOutboxRelayTest {
+
+    private static final String TOPIC = "vehicle-created-topic";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, VehicleCreatedEvent> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SendResult<String, VehicleCreatedEvent> sendResult;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private VehicleOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new VehicleOutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionManager,
+                meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "bufferSize", 2);
+        ReflectionTestUtils.setField(relay, "failureThreshold", 1);
+        ReflectionTestUtils.setField(relay, "openDurationMs", 60_000L);
+        relay.initialize();
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - les événements acquittés sont marqués publiés")
+    void relayBatch_MarksAcknowledgedEventsPublished() throws Exception {
+        OutboxEvent first = outboxEvent(1L);
+        OutboxEvent second = outboxEvent(2L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any(VehicleCreatedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        when(kafkaTemplate.send(eq(TOPIC), eq("2"), any(VehicleCreatedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponible")));
+
+        int published = relay.relayBatch();
+
+        assertThat(published).isEqualTo(1);
+        assertThat(first.getPublishedAt()).isNotNull();
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(second.getPublishedAt()).isNull();
+        assertThat(second.getAttempts()).isEqualTo(1);
+        assertThat(second.getLastError()).contains("broker indisponible");
+        assertThat(meterRegistry.get("vehicle.events.published").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("vehicle.events.failed").counter().count()).isEqualTo(1);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markFailed(eq(2L), eq(1), contains("broker indisponible"), isNull());
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - le lot s'arrête au premier échec constaté")
+    void relayBatch_StopsAtFirstFailure() throws Exception {
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(1L), outboxEvent(2L), outboxEvent(3L)));
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any(VehicleCreatedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponible")));
+
+        assertThat(relay.relayBatch()).isZero();
+
+        verify(kafkaTemplate, times(1)).send(any(), any(), any(VehicleCreatedEvent.class));
+        assertThat(meterRegistry.get("vehicle.events.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("vehicle.events.circuit.shed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - un événement illisible est écarté sans ouvrir le disjoncteur")
+    void relayBatch_ParksUnreadableEvent() throws Exception {
+        OutboxEvent unreadable = new OutboxEvent(TOPIC, "1", "{pas du json");
+        unreadable.setId(1L);
+        OutboxEvent valid = outboxEvent(2L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(unreadable, valid));
+        when(kafkaTemplate.send(eq(TOPIC), eq("2"), any(VehicleCreatedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        assertThat(unreadable.getFailedAt()).isNotNull();
+        assertThat(valid.getPublishedAt()).isNotNull();
+        verify(outboxEventRepository).markFailed(eq(1L), eq(1), any(), any(LocalDateTime.class));
+        assertThat(meterRegistry.get("vehicle.events.parked").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("vehicle.events.circuit.state").gauge().value())
+                .isEqualTo(EventCircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - une erreur de sérialisation du broker est définitive")
+    void relayBatch_ParksSerializationFailure() throws Exception {
+        OutboxEvent event = outboxEvent(1L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event));
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any(VehicleCreatedEvent.class)))
+                .thenThrow(new SerializationException("sérialisation impossible"));
+
+        relay.relayPendingEvents();
+
+        assertThat(event.getFailedAt()).isNotNull();
+        assertThat(meterRegistry.get("vehicle.events.circuit.state").gauge().value())
+                .isEqualTo(EventCircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - écarté une fois ses tentatives épuisées")
+    void relayBatch_ParksAfterMaxAttempts() throws Exception {
+        OutboxEvent event = outboxEvent(1L);
+        event.setAttempts(2);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event));
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any(VehicleCreatedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponible")));
+
+        relay.relayBatch();
+
+        assertThat(event.getAttempts()).isEqualTo(3);
+        verify(outboxEventRepository).markFailed(eq(1L), eq(3), contains("broker indisponible"),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - le buffer borné déborde sans bloquer")
+    void signal_DropsWhenBufferFull() {
+        relay.signal(List.of(1L, 2L, 3L));
+
+        assertThat(meterRegistry.get("vehicle.events.buffer.depth").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("vehicle.events.buffer.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - le disjoncteur s'ouvre après un échec et délaisse les événements")
+    void signal_ShedsWhenCircuitOpen() throws Exception {
+        OutboxEvent event = outboxEvent(1L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event));
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any(VehicleCreatedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponible")));
+
+        relay.relayPendingEvents();
+        relay.signal(List.of(2L, 3L));
+
+        assertThat(meterRegistry.get("vehicle.events.circuit.state").gauge().value())
+                .isEqualTo(EventCircuitBreaker.State.OPEN.ordinal());
+        assertThat(meterRegistry.get("vehicle.events.circuit.shed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("vehicle.events.buffer.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Relais de l'outbox - rien à publier")
+    void relayBatch_NothingPending() {
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private OutboxEvent outboxEvent(Long vehicleId) throws Exception {
+        VehicleCreatedEvent event = new VehicleCreatedEvent(vehicleId, "Renault", "Clio", 2023,
+                FuelType.ESSENCE, 1L, "Garage Renault Casablanca");
+        OutboxEvent outboxEvent = new OutboxEvent(TOPIC, String.valueOf(vehicleId), objectMapper.writeValueAsString(event));
+        outboxEvent.setId(vehicleId);
+        return outboxEvent;
+    }
+}
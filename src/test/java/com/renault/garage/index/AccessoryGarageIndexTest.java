@@ -0,0 +1,138 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.AccessoryRepository;
+import com.renault.garage.repository.projection.AccessoryGarageView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccessoryGarageIndexTest {
+
+    @Mock
+    private AccessoryRepository accessoryRepository;
+
+    private AccessoryGarageIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AccessoryGarageIndex(accessoryRepository);
+    }
+
+    @Test
+    @DisplayName("Index - vide tant qu'il n'est pas construit")
+    void notReadyBeforeRebuild() {
+        assertThat(index.findGarageIds("GPS")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index - construit depuis la base, noms normalisés")
+    void rebuildFromRepository() {
+        when(accessoryRepository.findAllGarageLinks()).thenReturn(List.of(
+                new AccessoryGarageView(1L, "GPS", 10L),
+                new AccessoryGarageView(2L, "gps ", 10L),
+                new AccessoryGarageView(3L, "GPS", 20L),
+                new AccessoryGarageView(4L, "Attelage", 30L)));
+
+        index.rebuild();
+
+        assertThat(garageIds("  Gps")).containsExactly(10, 20);
+        assertThat(garageIds("ATTELAGE")).containsExactly(30);
+        assertThat(garageIds("Toit ouvrant")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index - un garage reste indexé tant qu'il lui reste un accessoire du même nom")
+    void referenceCountedRemoval() {
+        when(accessoryRepository.findAllGarageLinks()).thenReturn(List.of(
+                new AccessoryGarageView(1L, "GPS", 10L),
+                new AccessoryGarageView(2L, "GPS", 10L)));
+        index.rebuild();
+
+        index.onAccessoriesDeleted(List.of(1L));
+        assertThat(garageIds("GPS")).containsExactly(10);
+
+        index.onAccessoriesDeleted(List.of(2L));
+        assertThat(garageIds("GPS")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index - création, renommage et suppression de garage")
+    void incrementalUpdates() {
+        when(accessoryRepository.findAllGarageLinks()).thenReturn(List.of());
+        index.rebuild();
+
+        index.onAccessorySaved(1L, "GPS", 10L);
+        index.onAccessorySaved(2L, "Attelage", 20L);
+        assertThat(garageIds("gps")).containsExactly(10);
+
+        index.onAccessoryRenamed(1L, "Radar de recul");
+        assertThat(garageIds("gps")).isEmpty();
+        assertThat(garageIds("radar de recul")).containsExactly(10);
+
+        index.onGarageDeleted(20L);
+        assertThat(garageIds("attelage")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index - les écritures pendant la reconstruction ne sont pas perdues")
+    void writesDuringRebuildAreReplayed() {
+        when(accessoryRepository.findAllGarageLinks()).thenAnswer(invocation -> {
+            index.onAccessorySaved(2L, "GPS", 20L);
+            return List.of(new AccessoryGarageView(1L, "GPS", 10L));
+        });
+
+        index.rebuild();
+
+        assertThat(garageIds("GPS")).containsExactly(10, 20);
+    }
+
+    @Test
+    @DisplayName("Index - lectures concurrentes des écritures, bitmaps retournés non partagés")
+    void concurrentReadsAndWrites() throws Exception {
+        when(accessoryRepository.findAllGarageLinks()).thenReturn(List.of());
+        index.rebuild();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                started.countDown();
+                for (long i = 1; i <= 10_000; i++) {
+                    index.onAccessorySaved(i, "GPS", i % 500);
+                }
+            });
+            Future<?> reader = executor.submit(() -> {
+                started.await();
+                while (!writer.isDone()) {
+                    index.findGarageIds("GPS").orElseThrow().clear();
+                }
+                return null;
+            });
+            writer.get(30, TimeUnit.SECONDS);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(index.findGarageIds("GPS").orElseThrow().cardinality()).isEqualTo(500);
+    }
+
+    private List<Integer> garageIds(String accessoryName) {
+        BitSet garageIds = index.findGarageIds(accessoryName).orElseThrow();
+        return garageIds.stream().boxed().toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.renault.garage.index;
+
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.VehicleRepository;
+import com.renault.garage.repository.projection.VehicleFuelTypeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GarageFuelTypeIndexTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    private GarageFuelTypeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GarageFuelTypeIndex(vehicleRepository);
+    }
+
+    @Test
+    @DisplayName("Agrégats carburant - vides tant qu'ils ne sont pas construits")
+    void notReadyBeforeRebuild() {
+        assertThat(index.findGarageIds(FuelType.ELECTRIC)).isEmpty();
+        assertThat(index.findGarageFilter(FuelType.ELECTRIC)).isEmpty();
+        assertThat(index.findFuelMix(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Agrégats carburant - construits depuis la base")
+    void rebuildFromRepository() {
+        when(vehicleRepository.findAllFuelTypes()).thenReturn(List.of(
+                new VehicleFuelTypeView(1L, 10L, FuelType.ELECTRIC),
+                new VehicleFuelTypeView(2L, 10L, FuelType.ELECTRIC),
+                new VehicleFuelTypeView(3L, 10L, FuelType.DIESEL),
+                new VehicleFuelTypeView(4L, 20L, FuelType.ELECTRIC)));
+
+        index.rebuild();
+
+        assertThat(garageIds(FuelType.ELECTRIC)).containsExactly(10, 20);
+        assertThat(garageIds(FuelType.DIESEL)).containsExactly(10);
+        assertThat(garageIds(FuelType.HYBRID)).isEmpty();
+        assertThat(index.findGarageFilter(FuelType.DIESEL).orElseThrow().test(10L)).isTrue();
+        assertThat(index.findGarageFilter(FuelType.DIESEL).orElseThrow().test(20L)).isFalse();
+        assertThat(index.findFuelMix(10L).orElseThrow())
+                .containsEntry(FuelType.ELECTRIC, 2)
+                .containsEntry(FuelType.DIESEL, 1)
+                .containsEntry(FuelType.ESSENCE, 0)
+                .containsEntry(FuelType.HYBRID, 0);
+    }
+
+    @Test
+    @DisplayName("Agrégats carburant - ajout, changement de carburant et suppression")
+    void incrementalUpdates() {
+        when(vehicleRepository.findAllFuelTypes()).thenReturn(List.of());
+        index.rebuild();
+
+        Vehicle diesel = vehicle(3L, 10L, FuelType.DIESEL);
+        index.onVehiclesSaved(List.of(vehicle(1L, 10L, FuelType.ESSENCE), vehicle(2L, 10L, FuelType.ESSENCE), diesel));
+        assertThat(garageIds(FuelType.ESSENCE)).containsExactly(10);
+        assertThat(index.findFuelMix(10L).orElseThrow()).containsEntry(FuelType.ESSENCE, 2);
+
+        diesel.setFuelType(FuelType.HYBRID);
+        index.onVehicleUpdated(diesel, FuelType.DIESEL);
+        index.onVehicleUpdated(diesel, FuelType.HYBRID);
+        assertThat(garageIds(FuelType.DIESEL)).isEmpty();
+        assertThat(garageIds(FuelType.HYBRID)).containsExactly(10);
+        assertThat(index.findFuelMix(10L).orElseThrow()).containsEntry(FuelType.HYBRID, 1);
+
+        index.onVehicleDeleted(1L, 10L, FuelType.ESSENCE);
+        assertThat(garageIds(FuelType.ESSENCE)).containsExactly(10);
+        index.onVehicleDeleted(2L, 10L, FuelType.ESSENCE);
+        assertThat(garageIds(FuelType.ESSENCE)).isEmpty();
+
+        index.onGarageDeleted(10L);
+        assertThat(garageIds(FuelType.HYBRID)).isEmpty();
+        assertThat(index.findFuelMix(10L).orElseThrow().values()).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("Agrégats carburant - une écriture pendant la reconstruction n'est comptée qu'une fois")
+    void writesDuringRebuildAreReplayedOnce() {
+        when(vehicleRepository.findAllFuelTypes()).thenAnswer(invocation -> {
+            // Validées pendant le chargement : présentes à la fois en base et dans le journal
+            index.onVehiclesSaved(List.of(vehicle(2L, 20L, FuelType.ELECTRIC)));
+            index.onVehicleUpdated(vehicle(3L, 20L, FuelType.HYBRID), FuelType.DIESEL);
+            index.onVehicleDeleted(4L, 20L, FuelType.ESSENCE);
+            return List.of(new VehicleFuelTypeView(1L, 10L, FuelType.ELECTRIC),
+                    new VehicleFuelTypeView(2L, 20L, FuelType.ELECTRIC),
+                    new VehicleFuelTypeView(3L, 20L, FuelType.HYBRID));
+        });
+
+        index.rebuild();
+
+        assertThat(garageIds(FuelType.ELECTRIC)).containsExactly(10, 20);
+        assertThat(garageIds(FuelType.DIESEL)).isEmpty();
+        assertThat(index.findFuelMix(20L).orElseThrow())
+                .containsEntry(FuelType.ELECTRIC, 1)
+                .containsEntry(FuelType.HYBRID, 1)
+                .containsEntry(FuelType.ESSENCE, 0);
+    }
+
+    @Test
+    @DisplayName("Agrégats carburant - une écriture validée après le chargement est rejouée")
+    void writesAfterLoadAreReplayed() {
+        when(vehicleRepository.findAllFuelTypes()).thenAnswer(invocation -> {
+            List<VehicleFuelTypeView> loaded = List.of(new VehicleFuelTypeView(1L, 10L, FuelType.DIESEL),
+                    new VehicleFuelTypeView(2L, 10L, FuelType.DIESEL));
+            // Validées après la lecture : absentes de l'état chargé
+            index.onVehicleUpdated(vehicle(1L, 10L, FuelType.ELECTRIC), FuelType.DIESEL);
+            index.onVehicleDeleted(2L, 10L, FuelType.DIESEL);
+            return loaded;
+        });
+
+        index.rebuild();
+        index.onVehicleUpdated(vehicle(1L, 10L, FuelType.HYBRID), FuelType.ELECTRIC);
+
+        assertThat(garageIds(FuelType.DIESEL)).isEmpty();
+        assertThat(garageIds(FuelType.ELECTRIC)).isEmpty();
+        assertThat(index.findFuelMix(10L).orElseThrow()).containsEntry(FuelType.HYBRID, 1);
+    }
+
+    private Vehicle vehicle(Long id, Long garageId, FuelType fuelType) {
+        Garage garage = new Garage();
+        garage.setId(garageId);
+        Vehicle vehicle = new Vehicle("Renault", "Clio", 2023, fuelType);
+        vehicle.setId(id);
+        vehicle.setGarage(garage);
+        return vehicle;
+    }
+
+    private List<Integer> garageIds(FuelType fuelType) {
+        return index.findGarageIds(fuelType).orElseThrow().stream().boxed().toList();
+    }
+}
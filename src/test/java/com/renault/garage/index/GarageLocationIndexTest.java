@@ -0,0 +1,165 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageLocationView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GarageLocationIndexTest {
+
+    private static final GarageLocationView CASABLANCA = new GarageLocationView(1L, 33.5731, -7.5898);
+    private static final GarageLocationView RABAT = new GarageLocationView(2L, 34.0209, -6.8416);
+    private static final GarageLocationView MARRAKECH = new GarageLocationView(3L, 31.6295, -7.9811);
+    private static final GarageLocationView TANGER = new GarageLocationView(4L, 35.7595, -5.8340);
+    private static final double[][] CITIES = {{33.57, -7.59}, {48.85, 2.35}, {-33.87, 151.21}, {64.13, -21.9},
+            {-17.7, 178.0}, {78.22, 15.65}};
+
+    @Mock
+    private GarageRepository garageRepository;
+
+    private GarageLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GarageLocationIndex(garageRepository);
+    }
+
+    @Test
+    @DisplayName("Grille spatiale - vide tant qu'elle n'est pas construite")
+    void notReadyBeforeRebuild() {
+        assertThat(index.findNearest(33.5, -7.5, Double.POSITIVE_INFINITY, 10, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Grille spatiale - garages triés par distance, avec leur distance")
+    void nearestByDistance() {
+        rebuildWith(TANGER, MARRAKECH, RABAT, CASABLANCA);
+
+        List<GarageLocationIndex.Nearby> nearest = index.findNearest(33.5731, -7.5898, Double.POSITIVE_INFINITY, 3,
+                null).orElseThrow();
+
+        assertThat(nearest).extracting(GarageLocationIndex.Nearby::garageId).containsExactly(1L, 2L, 3L);
+        assertThat(nearest.get(0).distanceKm()).isCloseTo(0, within(1e-6));
+        assertThat(nearest.get(1).distanceKm()).isCloseTo(85.2, within(0.1));
+        assertThat(nearest.get(2).distanceKm()).isCloseTo(219.2, within(0.1));
+    }
+
+    @Test
+    @DisplayName("Grille spatiale - rayon de recherche et filtre par identifiant")
+    void radiusAndFilter() {
+        rebuildWith(TANGER, MARRAKECH, RABAT, CASABLANCA);
+
+        assertThat(nearestIds(33.5731, -7.5898, 100, 10, null)).containsExactly(1L, 2L);
+        assertThat(nearestIds(33.5731, -7.5898, 10, 10, null)).containsExactly(1L);
+        assertThat(nearestIds(33.5731, -7.5898, 250, 10, garageId -> garageId != 1L)).containsExactly(2L, 3L);
+        assertThat(nearestIds(33.5731, -7.5898, 250, 10, garageId -> garageId == 4L)).isEmpty();
+        assertThat(nearestIds(33.5731, -7.5898, Double.POSITIVE_INFINITY, 10, garageId -> garageId == 4L))
+                .containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Grille spatiale - création, déplacement, perte des coordonnées et suppression")
+    void incrementalUpdates() {
+        rebuildWith(CASABLANCA, RABAT);
+
+        index.onGarageSaved(5L, 33.59, -7.60);
+        assertThat(nearestIds(33.5731, -7.5898, 50, 10, null)).containsExactly(1L, 5L);
+
+        // Déplacé de Rabat à côté de Casablanca, puis sans coordonnées
+        index.onGarageSaved(2L, 33.5732, -7.5899);
+        assertThat(nearestIds(33.5731, -7.5898, 50, 10, null)).containsExactly(1L, 2L, 5L);
+        index.onGarageSaved(2L, null, null);
+        assertThat(nearestIds(33.5731, -7.5898, Double.POSITIVE_INFINITY, 10, null)).containsExactly(1L, 5L);
+
+        index.onGarageDeleted(1L);
+        index.onGarageDeleted(5L);
+        assertThat(nearestIds(33.5731, -7.5898, Double.POSITIVE_INFINITY, 10, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Grille spatiale - même résultat qu'un parcours exhaustif, pôles et antiméridien compris")
+    void matchesExhaustiveSearch() {
+        Random random = new Random(42);
+        List<GarageLocationView> locations = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            // Regroupés autour de quelques villes, plus quelques points isolés
+            if (id % 10 == 0) {
+                locations.add(new GarageLocationView(id, random.nextDouble() * 180 - 90,
+                        random.nextDouble() * 360 - 180));
+            } else {
+                double[] city = CITIES[(int) (id % CITIES.length)];
+                locations.add(new GarageLocationView(id, clamp(city[0] + random.nextGaussian(), 90),
+                        clamp(city[1] + random.nextGaussian(), 180)));
+            }
+        }
+        when(garageRepository.findAllLocations()).thenReturn(locations);
+        index.rebuild();
+
+        double[][] points = {{33.6, -7.6}, {-33.9, 151.2}, {0, 179.95}, {0, -179.95}, {89.99, 0}, {-89.99, 45},
+                {12.3, -45.6}, {48.85, 2.35}};
+        double[] radii = {5, 50, 500, Double.POSITIVE_INFINITY};
+        for (double[] point : points) {
+            for (double radius : radii) {
+                for (int limit : new int[] {1, 10, 100}) {
+                    assertThat(nearestIds(point[0], point[1], radius, limit, garageId -> garageId % 3 != 0))
+                            .as("%s, %s km, %s", point, radius, limit)
+                            .isEqualTo(exhaustive(locations, point[0], point[1], radius, limit));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Grille spatiale - même résultat calculé depuis des coordonnées lues en base")
+    void findsFromLocationsWithoutIndex() {
+        List<GarageLocationView> locations = List.of(TANGER, MARRAKECH, RABAT, CASABLANCA);
+
+        assertThat(GarageLocationIndex.findNearest(locations, 34.0, -6.8, 100, 10, null))
+                .extracting(GarageLocationIndex.Nearby::garageId)
+                .containsExactly(2L, 1L);
+    }
+
+    private static double clamp(double value, double bound) {
+        return Math.max(-bound, Math.min(bound, value));
+    }
+
+    private static List<Long> exhaustive(List<GarageLocationView> locations, double latitude, double longitude,
+            double radiusKm, int limit) {
+        return locations.stream()
+                .filter(location -> location.id() % 3 != 0)
+                .map(location -> new GarageLocationIndex.Nearby(location.id(), GarageLocationIndex.distanceKm(
+                        latitude, longitude, location.latitude(), location.longitude())))
+                .filter(nearby -> nearby.distanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(GarageLocationIndex.Nearby::distanceKm))
+                .limit(limit)
+                .map(GarageLocationIndex.Nearby::garageId)
+                .toList();
+    }
+
+    private void rebuildWith(GarageLocationView... locations) {
+        when(garageRepository.findAllLocations()).thenReturn(List.of(locations));
+        index.rebuild();
+    }
+
+    private List<Long> nearestIds(double latitude, double longitude, double radiusKm, int limit,
+            LongPredicate filter) {
+        return index.findNearest(latitude, longitude, radiusKm, limit, filter).orElseThrow().stream()
+                .map(GarageLocationIndex.Nearby::garageId)
+                .toList();
+    }
+}
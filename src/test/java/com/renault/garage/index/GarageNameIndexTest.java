@@ -0,0 +1,166 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageNameView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GarageNameIndexTest {
+
+    @Mock
+    private GarageRepository garageRepository;
+
+    private GarageNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GarageNameIndex(garageRepository);
+    }
+
+    @Test
+    @DisplayName("Index trigramme - vide tant qu'il n'est pas construit")
+    void notReadyBeforeRebuild() {
+        assertThat(index.findByName("casa", 0, 10, Sort.Direction.ASC)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index trigramme - sous-chaîne insensible à la casse, triée par nom")
+    void findsSubstringIgnoringCase() {
+        rebuildWith(
+                new GarageNameView(1L, "Renault Casablanca"),
+                new GarageNameView(2L, "Dacia Casablanca"),
+                new GarageNameView(3L, "Renault Rabat"),
+                new GarageNameView(4L, "Garage Ocasa"));
+
+        assertThat(find("CASABLANCA")).containsExactly(2L, 1L);
+        assertThat(find("casa")).containsExactly(2L, 4L, 1L);
+        assertThat(find("Renault R")).containsExactly(3L);
+        assertThat(find("Marrakech")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index trigramme - les candidats sont vérifiés sur le nom complet")
+    void verifiesCandidates() {
+        // "abc bcd" contient les trigrammes "abc" et "bcd" de "abcd" sans contenir "abcd"
+        rebuildWith(
+                new GarageNameView(1L, "abc bcd"),
+                new GarageNameView(2L, "xabcdx"));
+
+        assertThat(find("abcd")).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Index trigramme - recherches courtes, pagination et tri décroissant")
+    void shortQueriesPaginationAndDescendingOrder() {
+        rebuildWith(
+                new GarageNameView(1L, "Garage A"),
+                new GarageNameView(2L, "Garage B"),
+                new GarageNameView(3L, "Garage C"),
+                new GarageNameView(4L, "Autre"));
+
+        GarageNameIndex.Matches page = index.findByName("ga", 1, 1, Sort.Direction.DESC).orElseThrow();
+
+        assertThat(page.ids()).containsExactly(2L);
+        assertThat(page.total()).isEqualTo(3);
+        assertThat(index.findByName("", 0, 10, Sort.Direction.ASC).orElseThrow().total()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Index trigramme - création, renommage et suppression")
+    void incrementalUpdates() {
+        rebuildWith();
+
+        index.onGarageSaved(1L, "Renault Casablanca");
+        index.onGarageSaved(2L, "Renault Rabat");
+        assertThat(find("renault")).containsExactly(1L, 2L);
+
+        index.onGarageSaved(1L, "Dacia Tanger");
+        assertThat(find("casablanca")).isEmpty();
+        assertThat(find("tanger")).containsExactly(1L);
+
+        index.onGarageDeleted(2L);
+        assertThat(find("renault")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Index trigramme - page triée par nom d'un ensemble de garages, dense ou clairsemé")
+    void pagesGarageSetByName() {
+        Random random = new Random(42);
+        List<GarageNameView> views = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            views.add(new GarageNameView(id, "Garage " + random.nextInt(100)));
+        }
+        rebuildWith(views.toArray(GarageNameView[]::new));
+
+        BitSet dense = new BitSet();
+        BitSet sparse = new BitSet();
+        for (int id = 1; id <= 500; id++) {
+            dense.set(id, id % 5 != 0);
+            sparse.set(id, id % 50 == 0);
+        }
+        for (BitSet garageIds : List.of(dense, sparse)) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                for (int offset : new int[] {0, 7, 395, 1000}) {
+                    List<Long> expected = expectedPage(views, garageIds, offset, 10, direction);
+                    assertThat(index.findPage(garageIds, offset, 10, direction)).contains(expected);
+                    assertThat(GarageNameIndex.findPage(views, garageIds, offset, 10, direction))
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Index trigramme - l'ordre des noms suit les renommages")
+    void pageFollowsRenames() {
+        rebuildWith(
+                new GarageNameView(1L, "Garage A"),
+                new GarageNameView(2L, "Garage B"),
+                new GarageNameView(3L, "Garage C"));
+        BitSet garageIds = new BitSet();
+        garageIds.set(1, 4);
+
+        index.onGarageSaved(1L, "Garage D");
+        index.onGarageDeleted(2L);
+
+        assertThat(index.findPage(garageIds, 0, 10, Sort.Direction.ASC)).contains(List.of(3L, 1L));
+        assertThat(index.findPage(garageIds, 0, 10, Sort.Direction.DESC)).contains(List.of(1L, 3L));
+    }
+
+    private static List<Long> expectedPage(List<GarageNameView> views, BitSet garageIds, int offset, int size,
+            Sort.Direction direction) {
+        Comparator<GarageNameView> order = Comparator.comparing(GarageNameView::name)
+                .thenComparing(GarageNameView::id);
+        return views.stream()
+                .filter(view -> garageIds.get(view.id().intValue()))
+                .sorted(direction == Sort.Direction.DESC ? order.reversed() : order)
+                .skip(offset)
+                .limit(size)
+                .map(GarageNameView::id)
+                .toList();
+    }
+
+    private void rebuildWith(GarageNameView... views) {
+        when(garageRepository.findAllNames()).thenReturn(List.of(views));
+        index.rebuild();
+    }
+
+    private List<Long> find(String query) {
+        return index.findByName(query, 0, 100, Sort.Direction.ASC).orElseThrow().ids();
+    }
+}
@@ -0,0 +1,103 @@
+package com.renault.garage.index;
+
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.service.GarageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la recherche par nom sur 100 000 garages : index trigramme
+ * contre {@code LIKE '%x%'} en base. Exécution : {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class GarageNameSearchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GarageNameSearchBenchmarkTest.class);
+
+    private static final int GARAGES = 100_000;
+    private static final long FIRST_ID = 10_000_000L;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final List<String> CITIES = List.of("Casablanca", "Rabat", "Marrakech", "Fès", "Tanger",
+            "Agadir", "Meknès", "Oujda", "Kénitra", "Tétouan");
+    private static final List<String> QUERIES = List.of("casa", "Tanger 4242", "ga", "renault rabat 7", "introuvable");
+
+    @Autowired
+    private GarageService garageService;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private GarageNameIndex garageNameIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM garages WHERE id >= ?", FIRST_ID);
+        garageNameIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Benchmark - recherche par nom, index trigramme contre LIKE")
+    void trigramIndexVersusLike() {
+        insertGarages();
+        garageNameIndex.rebuild();
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("name"));
+
+        for (String query : QUERIES) {
+            long likeTotal = garageRepository.findByNameContainingIgnoreCase(query, pageable).getTotalElements();
+            long indexTotal = garageService.searchGaragesByName(query, pageable).getTotalElements();
+            assertThat(indexTotal).as(query).isEqualTo(likeTotal);
+
+            double likeMicros = measure(q -> garageRepository.findByNameContainingIgnoreCase(q, pageable), query);
+            double indexMicros = measure(q -> garageService.searchGaragesByName(q, pageable), query);
+            logger.info("Recherche '{}' sur {} garages ({} résultats): LIKE {} µs, index trigramme {} µs",
+                    query, GARAGES, likeTotal, String.format("%.0f", likeMicros), String.format("%.0f", indexMicros));
+        }
+    }
+
+    private double measure(Function<String, ?> search, String query) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            search.apply(query);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            search.apply(query);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ROUNDS;
+    }
+
+    private void insertGarages() {
+        List<Object[]> rows = new ArrayList<>(GARAGES);
+        for (int i = 0; i < GARAGES; i++) {
+            String city = CITIES.get(i % CITIES.size());
+            String brand = i % 3 == 0 ? "Dacia" : "Renault";
+            rows.add(new Object[] {FIRST_ID + i, brand + " " + city + " " + i, "Adresse " + i, city,
+                    "0522000000", "garage" + i + "@renault.ma"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO garages (id, name, address, city, telephone, email, vehicle_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0)", rows);
+    }
+}
@@ -0,0 +1,136 @@
+package com.renault.garage.index;
+
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.service.GarageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la recherche des garages les plus proches sur 100 000 garages
+ * géolocalisés : grille spatiale en mémoire contre tri par distance en base.
+ * Exécution : {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class GarageNearestSearchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GarageNearestSearchBenchmarkTest.class);
+
+    private static final int GARAGES = 100_000;
+    private static final long FIRST_ID = 10_000_000L;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 10_000;
+    private static final int DATABASE_ROUNDS = 20;
+    private static final double[][] CITIES = {{33.57, -7.59}, {34.02, -6.84}, {31.63, -7.98}, {34.03, -5.00},
+            {35.76, -5.83}, {30.43, -9.60}, {33.90, -5.55}, {34.68, -1.91}};
+    private static final double[][] POINTS = {{33.59, -7.62}, {32.30, -9.24}, {28.99, -10.06}};
+    private static final String SQL_NEAREST = "SELECT id FROM garages WHERE latitude IS NOT NULL "
+            + "ORDER BY ASIN(SQRT(POWER(SIN(RADIANS(latitude - ?) / 2), 2) + COS(RADIANS(?)) * COS(RADIANS(latitude)) "
+            + "* POWER(SIN(RADIANS(longitude - ?) / 2), 2))) LIMIT 10";
+
+    @Autowired
+    private GarageService garageService;
+
+    @Autowired
+    private GarageLocationIndex garageLocationIndex;
+
+    @Autowired
+    private GarageFuelTypeIndex garageFuelTypeIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM vehicles WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM garages WHERE id >= ?", FIRST_ID);
+        garageLocationIndex.rebuild();
+        garageFuelTypeIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Benchmark - garages les plus proches, grille spatiale contre tri en base")
+    void gridVersusDatabase() {
+        insertGarages();
+        garageLocationIndex.rebuild();
+        garageFuelTypeIndex.rebuild();
+
+        for (double[] point : POINTS) {
+            List<Long> sqlIds = jdbcTemplate.queryForList(SQL_NEAREST, Long.class, point[0], point[0], point[1]);
+            List<Long> gridIds = garageLocationIndex.findNearest(point[0], point[1], Double.POSITIVE_INFINITY, 10,
+                    null).orElseThrow().stream().map(GarageLocationIndex.Nearby::garageId).toList();
+            assertThat(gridIds).isEqualTo(sqlIds);
+
+            // Point décalé à chaque requête : H2 réutilise le résultat d'une requête identique
+            double[] jitter = {0};
+            double sqlMicros = measure(DATABASE_ROUNDS, () -> {
+                jitter[0] += 1e-7;
+                return jdbcTemplate.queryForList(SQL_NEAREST, Long.class, point[0] + jitter[0], point[0] + jitter[0],
+                        point[1]);
+            });
+            double gridMicros = measure(MEASURED_ROUNDS, () -> garageLocationIndex.findNearest(point[0], point[1],
+                    Double.POSITIVE_INFINITY, 10, null));
+            double radiusMicros = measure(MEASURED_ROUNDS, () -> garageLocationIndex.findNearest(point[0], point[1],
+                    20, 100, null));
+            double electricMicros = measure(MEASURED_ROUNDS, () -> garageLocationIndex.findNearest(point[0],
+                    point[1], Double.POSITIVE_INFINITY, 10,
+                    garageFuelTypeIndex.findGarageFilter(FuelType.ELECTRIC).orElseThrow()));
+            double serviceMicros = measure(DATABASE_ROUNDS * 10, () -> garageService.getNearestGarages(point[0],
+                    point[1], null, 10, FuelType.ELECTRIC));
+            logger.info("Point ({}, {}) sur {} garages : tri en base {} µs, grille 10 plus proches {} µs, "
+                            + "grille rayon 20 km {} µs, grille électriques {} µs, service (garages lus en base) {} µs",
+                    point[0], point[1], GARAGES, format(sqlMicros), format(gridMicros), format(radiusMicros),
+                    format(electricMicros), format(serviceMicros));
+        }
+    }
+
+    private static double measure(int rounds, Supplier<?> search) {
+        for (int round = 0; round < Math.min(rounds, WARMUP_ROUNDS); round++) {
+            search.get();
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / rounds;
+    }
+
+    private static String format(double micros) {
+        return String.format("%.1f", micros);
+    }
+
+    private void insertGarages() {
+        Random random = new Random(42);
+        List<Object[]> garages = new ArrayList<>(GARAGES);
+        List<Object[]> vehicles = new ArrayList<>(GARAGES / 5);
+        for (int i = 0; i < GARAGES; i++) {
+            double[] city = CITIES[i % CITIES.length];
+            long id = FIRST_ID + i;
+            garages.add(new Object[] {id, "Renault " + i, "Adresse " + i, "0522000000", "garage" + i + "@renault.ma",
+                    city[0] + random.nextGaussian() * 0.5, city[1] + random.nextGaussian() * 0.5});
+            if (i % 5 == 0) {
+                vehicles.add(new Object[] {id, id});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO garages (id, name, address, telephone, email, vehicle_count, "
+                + "latitude, longitude) VALUES (?, ?, ?, ?, ?, 0, ?, ?)", garages);
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (id, garage_id, brand, model, manufacturing_year, fuel_type) "
+                + "VALUES (?, ?, 'Renault', 'Megane', 2024, 'ELECTRIC')", vehicles);
+    }
+}
@@ -0,0 +1,158 @@
+package com.renault.garage.index;
+
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
+import static java.time.DayOfWeek.TUESDAY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GarageScheduleIndexTest {
+
+    @Mock
+    private GarageRepository garageRepository;
+
+    private GarageScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GarageScheduleIndex(garageRepository);
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - vides tant qu'ils ne sont pas construits")
+    void notReadyBeforeRebuild() {
+        assertThat(index.findOpenGarageIds(MONDAY, LocalTime.of(10, 0), 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - ouverts à l'instant, fin de plage exclue")
+    void openAtInstant() {
+        rebuildWith(
+                hours(1L, MONDAY, "08:00", "12:00"),
+                hours(1L, MONDAY, "14:00", "18:00"),
+                hours(2L, MONDAY, "10:00", "20:00"));
+
+        assertThat(openGarageIds(MONDAY, "07:59", 0)).isEmpty();
+        assertThat(openGarageIds(MONDAY, "08:00", 0)).containsExactly(1);
+        assertThat(openGarageIds(MONDAY, "11:59", 0)).containsExactly(1, 2);
+        assertThat(openGarageIds(MONDAY, "12:00", 0)).containsExactly(2);
+        assertThat(openGarageIds(MONDAY, "19:00", 0)).containsExactly(2);
+        assertThat(openGarageIds(TUESDAY, "10:00", 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - ouverts sans interruption pendant N heures")
+    void openForHours() {
+        rebuildWith(
+                hours(1L, MONDAY, "08:00", "12:00"),
+                hours(1L, MONDAY, "12:00", "18:00"),
+                hours(2L, MONDAY, "08:00", "12:00"),
+                hours(2L, MONDAY, "14:00", "18:00"));
+
+        assertThat(openGarageIds(MONDAY, "09:00", 3)).containsExactly(1, 2);
+        assertThat(openGarageIds(MONDAY, "09:00", 4)).containsExactly(1);
+        assertThat(openGarageIds(MONDAY, "09:30", 8)).containsExactly(1);
+        assertThat(openGarageIds(MONDAY, "10:00", 8)).containsExactly(1);
+        assertThat(openGarageIds(MONDAY, "10:01", 8)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - plage passant minuit et semaine bouclant du dimanche au lundi")
+    void overnightAndWeekWrap() {
+        rebuildWith(
+                hours(1L, SATURDAY, "22:00", "02:00"),
+                hours(2L, SUNDAY, "20:00", "00:00"),
+                hours(2L, MONDAY, "00:00", "06:00"));
+
+        assertThat(openGarageIds(SUNDAY, "01:00", 0)).containsExactly(1);
+        assertThat(openGarageIds(SATURDAY, "23:00", 2)).containsExactly(1);
+        assertThat(openGarageIds(SUNDAY, "23:00", 6)).containsExactly(2);
+        assertThat(openGarageIds(SUNDAY, "23:00", 8)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - bornes hors quart d'heure arrondies vers l'intérieur")
+    void roundsPartialQuartersInward() {
+        rebuildWith(hours(1L, MONDAY, "08:10", "11:50"));
+
+        assertThat(openGarageIds(MONDAY, "08:10", 0)).isEmpty();
+        assertThat(openGarageIds(MONDAY, "08:15", 0)).containsExactly(1);
+        assertThat(openGarageIds(MONDAY, "11:40", 0)).containsExactly(1);
+        assertThat(openGarageIds(MONDAY, "11:45", 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - création, modification et suppression")
+    void incrementalUpdates() {
+        rebuildWith(hours(1L, MONDAY, "08:00", "12:00"));
+
+        index.onGarageSaved(2L, List.of(new OpeningTime(MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0))));
+        assertThat(openGarageIds(MONDAY, "10:00", 0)).containsExactly(1, 2);
+
+        index.onGarageSaved(1L, List.of(new OpeningTime(TUESDAY, LocalTime.of(8, 0), LocalTime.of(12, 0))));
+        assertThat(openGarageIds(MONDAY, "10:00", 0)).containsExactly(2);
+        assertThat(openGarageIds(TUESDAY, "10:00", 0)).containsExactly(1);
+
+        index.onGarageDeleted(2L);
+        assertThat(openGarageIds(MONDAY, "10:00", 0)).isEmpty();
+
+        // La position libérée est réutilisée
+        index.onGarageSaved(3L, List.of(new OpeningTime(MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0))));
+        assertThat(openGarageIds(MONDAY, "10:00", 0)).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - au-delà de la capacité initiale du tableau")
+    void growsBeyondInitialCapacity() {
+        when(garageRepository.findAllOpeningHours()).thenReturn(List.of());
+        index.rebuild();
+
+        for (long id = 1; id <= 3000; id++) {
+            index.onGarageSaved(id, List.of(new OpeningTime(MONDAY, LocalTime.of(8, 0),
+                    id % 2 == 0 ? LocalTime.of(18, 0) : LocalTime.of(12, 0))));
+        }
+
+        assertThat(index.findOpenGarageIds(MONDAY, LocalTime.of(14, 0), 0).orElseThrow().cardinality())
+                .isEqualTo(1500);
+    }
+
+    @Test
+    @DisplayName("Horaires compactés - même résultat calculé depuis des horaires lus en base")
+    void findsFromOpeningHoursWithoutIndex() {
+        List<GarageOpeningTimeView> openingHours = List.of(
+                hours(1L, MONDAY, "08:00", "12:00"),
+                hours(2L, MONDAY, "14:00", "18:00"));
+
+        assertThat(GarageScheduleIndex.findOpenGarageIds(openingHours, MONDAY, LocalTime.of(9, 0), 2).stream())
+                .containsExactly(1);
+    }
+
+    private void rebuildWith(GarageOpeningTimeView... openingHours) {
+        when(garageRepository.findAllOpeningHours()).thenReturn(List.of(openingHours));
+        index.rebuild();
+    }
+
+    private List<Integer> openGarageIds(DayOfWeek day, String time, int hours) {
+        return index.findOpenGarageIds(day, LocalTime.parse(time), hours).orElseThrow().stream().boxed().toList();
+    }
+
+    private static GarageOpeningTimeView hours(Long garageId, DayOfWeek day, String start, String end) {
+        return new GarageOpeningTimeView(garageId, day, LocalTime.parse(start), LocalTime.parse(end));
+    }
+}
@@ -0,0 +1,326 @@
+package com.renault.garage.loadtest;
+
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.index.InMemoryIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de charge HTTP : des clients concurrents rejouent un mélange pondéré
+ * d'appels aux endpoints garages, véhicules et accessoires, sur un réseau de
+ * 10 000 garages de 50 véhicules, et rapportent débit et latences p50, p99 et
+ * p99.9 par endpoint.
+ * <p>
+ * Exécution : {@code mvn test -Pbenchmark -Dtest=GarageNetworkLoadTest}, avec
+ * les propriétés système optionnelles {@code loadtest.clients} (200),
+ * {@code loadtest.duration} (30 s), {@code loadtest.warmup} (5 s),
+ * {@code loadtest.garages} (10000) et {@code loadtest.mix}
+ * ({@code garage.get=40,vehicle.create=10,...}, poids des endpoints à modifier).
+ * <p>
+ * Chaque client envoie sa requête suivante dès la réponse reçue (boucle
+ * fermée) : sous saturation, les latences mesurées n'incluent pas l'attente
+ * des requêtes qui n'ont pas pu partir.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.garage.max-vehicles=1000", "logging.level.root=WARN",
+                "logging.level.com.renault.garage.loadtest=INFO"})
+@ActiveProfiles("test")
+class GarageNetworkLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GarageNetworkLoadTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 200);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+    private static final int GARAGES = Integer.getInteger("loadtest.garages", 10_000);
+    private static final int VEHICLES_PER_GARAGE = 50;
+    private static final int VEHICLES_PER_ACCESSORY = 5;
+    private static final long FIRST_ID = 10_000_000L;
+
+    private static final List<String> CITIES = List.of("Casablanca", "Rabat", "Marrakech", "Fès", "Tanger",
+            "Agadir", "Meknès", "Oujda", "Kénitra", "Tétouan");
+    private static final List<String> MODELS = List.of("Clio", "Megane", "Captur", "Austral", "Zoe", "Kangoo");
+    private static final List<String> ACCESSORIES = List.of("GPS", "Attelage", "Barres de toit", "Caméra de recul");
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private List<InMemoryIndex<?>> indexes;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, String> firstErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Vide les tables par TRUNCATE : un DELETE de 500 000 véhicules est trop lent sous H2.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : List.of("accessories", "vehicles", "garage_opening_hours", "garages", "outbox_events")) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        indexes.forEach(InMemoryIndex::rebuild);
+    }
+
+    @Test
+    @DisplayName("Charge - mélange d'appels garages, véhicules et accessoires, latences par endpoint")
+    void mixedTraffic() throws Exception {
+        seedNetwork();
+        indexes.forEach(InMemoryIndex::rebuild);
+        List<Endpoint> mix = mix();
+
+        run(mix, WARMUP);
+        long start = System.nanoTime();
+        Map<String, LatencyRecorder> results = run(mix, DURATION);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        report(results, seconds);
+        results.forEach((name, recorder) -> assertThat(recorder.errors()).as(name).isZero());
+    }
+
+    /**
+     * Fait tourner les clients pendant la durée donnée.
+     *
+     * @return les latences fusionnées de tous les clients, par endpoint
+     */
+    private Map<String, LatencyRecorder> run(List<Endpoint> mix, Duration duration) throws Exception {
+        int totalWeight = mix.stream().mapToInt(Endpoint::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> client(mix, totalWeight, deadline)));
+            }
+            Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+            mix.forEach(endpoint -> merged.put(endpoint.name(), new LatencyRecorder()));
+            for (Future<Map<String, LatencyRecorder>> future : futures) {
+                future.get().forEach((name, recorder) -> merged.get(name).merge(recorder));
+            }
+            return merged;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private Map<String, LatencyRecorder> client(List<Endpoint> mix, int totalWeight, long deadline) {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.forEach(endpoint -> recorders.put(endpoint.name(), new LatencyRecorder()));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = pick(mix, random.nextInt(totalWeight));
+            HttpRequest request = endpoint.request().apply(random);
+            long start = System.nanoTime();
+            String error = null;
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 400) {
+                    error = "HTTP " + status;
+                }
+            } catch (IOException e) {
+                error = e.toString();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            recorders.get(endpoint.name()).record(System.nanoTime() - start, error == null);
+            if (error != null && firstErrors.putIfAbsent(endpoint.name(), error) == null) {
+                logger.warn("Première erreur sur {} ({}) : {}", endpoint.name(), request.uri(), error);
+            }
+        }
+        return recorders;
+    }
+
+    private static Endpoint pick(List<Endpoint> mix, int draw) {
+        for (Endpoint endpoint : mix) {
+            draw -= endpoint.weight();
+            if (draw < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Tirage hors des poids du mélange");
+    }
+
+    private void report(Map<String, LatencyRecorder> results, double seconds) {
+        StringBuilder table = new StringBuilder(String.format("%n%-26s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requêtes", "erreurs", "req/s", "p50 ms", "p99 ms", "p99.9 ms"));
+        LatencyRecorder total = new LatencyRecorder();
+        results.forEach((name, recorder) -> {
+            appendRow(table, name, recorder, seconds);
+            total.merge(recorder);
+        });
+        appendRow(table, "total", total, seconds);
+        logger.info("Test de charge : {} clients, {} s, {} garages de {} véhicules{}", CLIENTS,
+                DURATION.toSeconds(), GARAGES, VEHICLES_PER_GARAGE, table);
+    }
+
+    private static void appendRow(StringBuilder table, String name, LatencyRecorder recorder, double seconds) {
+        table.append(String.format("%-26s %9d %7d %9.0f %9.2f %9.2f %9.2f%n", name, recorder.count(),
+                recorder.errors(), recorder.count() / seconds, recorder.percentileMillis(50),
+                recorder.percentileMillis(99), recorder.percentileMillis(99.9)));
+    }
+
+    /**
+     * Mélange par défaut, poids modifiables par {@code -Dloadtest.mix=nom=poids,...}.
+     * La liste des véhicules par modèle, non paginée, est exclue par défaut.
+     */
+    private List<Endpoint> mix() {
+        List<Endpoint> endpoints = List.of(
+                get("garage.get", 25, random -> "/api/garages/" + garageId(random)),
+                get("garage.list", 8, random -> "/api/garages?size=20&page=" + random.nextInt(50)),
+                get("garage.scroll", 4, random -> "/api/garages/scroll?size=20"),
+                get("garage.fuel-mix", 5, random -> "/api/garages/" + garageId(random) + "/fuel-mix"),
+                get("garage.search.by-name", 8, random -> "/api/garages/search/by-name?name="
+                        + encode(CITIES.get(random.nextInt(CITIES.size())) + " " + random.nextInt(100))),
+                get("garage.search.by-fuel-type", 5, random -> "/api/garages/search/by-fuel-type?typeCarburant="
+                        + FUEL_TYPES[random.nextInt(FUEL_TYPES.length)]),
+                get("garage.search.by-accessory", 5, random -> "/api/garages/search/by-accessory?nom="
+                        + encode(ACCESSORIES.get(random.nextInt(ACCESSORIES.size())))),
+                get("vehicle.list-by-garage", 15, random -> "/api/garages/" + garageId(random) + "/vehicles"),
+                get("vehicle.list-by-model", 0, random -> "/api/vehicles/model/"
+                        + MODELS.get(random.nextInt(MODELS.size()))),
+                post("vehicle.create", 8, random -> "/api/garages/" + garageId(random) + "/vehicles",
+                        random -> "{\"brand\":\"Renault\",\"model\":\"Clio\",\"anneeFabrication\":2024,"
+                                + "\"typeCarburant\":\"" + FUEL_TYPES[random.nextInt(FUEL_TYPES.length)] + "\"}"),
+                get("accessory.list-by-vehicle", 12, random -> "/api/vehicles/" + vehicleId(random)
+                        + "/accessories"),
+                post("accessory.create", 5, random -> "/api/vehicles/" + vehicleId(random) + "/accessories",
+                        random -> "{\"nom\":\"" + ACCESSORIES.get(random.nextInt(ACCESSORIES.size()))
+                                + "\",\"prix\":199.90,\"type\":\"ELECTRONIC\"}"));
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        String mix = System.getProperty("loadtest.mix", "");
+        for (String entry : mix.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.split("=");
+                weights.put(parts[0].strip(), Integer.parseInt(parts[1].strip()));
+            }
+        }
+        return endpoints.stream()
+                .map(endpoint -> endpoint.withWeight(weights.getOrDefault(endpoint.name(), endpoint.weight())))
+                .filter(endpoint -> endpoint.weight() > 0)
+                .toList();
+    }
+
+    private Endpoint get(String name, int weight, Function<ThreadLocalRandom, String> path) {
+        return new Endpoint(name, weight, random -> HttpRequest.newBuilder(uri(path.apply(random)))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build());
+    }
+
+    private Endpoint post(String name, int weight, Function<ThreadLocalRandom, String> path,
+            Function<ThreadLocalRandom, String> body) {
+        return new Endpoint(name, weight, random -> HttpRequest.newBuilder(uri(path.apply(random)))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.apply(random)))
+                .build());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static long garageId(ThreadLocalRandom random) {
+        return FIRST_ID + random.nextInt(GARAGES);
+    }
+
+    private static long vehicleId(ThreadLocalRandom random) {
+        return FIRST_ID + random.nextLong((long) GARAGES * VEHICLES_PER_GARAGE);
+    }
+
+    private void seedNetwork() {
+        List<Object[]> garages = new ArrayList<>(GARAGES);
+        List<Object[]> openingHours = new ArrayList<>(GARAGES * 2);
+        for (int g = 0; g < GARAGES; g++) {
+            String city = CITIES.get(g % CITIES.size());
+            garages.add(new Object[] {FIRST_ID + g, "Renault " + city + " " + g, "Adresse " + g, city,
+                    "0522000000", "garage" + g + "@renault.ma", VEHICLES_PER_GARAGE});
+            openingHours.add(new Object[] {FIRST_ID + g, "MONDAY", "08:00", "12:00"});
+            openingHours.add(new Object[] {FIRST_ID + g, "MONDAY", "14:00", "18:00"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO garages (id, name, address, city, telephone, email, vehicle_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", garages);
+        jdbcTemplate.batchUpdate("INSERT INTO garage_opening_hours (garage_id, day_of_week, start_time, end_time) "
+                + "VALUES (?, ?, ?, ?)", openingHours);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        List<Object[]> accessories = new ArrayList<>();
+        for (long v = 0; v < (long) GARAGES * VEHICLES_PER_GARAGE; v++) {
+            vehicles.add(new Object[] {FIRST_ID + v, FIRST_ID + v / VEHICLES_PER_GARAGE, "Renault",
+                    MODELS.get((int) (v % MODELS.size())), 2015 + v % 10,
+                    FUEL_TYPES[(int) (v % FUEL_TYPES.length)].name()});
+            if (v % VEHICLES_PER_ACCESSORY == 0) {
+                accessories.add(new Object[] {FIRST_ID + v, FIRST_ID + v,
+                        ACCESSORIES.get((int) (v / VEHICLES_PER_ACCESSORY % ACCESSORIES.size())), null, "499.90",
+                        "ELECTRONIC"});
+            }
+            if (vehicles.size() == 10_000) {
+                insertVehicles(vehicles, accessories);
+            }
+        }
+        insertVehicles(vehicles, accessories);
+    }
+
+    private void insertVehicles(List<Object[]> vehicles, List<Object[]> accessories) {
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (id, garage_id, brand, model, manufacturing_year, fuel_type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", vehicles);
+        jdbcTemplate.batchUpdate("INSERT INTO accessories (id, vehicle_id, name, description, price, type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", accessories);
+        vehicles.clear();
+        accessories.clear();
+    }
+
+    private record Endpoint(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+
+        Endpoint withWeight(int newWeight) {
+            return new Endpoint(name, newWeight, request);
+        }
+    }
+}
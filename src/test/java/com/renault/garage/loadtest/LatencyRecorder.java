@@ -0,0 +1,54 @@
+package com.renault.garage.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latences d'un endpoint enregistrées par un seul client (non thread-safe),
+ * fusionnées en fin de test pour calculer des percentiles exacts.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /**
+     * Percentile (méthode du rang le plus proche), en millisecondes.
+     * Trie les latences enregistrées : à appeler une fois l'enregistrement terminé.
+     */
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies, 0, count);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return latencies[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
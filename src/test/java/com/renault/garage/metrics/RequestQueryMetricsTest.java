@@ -0,0 +1,113 @@
+package com.renault.garage.metrics;
+
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.VehicleRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Transactional
+@ActiveProfiles("test")
+class RequestQueryMetricsTest {
+
+    private static final String VEHICLES_URI = "/api/garages/{garageId}/vehicles";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Métriques - instructions SQL et entités chargées comptées par requête HTTP")
+    void countsHibernateWorkPerRequest() throws Exception {
+        Garage garage = garageRepository.save(new Garage("Garage Renault Rabat", "Avenue Hassan II, Rabat",
+                "0537123456", "rabat@renault.ma"));
+        for (String model : new String[] {"Clio", "Megane", "Captur"}) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setBrand("Renault");
+            vehicle.setModel(model);
+            vehicle.setManufacturingYear(2023);
+            vehicle.setFuelType(FuelType.ESSENCE);
+            vehicle.setGarage(garage);
+            vehicleRepository.save(vehicle);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        long before = summaryCount("hibernate.request.statements");
+
+        mockMvc.perform(get("/api/garages/{garageId}/vehicles", garage.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(summaryCount("hibernate.request.statements")).isEqualTo(before + 1);
+        assertThat(summary("hibernate.request.statements").max()).isGreaterThanOrEqualTo(2);
+        // Les véhicules sont lus en projection : aucune entité chargée
+        assertThat(summary("hibernate.request.entity.loads").max()).isZero();
+        assertThat(meterRegistry.find("hibernate.request.collection.fetches").tag("uri", VEHICLES_URI)
+                .summary()).isNotNull();
+
+        mockMvc.perform(get("/api/garages/{id}", garage.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("hibernate.request.entity.loads").tag("uri", "/api/garages/{id}")
+                .summary().max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Métriques - timers des services et distributions exposés au format Prometheus")
+    void exposesServiceTimersToPrometheus() throws Exception {
+        mockMvc.perform(get("/api/garages"))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.find("garage.service").tag("method", "getAllGarages").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("garage_service_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_request_statements_bucket")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.get(name).tag("method", "GET").tag("uri", VEHICLES_URI).summary();
+    }
+
+    private long summaryCount(String name) {
+        DistributionSummary summary = meterRegistry.find(name).tag("method", "GET").tag("uri", VEHICLES_URI)
+                .summary();
+        return summary == null ? 0 : summary.count();
+    }
+}
@@ -0,0 +1,228 @@
+package com.renault.garage.repository;
+
+import com.renault.garage.entity.Garage;
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, avec EXPLAIN, que chaque requête dérivée ou {@code @Query} des
+ * repositories s'appuie sur un index plutôt que sur un parcours complet de table.
+ * <p>
+ * Ne sont pas vérifiés : les chargements complets destinés aux index en mémoire
+ * ({@link #FULL_LOADS}). Toute autre méthode de requête, trouvée par réflexion
+ * sur les repositories, doit être vérifiée.
+ * Les recherches par sous-chaîne ({@code LIKE '%...%'}) ne peuvent pas utiliser
+ * un index B-tree : le parcours de la table concernée y est explicitement admis.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.renault.garage.repository.CapturingStatementInspector")
+@Transactional
+@ActiveProfiles("test")
+class RepositoryQueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+    private static final Pageable PAGE_BY_NAME = PageRequest.of(0, 10, Sort.by("name"));
+
+    /**
+     * Chargements complets destinés aux index en mémoire, lus une fois par
+     * reconstruction : le parcours de la table y est attendu.
+     */
+    private static final Set<String> FULL_LOADS = Set.of(
+            "GarageRepository.findAllNames",
+            "GarageRepository.findAllLocations",
+            "GarageRepository.findAllOpeningHours",
+            "VehicleRepository.findAllFuelTypes",
+            "AccessoryRepository.findAllGarageLinks");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private AccessoryRepository accessoryRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Set<String> checked = new HashSet<>();
+    private Class<?> repository;
+
+    @Test
+    @DisplayName("Repositories - chaque méthode de requête est vérifiée ou explicitement exclue")
+    void everyQueryMethodIsCheckedOrExcluded() {
+        garageRepositoryUsesIndexes();
+        garageNameSearchesOnlyScanGarages();
+        vehicleRepositoryUsesIndexes();
+        accessoryRepositoryUsesIndexes();
+        outboxEventRepositoryUsesIndexes();
+
+        Repositories repositories = new Repositories(applicationContext);
+        Set<String> queryMethods = StreamSupport.stream(repositories.spliterator(), false)
+                .map(repositories::getRequiredRepositoryInformation)
+                .flatMap(RepositoryQueryPlanTest::queryMethodNames)
+                .collect(Collectors.toSet());
+        assertThat(queryMethods).as("méthodes de requête ni vérifiées ni exclues")
+                .isSubsetOf(union(checked, FULL_LOADS));
+        assertThat(union(checked, FULL_LOADS)).as("méthodes vérifiées ou exclues inexistantes")
+                .isSubsetOf(queryMethods);
+    }
+
+    @Test
+    @DisplayName("GarageRepository - requêtes servies par index")
+    void garageRepositoryUsesIndexes() {
+        repository = GarageRepository.class;
+        assertUsesIndexes("findByCity", () -> garageRepository.findByCity("Casablanca", PAGE));
+        assertUsesIndexes("findAllSummaries", () -> garageRepository.findAllSummaries(PAGE_BY_NAME));
+        assertUsesIndexes("findIdsByVehicleFuelType",
+                () -> garageRepository.findIdsByVehicleFuelType(FuelType.ELECTRIC));
+        assertUsesIndexes("findSummariesByIdIn", () -> garageRepository.findSummariesByIdIn(List.of(1L, 2L)));
+        assertUsesIndexes("streamAllOrderById", () -> {
+            try (Stream<Garage> garages = garageRepository.streamAllOrderById()) {
+                garages.findFirst();
+            }
+        });
+        assertUsesIndexes("findFirstPageOrderByNameAndId",
+                () -> garageRepository.findFirstPageOrderByNameAndId(PAGE));
+        assertUsesIndexes("findPageAfterOrderByNameAndId",
+                () -> garageRepository.findPageAfterOrderByNameAndId("Garage", 1L, PAGE));
+        assertUsesIndexes("findByVehicleFuelType",
+                () -> garageRepository.findByVehicleFuelType(FuelType.ELECTRIC, PAGE_BY_NAME));
+        assertUsesIndexes("findByAccessoryName",
+                () -> garageRepository.findByAccessoryName("gps", PAGE_BY_NAME));
+        assertUsesIndexes("findByVehicleModel", () -> garageRepository.findByVehicleModel("Clio"));
+        assertUsesIndexes("findOpeningHoursByGarageIds",
+                () -> garageRepository.findOpeningHoursByGarageIds(List.of(1L, 2L)));
+        assertUsesIndexes("countVehiclesByFuelType", () -> garageRepository.countVehiclesByFuelType(1L));
+        assertUsesIndexes("reserveVehicleSlots", () -> garageRepository.reserveVehicleSlots(1L, 1, 50));
+        assertUsesIndexes("decrementVehicleCount", () -> garageRepository.decrementVehicleCount(1L));
+    }
+
+    @Test
+    @DisplayName("GarageRepository - recherches par sous-chaîne du nom")
+    void garageNameSearchesOnlyScanGarages() {
+        repository = GarageRepository.class;
+        assertUsesIndexes("findByNameContainingIgnoreCase",
+                () -> garageRepository.findByNameContainingIgnoreCase("casa", PAGE_BY_NAME), "GARAGES");
+        assertUsesIndexes("findSummariesByNameContainingIgnoreCase",
+                () -> garageRepository.findSummariesByNameContainingIgnoreCase("casa", PAGE_BY_NAME), "GARAGES");
+        assertUsesIndexes("searchFirstPageByNameOrderByNameAndId",
+                () -> garageRepository.searchFirstPageByNameOrderByNameAndId("casa", PAGE), "GARAGES");
+        assertUsesIndexes("searchPageAfterByNameOrderByNameAndId",
+                () -> garageRepository.searchPageAfterByNameOrderByNameAndId("casa", "Garage", 1L, PAGE),
+                "GARAGES");
+    }
+
+    @Test
+    @DisplayName("VehicleRepository - requêtes servies par index")
+    void vehicleRepositoryUsesIndexes() {
+        repository = VehicleRepository.class;
+        assertUsesIndexes("findByIdForUpdate", () -> vehicleRepository.findByIdForUpdate(1L));
+        assertUsesIndexes("findByGarageId", () -> vehicleRepository.findByGarageId(1L));
+        assertUsesIndexes("findByGarageId (page)", () -> vehicleRepository.findByGarageId(1L, PAGE));
+        assertUsesIndexes("findByGarageIdIn", () -> vehicleRepository.findByGarageIdIn(List.of(1L, 2L)));
+        assertUsesIndexes("findByModel", () -> vehicleRepository.findByModel("Clio"));
+        assertUsesIndexes("findByBrand", () -> vehicleRepository.findByBrand("Renault"));
+        assertUsesIndexes("findByFuelType", () -> vehicleRepository.findByFuelType(FuelType.DIESEL));
+        assertUsesIndexes("countByGarageId", () -> vehicleRepository.countByGarageId(1L));
+        assertUsesIndexes("findByBrandAndModel", () -> vehicleRepository.findByBrandAndModel("Renault", "Clio"));
+    }
+
+    @Test
+    @DisplayName("AccessoryRepository - requêtes servies par index")
+    void accessoryRepositoryUsesIndexes() {
+        repository = AccessoryRepository.class;
+        assertUsesIndexes("findByVehicleId", () -> accessoryRepository.findByVehicleId(1L));
+        assertUsesIndexes("findByVehicleIdIn", () -> accessoryRepository.findByVehicleIdIn(List.of(1L, 2L)));
+        assertUsesIndexes("findByType", () -> accessoryRepository.findByType(AccessoryType.ELECTRONIC));
+        assertUsesIndexes("findByNameContainingIgnoreCase",
+                () -> accessoryRepository.findByNameContainingIgnoreCase("gps"), "ACCESSORIES");
+    }
+
+    @Test
+    @DisplayName("OutboxEventRepository - requêtes servies par index")
+    void outboxEventRepositoryUsesIndexes() {
+        repository = OutboxEventRepository.class;
+        assertUsesIndexes("findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc",
+                () -> outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(PAGE));
+        assertUsesIndexes("markPublished",
+                () -> outboxEventRepository.markPublished(List.of(1L, 2L), LocalDateTime.now()));
+        assertUsesIndexes("markFailed",
+                () -> outboxEventRepository.markFailed(1L, 1, "broker indisponible", null));
+        assertUsesIndexes("deletePublishedBefore",
+                () -> outboxEventRepository.deletePublishedBefore(LocalDateTime.now()));
+    }
+
+    private static Stream<String> queryMethodNames(RepositoryInformation information) {
+        return information.getQueryMethods().stream()
+                .map(method -> information.getRepositoryInterface().getSimpleName() + "." + method.getName());
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    /**
+     * Exécute l'appel puis vérifie le plan de chaque requête SQL générée. La
+     * méthode est comptée comme vérifiée pour le repository courant.
+     *
+     * @param method       nom de la méthode, suivi le cas échéant d'une précision
+     *                     entre parenthèses
+     * @param allowedScans tables dont le parcours complet est admis
+     */
+    private void assertUsesIndexes(String method, Runnable call, String... allowedScans) {
+        checked.add(repository.getSimpleName() + "." + method.split(" ")[0]);
+        List<String> statements = CapturingStatementInspector.capture(call);
+        assertThat(statements).as(method).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher scan = TABLE_SCAN.matcher(plan);
+            while (scan.find()) {
+                assertThat(Set.of(allowedScans))
+                        .as("%s : parcours complet de %s%n%s", method, scan.group(1), plan)
+                        .contains(scan.group(1));
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+}
@@ -7,6 +7,7 @@ import com.renault.garage.enums.AccessoryType;
 import com.renault.garage.enums.FuelType;
 import com.renault.garage.exception.AccessoryNotFoundException;
 import com.renault.garage.exception.VehicleNotFoundException;
+import com.renault.garage.index.AccessoryGarageIndex;
 import com.renault.garage.mapper.AccessoryMapper;
 import com.renault.garage.repository.AccessoryRepository;
 import com.renault.garage.repository.VehicleRepository;
@@ -39,6 +40,9 @@ class AccessoryServiceTest {
     @Mock
     private AccessoryMapper mapper;
 
+    @Mock
+    private AccessoryGarageIndex accessoryGarageIndex;
+
     @InjectMocks
     private AccessoryService accessoryService;
 
@@ -78,6 +82,8 @@ class AccessoryServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getNom()).isEqualTo("GPS Navigation");
         verify(accessoryRepository).save(any(Accessory.class));
+        verify(accessoryGarageIndex).onAccessorySaved(accessory.getId(), accessory.getName(),
+                vehicle.getGarage() != null ? vehicle.getGarage().getId() : null);
     }
 
     @Test
@@ -126,6 +132,7 @@ class AccessoryServiceTest {
 
         assertThat(result.getNom()).isEqualTo("GPS Navigation Pro");
         verify(mapper).updateFromDto(updateDto, accessory);
+        verify(accessoryGarageIndex).onAccessoryRenamed(accessory.getId(), accessory.getName());
     }
 
     @Test
@@ -145,6 +152,7 @@ class AccessoryServiceTest {
         accessoryService.deleteAccessory(1L);
 
         verify(accessoryRepository).deleteById(1L);
+        verify(accessoryGarageIndex).onAccessoriesDeleted(List.of(1L));
     }
 
     @Test
@@ -0,0 +1,65 @@
+package com.renault.garage.service;
+
+import com.renault.garage.dto.VehicleDto;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cohérence du cache des garages avec des transactions réellement validées :
+ * pas de @Transactional ici.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GarageCacheConsistencyTest {
+
+    @Autowired
+    private GarageService garageService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @AfterEach
+    void tearDown() {
+        vehicleRepository.deleteAllInBatch();
+        garageRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Cache garages - vehicleCount jamais périmé après ajout ou suppression de véhicule")
+    void vehicleCountIsNeverStale() {
+        Long garageId = garageRepository.save(new Garage("Garage Cache", "Adresse", "0522000000",
+                "cache@renault.ma")).getId();
+        assertThat(garageService.getGarageById(garageId).getVehicleCount()).isZero();
+
+        VehicleDto vehicle = vehicleService.addVehicleToGarage(garageId, vehicleDto());
+        assertThat(garageService.getGarageById(garageId).getVehicleCount()).isEqualTo(1);
+
+        vehicleService.deleteVehicle(vehicle.getId());
+        assertThat(garageService.getGarageById(garageId).getVehicleCount()).isZero();
+    }
+
+    private VehicleDto vehicleDto() {
+        VehicleDto dto = new VehicleDto();
+        dto.setBrand("Renault");
+        dto.setModel("Clio");
+        dto.setAnneeFabrication(2023);
+        dto.setTypeCarburant(FuelType.ESSENCE);
+        return dto;
+    }
+}
@@ -0,0 +1,118 @@
+package com.renault.garage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renault.garage.entity.Accessory;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class GarageExportServiceTest {
+
+    private static final int GARAGES = 2 * GarageExportService.CHUNK_SIZE + 50;
+    private static final String PREFIX = "Export ";
+
+    @Autowired
+    private GarageExportService garageExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < GARAGES; i++) {
+            Garage garage = new Garage(PREFIX + i, "Adresse " + i, "0522000000", "export" + i + "@renault.ma");
+            garage.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+            entityManager.persist(garage);
+            if (i % 10 == 0) {
+                Vehicle vehicle = new Vehicle("Renault", "Clio", 2023, FuelType.ELECTRIC);
+                vehicle.setGarage(garage);
+                Accessory accessory = new Accessory("GPS", "Navigation", BigDecimal.TEN, AccessoryType.ELECTRONIC);
+                accessory.setVehicle(vehicle);
+                vehicle.getAccessories().add(accessory);
+                entityManager.persist(vehicle);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Export NDJSON - une ligne par garage, par id croissant, avec véhicules et accessoires")
+    void exportsOneLinePerGarageWithVehicles() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = garageExportService.exportGarages(output, true);
+
+        List<JsonNode> lines = exportedGarages(output);
+        assertThat(lines).hasSize(GARAGES);
+        assertThat(exported).isGreaterThanOrEqualTo(GARAGES);
+        assertThat(lines).extracting(line -> line.get("id").asLong()).isSorted();
+        assertThat(lines.get(0).get("horairesOuverture").get("MONDAY")).hasSize(1);
+        assertThat(lines.get(0).get("vehicles")).hasSize(1);
+        assertThat(lines.get(0).get("vehicles").get(0).get("model").asText()).isEqualTo("Clio");
+        assertThat(lines.get(0).get("vehicles").get(0).get("accessories").get(0).get("nom").asText())
+                .isEqualTo("GPS");
+        assertThat(lines.get(1).get("vehicles")).isEmpty();
+
+        // Un curseur, puis trois requêtes par tranche : pas de chargement garage par garage
+        long chunks = (exported + GarageExportService.CHUNK_SIZE - 1) / GarageExportService.CHUNK_SIZE;
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + 3 * chunks);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Export NDJSON - sans véhicules sur demande")
+    void exportsGaragesWithoutVehicles() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        garageExportService.exportGarages(output, false);
+
+        List<JsonNode> lines = exportedGarages(output);
+        assertThat(lines).hasSize(GARAGES);
+        assertThat(lines).allSatisfy(line -> assertThat(line.has("vehicles")).isFalse());
+        assertThat(output.toString(StandardCharsets.UTF_8)).endsWith("\n");
+    }
+
+    private List<JsonNode> exportedGarages(ByteArrayOutputStream output) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode garage = objectMapper.readTree(line);
+            if (garage.get("name").asText().startsWith(PREFIX)) {
+                lines.add(garage);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,181 @@
+package com.renault.garage.service;
+
+import com.renault.garage.dto.GarageImportReport;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.exception.InvalidImportFileException;
+import com.renault.garage.index.GarageLocationIndex;
+import com.renault.garage.index.GarageNameIndex;
+import com.renault.garage.index.GarageScheduleIndex;
+import com.renault.garage.repository.GarageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "app.import.batch-size=2")
+@Transactional
+@ActiveProfiles("test")
+class GarageImportServiceTest {
+
+    private static final String HOURS = "{\"MONDAY\":[{\"startTime\":\"08:00\",\"endTime\":\"12:00\"}]}";
+
+    @Autowired
+    private GarageImportService garageImportService;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private GarageNameIndex garageNameIndex;
+
+    @Autowired
+    private GarageScheduleIndex garageScheduleIndex;
+
+    @Autowired
+    private GarageLocationIndex garageLocationIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Import NDJSON - les lignes invalides sont rejetées sans interrompre l'import")
+    void importsNdjsonAndReportsInvalidLines() throws Exception {
+        String ndjson = String.join("\n",
+                garageJson(1, "import1@renault.ma"),
+                "{\"name\": ",
+                "",
+                garageJson(2, "pas-un-email"),
+                garageJson(3, "import3@renault.ma"),
+                garageJson(4, "import4@renault.ma"));
+
+        GarageImportReport report = garageImportService.importGarages(stream(ndjson),
+                GarageImportService.Format.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(GarageImportReport.LineError::getLine).containsExactly(2L, 4L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("JSON invalide");
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("email : L'email doit être valide");
+
+        List<Garage> garages = importedGarages();
+        assertThat(garages).extracting(Garage::getName)
+                .containsExactlyInAnyOrder("Import 1", "Import 3", "Import 4");
+        assertThat(garages.get(0).getOpeningHours()).extracting(OpeningTime::getDayOfWeek)
+                .containsExactly(DayOfWeek.MONDAY);
+    }
+
+    @Test
+    @DisplayName("Import CSV - colonnes dans un ordre quelconque, champs entre guillemets et horaires")
+    void importsCsvWithOpeningHours() throws Exception {
+        String csv = String.join("\n",
+                "\uFEFFemail,name,address,telephone,horairesOuverture",
+                "import1@renault.ma,Import 1,\"12, rue \"\"Centrale\"\"\",0522000000,"
+                        + "MONDAY=08:00-12:00|14:00-18:00;SATURDAY=09:00-12:00",
+                "import2@renault.ma,Import 2,Adresse,0522000000,FUNDAY=08:00-12:00",
+                "import3@renault.ma,Import 3,Adresse,0522000000");
+
+        GarageImportReport report = garageImportService.importGarages(stream(csv),
+                GarageImportService.Format.CSV);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(GarageImportReport.LineError::getMessage)
+                .containsExactly("Jour inconnu : FUNDAY", "4 champs au lieu de 5");
+
+        Garage garage = importedGarages().get(0);
+        assertThat(garage.getAddress()).isEqualTo("12, rue \"Centrale\"");
+        assertThat(garage.getOpeningHours())
+                .extracting(OpeningTime::getDayOfWeek, OpeningTime::getStartTime)
+                .containsExactlyInAnyOrder(
+                        tuple(DayOfWeek.MONDAY, LocalTime.of(8, 0)),
+                        tuple(DayOfWeek.MONDAY, LocalTime.of(14, 0)),
+                        tuple(DayOfWeek.SATURDAY, LocalTime.of(9, 0)));
+    }
+
+    @Test
+    @DisplayName("Import CSV - coordonnées facultatives")
+    void importsCsvWithCoordinates() throws Exception {
+        String csv = String.join("\n",
+                "name,address,telephone,email,horairesOuverture,latitude,longitude",
+                "Import 1,Adresse,0522000000,import1@renault.ma,MONDAY=08:00-12:00,33.5731,-7.5898",
+                "Import 2,Adresse,0522000000,import2@renault.ma,MONDAY=08:00-12:00,,",
+                "Import 3,Adresse,0522000000,import3@renault.ma,MONDAY=08:00-12:00,nord,-7.5898",
+                "Import 4,Adresse,0522000000,import4@renault.ma,MONDAY=08:00-12:00,95,-7.5898");
+
+        GarageImportReport report = garageImportService.importGarages(stream(csv),
+                GarageImportService.Format.CSV);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(GarageImportReport.LineError::getMessage)
+                .containsExactly("Coordonnée invalide : nord",
+                        "latitude : La latitude doit être comprise entre -90 et 90");
+        assertThat(importedGarages())
+                .extracting(Garage::getName, Garage::getLatitude, Garage::getLongitude)
+                .containsExactlyInAnyOrder(
+                        tuple("Import 1", 33.5731, -7.5898),
+                        tuple("Import 2", null, null));
+    }
+
+    @Test
+    @DisplayName("Import CSV - en-tête incomplet")
+    void rejectsCsvWithoutRequiredColumn() {
+        assertThatThrownBy(() -> garageImportService.importGarages(stream("name,address,telephone,email\n"),
+                GarageImportService.Format.CSV))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageContaining("horairesOuverture");
+    }
+
+    @Test
+    @DisplayName("Import - le nombre d'erreurs rapportées est plafonné")
+    void capsReportedErrors() throws Exception {
+        String ndjson = "{}\n".repeat(1500);
+
+        GarageImportReport report = garageImportService.importGarages(stream(ndjson),
+                GarageImportService.Format.NDJSON);
+
+        assertThat(report.getRejected()).isEqualTo(1500);
+        assertThat(report.getErrors()).hasSize(1000);
+    }
+
+    /**
+     * Les garages importés ne sont pas validés : les index des noms, des
+     * horaires et des coordonnées sont reconstruits après le rollback du test.
+     */
+    @AfterTransaction
+    void rebuildIndexes() {
+        garageNameIndex.rebuild();
+        garageScheduleIndex.rebuild();
+        garageLocationIndex.rebuild();
+    }
+
+    private List<Garage> importedGarages() {
+        entityManager.clear();
+        return garageRepository.findByNameContainingIgnoreCase("Import ", PageRequest.of(0, 10)).getContent();
+    }
+
+    private static String garageJson(int i, String email) {
+        return "{\"id\": 42, \"name\": \"Import " + i + "\", \"address\": \"Adresse " + i
+                + "\", \"telephone\": \"0522000000\", \"email\": \"" + email
+                + "\", \"horairesOuverture\": " + HOURS + "}";
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
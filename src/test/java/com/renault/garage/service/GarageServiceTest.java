@@ -1,29 +1,53 @@
 package com.renault.garage.service;
 
+import com.renault.garage.cache.GarageDtoCache;
 import com.renault.garage.dto.GarageDto;
+import com.renault.garage.dto.NearbyGarageDto;
 import com.renault.garage.entity.Garage;
 import com.renault.garage.enums.FuelType;
 import com.renault.garage.exception.GarageNotFoundException;
+import com.renault.garage.exception.InvalidCoordinatesException;
+import com.renault.garage.exception.UnsupportedSortException;
+import com.renault.garage.index.AccessoryGarageIndex;
+import com.renault.garage.index.GarageFuelTypeIndex;
+import com.renault.garage.index.GarageLocationIndex;
+import com.renault.garage.index.GarageNameIndex;
+import com.renault.garage.index.GarageScheduleIndex;
 import com.renault.garage.mapper.GarageMapper;
 import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.projection.GarageLocationView;
+import com.renault.garage.repository.projection.GarageNameView;
+import com.renault.garage.repository.projection.GarageOpeningTimeView;
+import com.renault.garage.repository.projection.GarageSummaryView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongPredicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,10 +59,29 @@ class GarageServiceTest {
     @Mock
     private GarageMapper mapper;
 
+    @Mock
+    private AccessoryGarageIndex accessoryGarageIndex;
+
+    @Mock
+    private GarageFuelTypeIndex garageFuelTypeIndex;
+
+    @Mock
+    private GarageNameIndex garageNameIndex;
+
+    @Mock
+    private GarageScheduleIndex garageScheduleIndex;
+
+    @Mock
+    private GarageLocationIndex garageLocationIndex;
+
+    @Spy
+    private GarageDtoCache garageDtoCache = new GarageDtoCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private GarageService garageService;
 
     private Garage garage;
+    private GarageSummaryView summary;
     private GarageDto garageDto;
 
     @BeforeEach
@@ -46,6 +89,8 @@ class GarageServiceTest {
         garage = new Garage("Garage Renault Casablanca", "123 Boulevard Zerktouni", "0522123456",
                 "casablanca@renault.ma");
         garage.setId(1L);
+        summary = new GarageSummaryView(1L, "Garage Renault Casablanca", "123 Boulevard Zerktouni", "0522123456",
+                "casablanca@renault.ma", 33.5731, -7.5898, 0);
 
         garageDto = new GarageDto();
         garageDto.setId(1L);
@@ -73,7 +118,7 @@ class GarageServiceTest {
     @DisplayName("Récupérer un garage par ID - succès")
     void getGarageById_Success() {
         when(garageRepository.findById(1L)).thenReturn(Optional.of(garage));
-        when(mapper.toDto(garage)).thenReturn(garageDto);
+        when(mapper.toDto(eq(garage), anyList())).thenReturn(garageDto);
 
         GarageDto result = garageService.getGarageById(1L);
 
@@ -82,6 +127,21 @@ class GarageServiceTest {
         assertThat(result.getName()).isEqualTo("Garage Renault Casablanca");
     }
 
+    @Test
+    @DisplayName("Récupérer un garage par ID - servi par le cache jusqu'à invalidation")
+    void getGarageById_CachedUntilInvalidated() {
+        when(garageRepository.findById(1L)).thenReturn(Optional.of(garage));
+        when(mapper.toDto(eq(garage), anyList())).thenReturn(garageDto);
+
+        garageService.getGarageById(1L);
+        garageService.getGarageById(1L);
+        verify(garageRepository, times(1)).findById(1L);
+
+        garageDtoCache.invalidateAfterCommit(1L);
+        garageService.getGarageById(1L);
+        verify(garageRepository, times(2)).findById(1L);
+    }
+
     @Test
     @DisplayName("Récupérer un garage par ID - non trouvé")
     void getGarageById_NotFound() {
@@ -96,16 +156,20 @@ class GarageServiceTest {
     @DisplayName("Lister tous les garages avec pagination")
     void getAllGarages_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Garage> garagePage = new PageImpl<>(List.of(garage));
+        Page<GarageSummaryView> garagePage = new PageImpl<>(List.of(summary));
 
-        when(garageRepository.findAll(pageable)).thenReturn(garagePage);
-        when(mapper.toDto(garage)).thenReturn(garageDto);
+        when(garageRepository.findAllSummaries(pageable)).thenReturn(garagePage);
+        when(garageRepository.findOpeningHoursByGarageIds(List.of(1L))).thenReturn(List.of(
+                new GarageOpeningTimeView(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0))));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
 
         Page<GarageDto> result = garageService.getAllGarages(pageable);
 
         assertThat(result).isNotEmpty();
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getName()).isEqualTo("Garage Renault Casablanca");
+        verify(mapper).toDto(eq(summary), argThat(hours -> hours.size() == 1));
+        verify(garageRepository, never()).findAll(pageable);
     }
 
     @Test
@@ -144,6 +208,12 @@ class GarageServiceTest {
         garageService.deleteGarage(1L);
 
         verify(garageRepository).deleteById(1L);
+        verify(accessoryGarageIndex).onGarageDeleted(1L);
+        verify(garageFuelTypeIndex).onGarageDeleted(1L);
+        verify(garageNameIndex).onGarageDeleted(1L);
+        verify(garageScheduleIndex).onGarageDeleted(1L);
+        verify(garageLocationIndex).onGarageDeleted(1L);
+        verify(garageDtoCache).invalidateAfterCommit(1L);
     }
 
     @Test
@@ -156,26 +226,276 @@ class GarageServiceTest {
     }
 
     @Test
-    @DisplayName("Rechercher les garages par type de carburant")
+    @DisplayName("Rechercher les garages par type de carburant - résolu par les agrégats")
+    void getGaragesByVehicleFuelType_FromIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+        BitSet garageIds = new BitSet();
+        garageIds.set(1);
+        when(garageFuelTypeIndex.findGarageIds(FuelType.ELECTRIC)).thenReturn(Optional.of(garageIds));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getGaragesByVehicleFuelType(FuelType.ELECTRIC, pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        verify(garageRepository, never()).findByVehicleFuelType(any(), any());
+    }
+
+    @Test
+    @DisplayName("Répartition par carburant - garage non trouvé")
+    void getFuelMix_NotFound() {
+        when(garageRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> garageService.getFuelMix(99L))
+                .isInstanceOf(GarageNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par type de carburant - agrégats non construits")
     void getGaragesByVehicleFuelType_Success() {
-        when(garageRepository.findByVehicleFuelType(FuelType.ELECTRIC)).thenReturn(List.of(garage));
-        when(mapper.toDtoList(List.of(garage))).thenReturn(List.of(garageDto));
+        Pageable pageable = PageRequest.of(0, 10);
+        when(garageRepository.findByVehicleFuelType(FuelType.ELECTRIC, pageable))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
 
-        List<GarageDto> result = garageService.getGaragesByVehicleFuelType(FuelType.ELECTRIC);
+        Page<GarageDto> result = garageService.getGaragesByVehicleFuelType(FuelType.ELECTRIC, pageable);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("Garage Renault Casablanca");
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getName()).isEqualTo("Garage Renault Casablanca");
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par nom d'accessoire - résolu par l'index")
+    void getGaragesByAccessoryName_FromIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+        BitSet garageIds = new BitSet();
+        garageIds.set(1);
+        when(accessoryGarageIndex.findGarageIds("GPS")).thenReturn(Optional.of(garageIds));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getGaragesByAccessoryName("GPS", pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(garageRepository, never()).findByAccessoryName(any(), any());
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par nom d'accessoire - page découpée dans le bitmap, triée par id")
+    void getGaragesByAccessoryName_PagedById() {
+        BitSet garageIds = new BitSet();
+        garageIds.set(1, 8);
+        when(accessoryGarageIndex.findGarageIds("GPS")).thenReturn(Optional.of(garageIds));
+        when(garageRepository.findSummariesByIdIn(List.of(4L, 3L, 2L))).thenReturn(List.of(
+                summaryWithId(2L), summaryWithId(3L), summaryWithId(4L)));
+        when(mapper.toDto(any(GarageSummaryView.class), anyList())).thenAnswer(invocation -> {
+            GarageDto dto = new GarageDto();
+            dto.setId(invocation.<GarageSummaryView>getArgument(0).id());
+            return dto;
+        });
+
+        Page<GarageDto> result = garageService.getGaragesByAccessoryName("GPS",
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(result.getContent()).extracting(GarageDto::getId).containsExactly(4L, 3L, 2L);
+        assertThat(result.getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par nom d'accessoire - page triée par nom, découpée par l'index des noms")
+    void getGaragesByAccessoryName_PagedByName() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+        BitSet garageIds = new BitSet();
+        garageIds.set(1);
+        when(accessoryGarageIndex.findGarageIds("GPS")).thenReturn(Optional.of(garageIds));
+        when(garageNameIndex.findPage(garageIds, 0, 10, Sort.Direction.ASC)).thenReturn(Optional.of(List.of(1L)));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getGaragesByAccessoryName("GPS", pageable);
+
+        assertThat(result.getContent()).containsExactly(garageDto);
+        verify(garageRepository, never()).findByAccessoryName(any(), any());
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par nom d'accessoire - autre tri, requête paginée en base")
+    void getGaragesByAccessoryName_OtherSort() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("email"));
+        BitSet garageIds = new BitSet();
+        garageIds.set(1);
+        when(accessoryGarageIndex.findGarageIds("GPS")).thenReturn(Optional.of(garageIds));
+        when(garageRepository.findByAccessoryName("gps", pageable)).thenReturn(new PageImpl<>(List.of(summary)));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getGaragesByAccessoryName("GPS", pageable);
+
+        assertThat(result.getContent()).containsExactly(garageDto);
+        verify(garageRepository, never()).findSummariesByIdIn(any());
     }
 
     @Test
-    @DisplayName("Rechercher les garages par nom d'accessoire")
+    @DisplayName("Rechercher les garages par nom d'accessoire - index non construit")
     void getGaragesByAccessoryName_Success() {
-        when(garageRepository.findByAccessoryName("GPS")).thenReturn(List.of(garage));
-        when(mapper.toDtoList(List.of(garage))).thenReturn(List.of(garageDto));
+        Pageable pageable = PageRequest.of(0, 10);
+        when(accessoryGarageIndex.findGarageIds("GPS")).thenReturn(Optional.empty());
+        when(garageRepository.findByAccessoryName("gps", pageable)).thenReturn(new PageImpl<>(List.of(summary)));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getGaragesByAccessoryName("GPS", pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getName()).isEqualTo("Garage Renault Casablanca");
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages ouverts - résolu par les horaires compactés, durée bornée")
+    void getOpenGarages_FromIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+        BitSet garageIds = new BitSet();
+        garageIds.set(1);
+        when(garageScheduleIndex.findOpenGarageIds(DayOfWeek.MONDAY, LocalTime.of(10, 0),
+                GarageScheduleIndex.MAX_HOURS)).thenReturn(Optional.of(garageIds));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getOpenGarages(DayOfWeek.MONDAY, LocalTime.of(10, 0), 1000, pageable);
+
+        assertThat(result.getContent()).containsExactly(garageDto);
+        verify(garageRepository, never()).findAllOpeningHours();
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages ouverts - index non construit, horaires lus en base")
+    void getOpenGarages_FromDatabase() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(garageScheduleIndex.findOpenGarageIds(DayOfWeek.MONDAY, LocalTime.of(10, 0), 0))
+                .thenReturn(Optional.empty());
+        when(garageRepository.findAllOpeningHours()).thenReturn(List.of(
+                new GarageOpeningTimeView(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                new GarageOpeningTimeView(2L, DayOfWeek.MONDAY, LocalTime.of(14, 0), LocalTime.of(18, 0))));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.getOpenGarages(DayOfWeek.MONDAY, LocalTime.of(10, 0), 0, pageable);
+
+        assertThat(result.getContent()).containsExactly(garageDto);
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages ouverts - triés par nom, index des noms non construit, noms lus en base")
+    void getOpenGarages_ByNameFromDatabase() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "name"));
+        BitSet garageIds = new BitSet();
+        garageIds.set(1, 3);
+        when(garageScheduleIndex.findOpenGarageIds(DayOfWeek.MONDAY, LocalTime.of(10, 0), 0))
+                .thenReturn(Optional.of(garageIds));
+        when(garageNameIndex.findPage(garageIds, 0, 10, Sort.Direction.DESC)).thenReturn(Optional.empty());
+        when(garageRepository.findAllNames()).thenReturn(List.of(new GarageNameView(1L, "Garage A"),
+                new GarageNameView(2L, "Garage B"), new GarageNameView(3L, "Garage C")));
+        when(garageRepository.findSummariesByIdIn(List.of(2L, 1L))).thenReturn(List.of(summary, summaryWithId(2L)));
+        when(mapper.toDto(any(GarageSummaryView.class), anyList())).thenAnswer(invocation -> {
+            GarageDto dto = new GarageDto();
+            dto.setId(invocation.<GarageSummaryView>getArgument(0).id());
+            return dto;
+        });
+
+        Page<GarageDto> result = garageService.getOpenGarages(DayOfWeek.MONDAY, LocalTime.of(10, 0), 0, pageable);
+
+        assertThat(result.getContent()).extracting(GarageDto::getId).containsExactly(2L, 1L);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages ouverts - autre tri refusé")
+    void getOpenGarages_UnsupportedSort() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("email"));
+        when(garageScheduleIndex.findOpenGarageIds(DayOfWeek.MONDAY, LocalTime.of(10, 0), 0))
+                .thenReturn(Optional.of(new BitSet()));
+
+        assertThatThrownBy(() -> garageService.getOpenGarages(DayOfWeek.MONDAY, LocalTime.of(10, 0), 0, pageable))
+                .isInstanceOf(UnsupportedSortException.class);
+        verify(garageRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages les plus proches - résolu par la grille et les agrégats par carburant")
+    void getNearestGarages_FromIndex() {
+        LongPredicate electric = garageId -> garageId == 1L;
+        when(garageFuelTypeIndex.findGarageFilter(FuelType.ELECTRIC)).thenReturn(Optional.of(electric));
+        when(garageLocationIndex.findNearest(33.57, -7.59, 50.0, GarageService.MAX_NEAREST, electric))
+                .thenReturn(Optional.of(List.of(new GarageLocationIndex.Nearby(1L, 2.5))));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        List<NearbyGarageDto> result = garageService.getNearestGarages(33.57, -7.59, 50.0, 1000, FuelType.ELECTRIC);
+
+        assertThat(result).containsExactly(new NearbyGarageDto(garageDto, 2.5));
+        verify(garageRepository, never()).findAllLocations();
+        verify(garageRepository, never()).findIdsByVehicleFuelType(any());
+    }
 
-        List<GarageDto> result = garageService.getGaragesByAccessoryName("GPS");
+    @Test
+    @DisplayName("Rechercher les garages les plus proches - grille non construite, coordonnées lues en base")
+    void getNearestGarages_FromDatabase() {
+        when(garageLocationIndex.findNearest(anyDouble(), anyDouble(), anyDouble(), anyInt(), isNull()))
+                .thenReturn(Optional.empty());
+        when(garageRepository.findAllLocations()).thenReturn(List.of(
+                new GarageLocationView(1L, 33.5731, -7.5898),
+                new GarageLocationView(2L, 34.0209, -6.8416)));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        List<NearbyGarageDto> result = garageService.getNearestGarages(33.6, -7.6, null, 1, null);
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("Garage Renault Casablanca");
+        assertThat(result.get(0).garage()).isEqualTo(garageDto);
+        assertThat(result.get(0).distanceKm()).isLessThan(5);
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages les plus proches - coordonnées invalides")
+    void getNearestGarages_InvalidCoordinates() {
+        assertThatThrownBy(() -> garageService.getNearestGarages(91, 0, null, 10, null))
+                .isInstanceOf(InvalidCoordinatesException.class);
+        assertThatThrownBy(() -> garageService.getNearestGarages(0, Double.NaN, null, 10, null))
+                .isInstanceOf(InvalidCoordinatesException.class);
+        verifyNoInteractions(garageLocationIndex);
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par nom - résolu par l'index trigramme")
+    void searchGaragesByName_FromIndex() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+        when(garageNameIndex.findByName("casa", 0, 10, Sort.Direction.ASC))
+                .thenReturn(Optional.of(new GarageNameIndex.Matches(List.of(1L), 1)));
+        when(garageRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.searchGaragesByName("casa", pageable);
+
+        assertThat(result.getContent()).containsExactly(garageDto);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(garageRepository, never()).findSummariesByNameContainingIgnoreCase(any(), any());
+    }
+
+    @Test
+    @DisplayName("Rechercher les garages par nom - tri autre que le nom en base")
+    void searchGaragesByName_OtherSortFromDatabase() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("email"));
+        when(garageRepository.findSummariesByNameContainingIgnoreCase("casa", pageable))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+        when(mapper.toDto(eq(summary), anyList())).thenReturn(garageDto);
+
+        Page<GarageDto> result = garageService.searchGaragesByName("casa", pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        verifyNoInteractions(garageNameIndex);
+    }
+
+    private static GarageSummaryView summaryWithId(Long id) {
+        return new GarageSummaryView(id, "Garage " + id, "Adresse " + id, "0522123456", "garage" + id + "@renault.ma",
+                null, null, 0);
     }
 }
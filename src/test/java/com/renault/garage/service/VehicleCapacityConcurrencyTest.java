@@ -0,0 +1,143 @@
+package com.renault.garage.service;
+
+import com.renault.garage.dto.VehicleDto;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.exception.GarageCapacityExceededException;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de charge multi-thread de la réservation de capacité des garages.
+ * Les transactions sont réellement validées : pas de @Transactional ici.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VehicleCapacityConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleCapacityConcurrencyTest.class);
+
+    private static final int MAX_VEHICLES = 50;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @AfterEach
+    void tearDown() {
+        vehicleRepository.deleteAllInBatch();
+        garageRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Insertions concurrentes sur un même garage - la capacité n'est jamais dépassée")
+    void concurrentInsertsOnOneGarage_NeverExceedCapacity() throws Exception {
+        Long garageId = createGarage("Garage Concurrence").getId();
+        int attempts = MAX_VEHICLES * 4;
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(attempts, i -> {
+            try {
+                vehicleService.addVehicleToGarage(garageId, vehicleDto(i));
+                accepted.incrementAndGet();
+            } catch (GarageCapacityExceededException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(accepted.get()).isEqualTo(MAX_VEHICLES);
+        assertThat(rejected.get()).isEqualTo(attempts - MAX_VEHICLES);
+        assertThat(vehicleRepository.countByGarageId(garageId)).isEqualTo(MAX_VEHICLES);
+        assertThat(garageRepository.findById(garageId).orElseThrow().getVehicleCount()).isEqualTo(MAX_VEHICLES);
+    }
+
+    @Test
+    @DisplayName("Insertions concurrentes sur plusieurs garages - aucune sérialisation entre garages")
+    void concurrentInsertsOnManyGarages_AllAcceptedWithThroughput() throws Exception {
+        int garageCount = 20;
+        List<Long> garageIds = new ArrayList<>();
+        for (int i = 0; i < garageCount; i++) {
+            garageIds.add(createGarage("Garage " + i).getId());
+        }
+        int attempts = garageCount * MAX_VEHICLES;
+
+        long start = System.nanoTime();
+        runConcurrently(attempts, i -> vehicleService.addVehicleToGarage(garageIds.get(i % garageCount), vehicleDto(i)));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double throughput = attempts / seconds;
+        logger.info("{} insertions sur {} garages avec {} threads en {} s ({} insertions/s)",
+                attempts, garageCount, THREADS, String.format("%.2f", seconds), String.format("%.0f", throughput));
+
+        for (Long garageId : garageIds) {
+            assertThat(vehicleRepository.countByGarageId(garageId)).isEqualTo(MAX_VEHICLES);
+            assertThat(garageRepository.findById(garageId).orElseThrow().getVehicleCount()).isEqualTo(MAX_VEHICLES);
+        }
+        assertThat(throughput).isGreaterThan(25);
+    }
+
+    private void runConcurrently(int attempts, IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Garage createGarage(String name) {
+        return garageRepository.save(new Garage(name, "Adresse " + name, "0522000000", "stress@renault.ma"));
+    }
+
+    private VehicleDto vehicleDto(int index) {
+        VehicleDto dto = new VehicleDto();
+        dto.setBrand("Renault");
+        dto.setModel("Clio " + index);
+        dto.setAnneeFabrication(2023);
+        dto.setTypeCarburant(FuelType.ESSENCE);
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
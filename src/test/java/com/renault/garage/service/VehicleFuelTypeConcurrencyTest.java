@@ -0,0 +1,156 @@
+package com.renault.garage.service;
+
+import com.renault.garage.dto.VehicleDto;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.exception.VehicleNotFoundException;
+import com.renault.garage.index.GarageFuelTypeIndex;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.repository.VehicleRepository;
+import com.renault.garage.repository.projection.GarageFuelTypeCountView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Modifications et suppressions concurrentes d'un même véhicule : les agrégats
+ * par type de carburant restent égaux aux comptes en base.
+ * Les transactions sont réellement validées : pas de @Transactional ici.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VehicleFuelTypeConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private GarageFuelTypeIndex garageFuelTypeIndex;
+
+    @AfterEach
+    void tearDown() {
+        vehicleRepository.deleteAllInBatch();
+        garageRepository.deleteAllInBatch();
+        garageFuelTypeIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Modifications concurrentes du carburant d'un même véhicule - agrégats égaux à la base")
+    void concurrentUpdatesOfOneVehicle_KeepFuelMixConsistent() throws Exception {
+        Long garageId = createGarage("Garage Carburant").getId();
+        Long vehicleId = vehicleService.addVehicleToGarage(garageId, vehicleDto(FuelType.ESSENCE)).getId();
+
+        runConcurrently(THREADS * 8, i -> vehicleService.updateVehicle(vehicleId,
+                vehicleDto(FUEL_TYPES[i % FUEL_TYPES.length])));
+
+        Map<FuelType, Integer> fuelMix = garageFuelTypeIndex.findFuelMix(garageId).orElseThrow();
+        assertThat(fuelMix).isEqualTo(countVehiclesByFuelType(garageId));
+        assertThat(fuelMix.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Modifications et suppressions concurrentes - aucun véhicule supprimé ne reste compté")
+    void concurrentUpdatesAndDeletes_KeepFuelMixConsistent() throws Exception {
+        Long garageId = createGarage("Garage Suppression").getId();
+        List<Long> vehicleIds = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            vehicleIds.add(vehicleService.addVehicleToGarage(garageId, vehicleDto(FuelType.ESSENCE)).getId());
+        }
+
+        runConcurrently(vehicleIds.size() * 2, i -> {
+            Long vehicleId = vehicleIds.get(i / 2);
+            try {
+                if (i % 2 == 0) {
+                    vehicleService.updateVehicle(vehicleId, vehicleDto(FuelType.DIESEL));
+                } else {
+                    vehicleService.deleteVehicle(vehicleId);
+                }
+            } catch (VehicleNotFoundException e) {
+                // Modification arrivée après la suppression
+            }
+        });
+
+        assertThat(vehicleRepository.countByGarageId(garageId)).isZero();
+        assertThat(garageFuelTypeIndex.findFuelMix(garageId).orElseThrow())
+                .isEqualTo(countVehiclesByFuelType(garageId));
+        assertThat(garageFuelTypeIndex.findGarageIds(FuelType.ESSENCE).orElseThrow().get(Math.toIntExact(garageId)))
+                .isFalse();
+        assertThat(garageFuelTypeIndex.findGarageIds(FuelType.DIESEL).orElseThrow().get(Math.toIntExact(garageId)))
+                .isFalse();
+    }
+
+    private Map<FuelType, Integer> countVehiclesByFuelType(Long garageId) {
+        Map<FuelType, Integer> counts = new EnumMap<>(FuelType.class);
+        for (FuelType fuelType : FUEL_TYPES) {
+            counts.put(fuelType, 0);
+        }
+        for (GarageFuelTypeCountView count : garageRepository.countVehiclesByFuelType(garageId)) {
+            counts.put(count.fuelType(), Math.toIntExact(count.vehicleCount()));
+        }
+        return counts;
+    }
+
+    private void runConcurrently(int attempts, IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Garage createGarage(String name) {
+        return garageRepository.save(new Garage(name, "Adresse " + name, "0522000000", "carburant@renault.ma"));
+    }
+
+    private VehicleDto vehicleDto(FuelType fuelType) {
+        VehicleDto dto = new VehicleDto();
+        dto.setBrand("Renault");
+        dto.setModel("Clio");
+        dto.setAnneeFabrication(2023);
+        dto.setTypeCarburant(fuelType);
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -1,5 +1,6 @@
 package com.renault.garage.service;
 
+import com.renault.garage.cache.GarageDtoCache;
 import com.renault.garage.dto.VehicleDto;
 import com.renault.garage.entity.Garage;
 import com.renault.garage.entity.Vehicle;
@@ -8,9 +9,12 @@ import com.renault.garage.event.VehicleEventPublisher;
 import com.renault.garage.exception.GarageCapacityExceededException;
 import com.renault.garage.exception.GarageNotFoundException;
 import com.renault.garage.exception.VehicleNotFoundException;
+import com.renault.garage.index.AccessoryGarageIndex;
+import com.renault.garage.index.GarageFuelTypeIndex;
 import com.renault.garage.mapper.VehicleMapper;
 import com.renault.garage.repository.GarageRepository;
 import com.renault.garage.repository.VehicleRepository;
+import com.renault.garage.repository.projection.VehicleSummaryView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,6 +30,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,11 +48,21 @@ class VehicleServiceTest {
     @Mock
     private VehicleEventPublisher vehicleEventPublisher;
 
+    @Mock
+    private AccessoryGarageIndex accessoryGarageIndex;
+
+    @Mock
+    private GarageFuelTypeIndex garageFuelTypeIndex;
+
+    @Mock
+    private GarageDtoCache garageDtoCache;
+
     @InjectMocks
     private VehicleService vehicleService;
 
     private Garage garage;
     private Vehicle vehicle;
+    private VehicleSummaryView vehicleView;
     private VehicleDto vehicleDto;
 
     @BeforeEach
@@ -61,6 +76,7 @@ class VehicleServiceTest {
         vehicle = new Vehicle("Renault", "Clio", 2023, FuelType.ESSENCE);
         vehicle.setId(1L);
         vehicle.setGarage(garage);
+        vehicleView = new VehicleSummaryView(1L, "Renault", "Clio", 2023, FuelType.ESSENCE, 1L, garage.getName());
 
         vehicleDto = new VehicleDto();
         vehicleDto.setId(1L);
@@ -75,7 +91,7 @@ class VehicleServiceTest {
     @DisplayName("Ajouter un véhicule - succès")
     void addVehicleToGarage_Success() {
         when(garageRepository.findById(1L)).thenReturn(Optional.of(garage));
-        when(vehicleRepository.countByGarageId(1L)).thenReturn(10L);
+        when(garageRepository.reserveVehicleSlots(1L, 1, 50)).thenReturn(1);
         when(mapper.toEntity(any(VehicleDto.class))).thenReturn(vehicle);
         when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
         when(mapper.toDto(any(Vehicle.class))).thenReturn(vehicleDto);
@@ -86,16 +102,47 @@ class VehicleServiceTest {
         assertThat(result.getBrand()).isEqualTo("Renault");
         assertThat(result.getModel()).isEqualTo("Clio");
         verify(vehicleEventPublisher).publishVehicleCreated(any(Vehicle.class));
+        verify(garageDtoCache).invalidateAfterCommit(1L);
     }
 
     @Test
     @DisplayName("Ajouter un véhicule - capacité dépassée")
     void addVehicleToGarage_CapacityExceeded() {
         when(garageRepository.findById(1L)).thenReturn(Optional.of(garage));
-        when(vehicleRepository.countByGarageId(1L)).thenReturn(50L);
+        when(garageRepository.reserveVehicleSlots(1L, 1, 50)).thenReturn(0);
 
         assertThatThrownBy(() -> vehicleService.addVehicleToGarage(1L, vehicleDto))
                 .isInstanceOf(GarageCapacityExceededException.class);
+        verify(vehicleRepository, never()).save(any(Vehicle.class));
+    }
+
+    @Test
+    @DisplayName("Ajouter un lot de véhicules - succès")
+    void addVehiclesToGarage_Success() {
+        when(garageRepository.findById(1L)).thenReturn(Optional.of(garage));
+        when(garageRepository.reserveVehicleSlots(1L, 2, 50)).thenReturn(1);
+        when(mapper.toEntity(any(VehicleDto.class))).thenReturn(vehicle);
+        when(vehicleRepository.saveAll(anyList())).thenReturn(List.of(vehicle, vehicle));
+        when(mapper.toDtoList(anyList())).thenReturn(List.of(vehicleDto, vehicleDto));
+
+        List<VehicleDto> result = vehicleService.addVehiclesToGarage(1L, List.of(vehicleDto, vehicleDto));
+
+        assertThat(result).hasSize(2);
+        verify(vehicleRepository).saveAll(anyList());
+        verify(vehicleEventPublisher).publishVehiclesCreated(List.of(vehicle, vehicle));
+        verify(garageDtoCache).invalidateAfterCommit(1L);
+    }
+
+    @Test
+    @DisplayName("Ajouter un lot de véhicules - capacité dépassée pour le lot")
+    void addVehiclesToGarage_CapacityExceeded() {
+        when(garageRepository.findById(1L)).thenReturn(Optional.of(garage));
+        when(garageRepository.reserveVehicleSlots(1L, 2, 50)).thenReturn(0);
+
+        assertThatThrownBy(() -> vehicleService.addVehiclesToGarage(1L, List.of(vehicleDto, vehicleDto)))
+                .isInstanceOf(GarageCapacityExceededException.class)
+                .hasMessageContaining("2 véhicules");
+        verify(vehicleRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -111,8 +158,8 @@ class VehicleServiceTest {
     @DisplayName("Lister les véhicules d'un garage - succès")
     void getVehiclesByGarage_Success() {
         when(garageRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.findByGarageId(1L)).thenReturn(List.of(vehicle));
-        when(mapper.toDtoList(List.of(vehicle))).thenReturn(List.of(vehicleDto));
+        when(vehicleRepository.findByGarageId(1L)).thenReturn(List.of(vehicleView));
+        when(mapper.toDtoListFromViews(List.of(vehicleView))).thenReturn(List.of(vehicleDto));
 
         List<VehicleDto> result = vehicleService.getVehiclesByGarage(1L);
 
@@ -132,8 +179,8 @@ class VehicleServiceTest {
     @Test
     @DisplayName("Lister les véhicules par modèle - succès")
     void getVehiclesByModel_Success() {
-        when(vehicleRepository.findByModel("Clio")).thenReturn(List.of(vehicle));
-        when(mapper.toDtoList(List.of(vehicle))).thenReturn(List.of(vehicleDto));
+        when(vehicleRepository.findByModel("Clio")).thenReturn(List.of(vehicleView));
+        when(mapper.toDtoListFromViews(List.of(vehicleView))).thenReturn(List.of(vehicleDto));
 
         List<VehicleDto> result = vehicleService.getVehiclesByModel("Clio");
 
@@ -150,7 +197,7 @@ class VehicleServiceTest {
         updateDto.setAnneeFabrication(2024);
         updateDto.setTypeCarburant(FuelType.ESSENCE);
 
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
+        when(vehicleRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(vehicle));
         when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
         when(mapper.toDto(any(Vehicle.class))).thenReturn(updateDto);
 
@@ -160,10 +207,24 @@ class VehicleServiceTest {
         verify(mapper).updateFromDto(updateDto, vehicle);
     }
 
+    @Test
+    @DisplayName("Mettre à jour un véhicule - agrégats carburant mis à jour")
+    void updateVehicle_UpdatesFuelTypeIndex() {
+        VehicleDto updateDto = new VehicleDto();
+        updateDto.setTypeCarburant(FuelType.HYBRID);
+
+        when(vehicleRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(vehicle));
+        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
+
+        vehicleService.updateVehicle(1L, updateDto);
+
+        verify(garageFuelTypeIndex).onVehicleUpdated(vehicle, FuelType.ESSENCE);
+    }
+
     @Test
     @DisplayName("Mettre à jour un véhicule - non trouvé")
     void updateVehicle_NotFound() {
-        when(vehicleRepository.findById(99L)).thenReturn(Optional.empty());
+        when(vehicleRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> vehicleService.updateVehicle(99L, vehicleDto))
                 .isInstanceOf(VehicleNotFoundException.class);
@@ -172,17 +233,21 @@ class VehicleServiceTest {
     @Test
     @DisplayName("Supprimer un véhicule - succès")
     void deleteVehicle_Success() {
-        when(vehicleRepository.existsById(1L)).thenReturn(true);
+        when(vehicleRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(vehicle));
 
         vehicleService.deleteVehicle(1L);
 
-        verify(vehicleRepository).deleteById(1L);
+        verify(vehicleRepository).delete(vehicle);
+        verify(garageRepository).decrementVehicleCount(1L);
+        verify(accessoryGarageIndex).onAccessoriesDeleted(List.of());
+        verify(garageFuelTypeIndex).onVehicleDeleted(1L, 1L, FuelType.ESSENCE);
+        verify(garageDtoCache).invalidateAfterCommit(1L);
     }
 
     @Test
     @DisplayName("Supprimer un véhicule - non trouvé")
     void deleteVehicle_NotFound() {
-        when(vehicleRepository.existsById(99L)).thenReturn(false);
+        when(vehicleRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> vehicleService.deleteVehicle(99L))
                 .isInstanceOf(VehicleNotFoundException.class);
@@ -0,0 +1,130 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark du démarrage à chaud : export puis import d'un réseau de 20 000
+ * garages et 1 000 000 de véhicules. Exécution : {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class GarageSnapshotBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GarageSnapshotBenchmarkTest.class);
+
+    private static final int GARAGES = 20_000;
+    private static final int VEHICLES_PER_GARAGE = 50;
+    private static final int ACCESSORIES_PER_GARAGE = 10;
+    private static final List<String> MODELS = List.of("Clio", "Megane", "Captur", "Austral", "Zoe");
+    private static final List<String> FUEL_TYPES = List.of("ESSENCE", "DIESEL", "ELECTRIC", "HYBRID");
+
+    @Autowired
+    private GarageSnapshotService garageSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Vide les tables par TRUNCATE : un DELETE d'un million de lignes est trop lent sous H2.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : List.of("accessories", "vehicles", "garage_opening_hours", "garages")) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    @DisplayName("Benchmark - export et import d'un snapshot d'un million de véhicules")
+    void exportAndImportOneMillionVehicles() throws IOException {
+        insertNetwork();
+        Path snapshot = directory.resolve("garages.snapshot");
+
+        long start = System.nanoTime();
+        Counts exported;
+        try (OutputStream output = Files.newOutputStream(snapshot)) {
+            exported = garageSnapshotService.exportSnapshot(output);
+        }
+        long exportMillis = (System.nanoTime() - start) / 1_000_000;
+        tearDown();
+
+        start = System.nanoTime();
+        Counts imported;
+        try (InputStream input = Files.newInputStream(snapshot)) {
+            imported = garageSnapshotService.importSnapshot(input);
+        }
+        long importMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(imported).isEqualTo(exported);
+        assertThat(imported.vehicles()).isEqualTo((long) GARAGES * VEHICLES_PER_GARAGE);
+        logger.info("Snapshot de {} garages, {} véhicules, {} accessoires : {} octets, export {} ms, import {} ms",
+                imported.garages(), imported.vehicles(), imported.accessories(), Files.size(snapshot),
+                exportMillis, importMillis);
+    }
+
+    private void insertNetwork() {
+        List<Object[]> garages = new ArrayList<>();
+        List<Object[]> openingHours = new ArrayList<>();
+        for (int g = 1; g <= GARAGES; g++) {
+            garages.add(new Object[] {g, "Garage Renault " + g, "Adresse " + g, "Ville " + g % 50,
+                    "0522000000", "garage" + g + "@renault.ma", VEHICLES_PER_GARAGE});
+            openingHours.add(new Object[] {g, "MONDAY", LocalTime.of(8, 0), LocalTime.of(12, 0)});
+            openingHours.add(new Object[] {g, "MONDAY", LocalTime.of(14, 0), LocalTime.of(18, 0)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO garages (id, name, address, city, telephone, email, vehicle_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", garages);
+        jdbcTemplate.batchUpdate("INSERT INTO garage_opening_hours (garage_id, day_of_week, start_time, end_time) "
+                + "VALUES (?, ?, ?, ?)", openingHours);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        List<Object[]> accessories = new ArrayList<>();
+        for (int v = 1; v <= GARAGES * VEHICLES_PER_GARAGE; v++) {
+            vehicles.add(new Object[] {v, (v - 1) / VEHICLES_PER_GARAGE + 1, "Renault", MODELS.get(v % MODELS.size()),
+                    2015 + v % 10, FUEL_TYPES.get(v % FUEL_TYPES.size())});
+            if (v % (VEHICLES_PER_GARAGE / ACCESSORIES_PER_GARAGE) == 0) {
+                accessories.add(new Object[] {v, v, "GPS", "Navigation", "499.90", "ELECTRONIC"});
+            }
+            if (vehicles.size() == 10_000) {
+                insertVehicles(vehicles, accessories);
+            }
+        }
+        insertVehicles(vehicles, accessories);
+    }
+
+    private void insertVehicles(List<Object[]> vehicles, List<Object[]> accessories) {
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (id, garage_id, brand, model, manufacturing_year, fuel_type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", vehicles);
+        jdbcTemplate.batchUpdate("INSERT INTO accessories (id, vehicle_id, name, description, price, type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", accessories);
+        vehicles.clear();
+        accessories.clear();
+    }
+}
@@ -0,0 +1,132 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.snapshot.GarageSnapshot.AccessoryRow;
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import com.renault.garage.snapshot.GarageSnapshot.GarageRow;
+import com.renault.garage.snapshot.GarageSnapshot.OpeningTimeRow;
+import com.renault.garage.snapshot.GarageSnapshot.VehicleRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GarageSnapshotCodecTest {
+
+    private static final GarageRow GARAGE = new GarageRow(51, "Garage Renault Casablanca", "123 Bd Zerktouni",
+            "Casablanca", "0522123456", "casablanca@renault.ma", 2, 33.5731, -7.5898);
+    private static final GarageRow GARAGE_WITHOUT_CITY = new GarageRow(52, "Garage Fès", "Route d'Imouzzer",
+            null, "0535000000", "fes@renault.ma", 0, null, null);
+    private static final OpeningTimeRow MORNING = new OpeningTimeRow(51, DayOfWeek.MONDAY, LocalTime.of(8, 0),
+            LocalTime.of(12, 30, 15, 123_000));
+    private static final OpeningTimeRow UNKNOWN = new OpeningTimeRow(52, null, null, null);
+    private static final VehicleRow CLIO = new VehicleRow(101, 51L, "Renault", "Clio", 2023, FuelType.ESSENCE);
+    private static final VehicleRow ORPHAN = new VehicleRow(150, null, "Dacia", "Spring", 2024, FuelType.ELECTRIC);
+    private static final AccessoryRow GPS = new AccessoryRow(7, 101L, "GPS", "Navigation connectée",
+            new BigDecimal("1499.99"), AccessoryType.ELECTRONIC);
+    private static final AccessoryRow MATS = new AccessoryRow(8, null, "Tapis", null,
+            new BigDecimal("12345678901234567890.50"), AccessoryType.INTERIOR);
+
+    @Test
+    @DisplayName("Snapshot - aller-retour de tous les types d'enregistrements, valeurs nulles comprises")
+    void roundTrip() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GarageSnapshotWriter writer = new GarageSnapshotWriter(output);
+        writer.writeGarage(GARAGE);
+        writer.writeGarage(GARAGE_WITHOUT_CITY);
+        writer.writeOpeningTime(MORNING);
+        writer.writeOpeningTime(UNKNOWN);
+        writer.writeVehicle(CLIO);
+        writer.writeVehicle(ORPHAN);
+        writer.writeAccessory(GPS);
+        writer.writeAccessory(MATS);
+        Counts written = writer.finish();
+
+        List<Object> rows = new ArrayList<>();
+        Counts read = new GarageSnapshotReader(new ByteArrayInputStream(output.toByteArray())).read(collector(rows));
+
+        assertThat(read).isEqualTo(written).isEqualTo(new Counts(2, 2, 2, 2));
+        assertThat(rows).containsExactly(GARAGE, GARAGE_WITHOUT_CITY, MORNING, UNKNOWN, CLIO, ORPHAN, GPS, MATS);
+    }
+
+    @Test
+    @DisplayName("Snapshot - version 1, sans coordonnées, toujours lisible")
+    void readsVersionWithoutCoordinates() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GarageSnapshotWriter writer = new GarageSnapshotWriter(output);
+        writer.writeGarage(GARAGE_WITHOUT_CITY);
+        writer.finish();
+        // Version 1 : même garage sans l'octet de présence des coordonnées, qui précède la fin du flux
+        byte[] version1 = Arrays.copyOf(output.toByteArray(), output.size() - 1);
+        version1[GarageSnapshot.MAGIC.length] = GarageSnapshot.VERSION_WITHOUT_COORDINATES;
+
+        List<Object> rows = new ArrayList<>();
+        Counts read = new GarageSnapshotReader(new ByteArrayInputStream(version1)).read(collector(rows));
+
+        assertThat(read).isEqualTo(new Counts(1, 0, 0, 0));
+        assertThat(rows).containsExactly(GARAGE_WITHOUT_CITY);
+    }
+
+    @Test
+    @DisplayName("Snapshot - flux qui n'est pas un snapshot rejeté")
+    void rejectsUnknownFormat() {
+        byte[] data = "not a snapshot".getBytes(StandardCharsets.UTF_8);
+        GarageSnapshotReader reader = new GarageSnapshotReader(new ByteArrayInputStream(data));
+
+        assertThatThrownBy(() -> reader.read(collector(new ArrayList<>())))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("n'est pas un snapshot");
+    }
+
+    @Test
+    @DisplayName("Snapshot - flux tronqué rejeté")
+    void rejectsTruncatedSnapshot() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GarageSnapshotWriter writer = new GarageSnapshotWriter(output);
+        writer.writeGarage(GARAGE);
+        writer.finish();
+        byte[] truncated = Arrays.copyOf(output.toByteArray(), output.size() - 3);
+        GarageSnapshotReader reader = new GarageSnapshotReader(new ByteArrayInputStream(truncated));
+
+        assertThatThrownBy(() -> reader.read(collector(new ArrayList<>())))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Snapshot tronqué");
+    }
+
+    private static GarageSnapshotReader.Handler collector(List<Object> rows) {
+        return new GarageSnapshotReader.Handler() {
+            @Override
+            public void onGarage(GarageRow garage) {
+                rows.add(garage);
+            }
+
+            @Override
+            public void onOpeningTime(OpeningTimeRow openingTime) {
+                rows.add(openingTime);
+            }
+
+            @Override
+            public void onVehicle(VehicleRow vehicle) {
+                rows.add(vehicle);
+            }
+
+            @Override
+            public void onAccessory(AccessoryRow accessory) {
+                rows.add(accessory);
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.renault.garage.snapshot;
+
+import com.renault.garage.entity.Accessory;
+import com.renault.garage.entity.Garage;
+import com.renault.garage.entity.OpeningTime;
+import com.renault.garage.entity.Vehicle;
+import com.renault.garage.enums.AccessoryType;
+import com.renault.garage.enums.FuelType;
+import com.renault.garage.index.AccessoryGarageIndex;
+import com.renault.garage.index.GarageFuelTypeIndex;
+import com.renault.garage.index.GarageNameIndex;
+import com.renault.garage.repository.GarageRepository;
+import com.renault.garage.snapshot.GarageSnapshot.Counts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Export puis import d'un snapshot sur la base de test. Pas de @Transactional :
+ * l'import valide ses insertions au fil de l'eau.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GarageSnapshotServiceTest {
+
+    private static final List<String> TABLE_QUERIES = List.of(
+            "SELECT * FROM garages ORDER BY id",
+            "SELECT * FROM garage_opening_hours ORDER BY garage_id, day_of_week, start_time",
+            "SELECT * FROM vehicles ORDER BY id",
+            "SELECT * FROM accessories ORDER BY id");
+
+    @Autowired
+    private GarageSnapshotService garageSnapshotService;
+
+    @Autowired
+    private GarageRepository garageRepository;
+
+    @Autowired
+    private AccessoryGarageIndex accessoryGarageIndex;
+
+    @Autowired
+    private GarageFuelTypeIndex garageFuelTypeIndex;
+
+    @Autowired
+    private GarageNameIndex garageNameIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+        accessoryGarageIndex.rebuild();
+        garageFuelTypeIndex.rebuild();
+        garageNameIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Snapshot - export puis import à l'identique dans une base vide")
+    void exportThenImportRestoresAllTables() throws IOException {
+        Garage casablanca = garageRepository.save(garage("Garage Casablanca", "Casablanca", FuelType.ELECTRIC));
+        garageRepository.save(garage("Garage Rabat", null, FuelType.DIESEL));
+        List<List<Map<String, Object>>> exported = tables();
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        Counts exportedCounts = garageSnapshotService.exportSnapshot(snapshot);
+        deleteAll();
+        Counts importedCounts = garageSnapshotService.importSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        assertThat(exportedCounts).isEqualTo(new Counts(2, 4, 2, 2));
+        assertThat(importedCounts).isEqualTo(exportedCounts);
+        assertThat(tables()).isEqualTo(exported);
+
+        Garage created = garageRepository.save(garage("Garage Tanger", "Tanger", FuelType.HYBRID));
+        assertThat(created.getId()).isGreaterThan(casablanca.getId() + 1);
+        assertThat(created.getVehicles().get(0).getId())
+                .isGreaterThan(casablanca.getVehicles().get(0).getId() + 1);
+    }
+
+    @Test
+    @DisplayName("Snapshot - import refusé si la base contient déjà des garages")
+    void importRequiresAnEmptyDatabase() throws IOException {
+        garageRepository.save(garage("Garage Casablanca", "Casablanca", FuelType.ELECTRIC));
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        garageSnapshotService.exportSnapshot(snapshot);
+
+        assertThatThrownBy(() -> garageSnapshotService.importSnapshot(new ByteArrayInputStream(snapshot.toByteArray())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("la base n'est pas vide");
+    }
+
+    private Garage garage(String name, String city, FuelType fuelType) {
+        Garage garage = new Garage(name, "Adresse " + name, "0522000000", "contact@renault.ma");
+        garage.setCity(city);
+        garage.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+        garage.getOpeningHours().add(new OpeningTime(DayOfWeek.MONDAY, LocalTime.of(14, 0), LocalTime.of(18, 30)));
+
+        Vehicle vehicle = new Vehicle("Renault", "Megane", 2024, fuelType);
+        vehicle.setGarage(garage);
+        Accessory accessory = new Accessory("GPS", city == null ? null : "Navigation", new BigDecimal("499.90"),
+                AccessoryType.ELECTRONIC);
+        accessory.setVehicle(vehicle);
+        vehicle.getAccessories().add(accessory);
+        garage.getVehicles().add(vehicle);
+        return garage;
+    }
+
+    private List<List<Map<String, Object>>> tables() {
+        return TABLE_QUERIES.stream().map(jdbcTemplate::queryForList).toList();
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM accessories");
+        jdbcTemplate.update("DELETE FROM vehicles");
+        jdbcTemplate.update("DELETE FROM garage_opening_hours");
+        jdbcTemplate.update("DELETE FROM garages");
+    }
+}